@@ -0,0 +1,52 @@
+package com.ssafy.mindmapservice.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+/**
+ * 처리에 실패하면 안 되는 이벤트용 리스너 컨테이너 설정
+ *
+ * 리스너가 예외를 던지면 지수 backoff로 재시도하고, 그래도 실패하면 <topic>.DLT로 보낸 뒤 다음 메시지로 넘어갑니다.
+ * (다른 리스너는 기본 kafkaListenerContainerFactory를 그대로 사용)
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    // 1s → 2s → 4s → 8s → 16s: 합계가 max.poll.interval.ms(5분)보다 충분히 짧게
+    private static final int MAX_RETRIES = 5;
+    private static final long INITIAL_INTERVAL_MS = 1_000L;
+    private static final long MAX_INTERVAL_MS = 16_000L;
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> retryingKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            KafkaTemplate<String, String> kafkaTemplate) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+
+        // DLT 파티션 수가 원본과 달라도 되도록 파티션은 프로듀서에 맡김
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> new TopicPartition(record.topic() + ".DLT", -1));
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(MAX_RETRIES);
+        backOff.setInitialInterval(INITIAL_INTERVAL_MS);
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(MAX_INTERVAL_MS);
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        // 메시지 자체가 잘못된 경우는 재시도해도 소용없으므로 바로 DLT
+        errorHandler.addNotRetryableExceptions(JsonProcessingException.class, IllegalArgumentException.class);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+}
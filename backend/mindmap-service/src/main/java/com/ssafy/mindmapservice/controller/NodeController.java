@@ -9,6 +9,7 @@ import com.ssafy.mindmapservice.dto.request.VoiceIdeaRequest;
 import com.ssafy.mindmapservice.dto.request.ImageNodeCreateRequest;
 import com.ssafy.mindmapservice.dto.response.*;
 import com.ssafy.mindmapservice.dto.request.WorkspaceCloneRequest;
+import com.ssafy.mindmapservice.kafka.AiAnalysisRequestShaper;
 import com.ssafy.mindmapservice.service.NodeAiService;
 import com.ssafy.mindmapservice.service.NodeService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -227,6 +228,32 @@ public class NodeController {
         return ResponseEntity.ok(nodes);
     }
 
+    @Operation(
+            summary = "워크스페이스 노드 변경분 조회",
+            description = """
+                    since 이후 생성/수정/삭제된 노드만 조회합니다.
+                    `mindmap.node.update` 알림을 받거나 재연결했을 때 전체 노드 대신 사용합니다.
+
+                    ### 사용 방법
+                    - 최초: `GET /{workspaceId}/nodes`로 전체 조회 후 `since`는 조회 직전 시각(epoch millis)
+                    - 이후: 응답의 `version`을 다음 요청의 `since`로 사용
+                    - `updated`는 nodeId 기준으로 덮어쓰고, `deletedNodeIds`는 삭제
+                    - `fullResync=true`면 전체 조회를 다시 해야 함 (전체 삭제/정리하기 이후, 너무 오래된 since 등)
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "변경분 조회 성공")
+    })
+    @GetMapping("/{workspaceId}/nodes/changes")
+    public ResponseEntity<NodeChangesResponse> getNodeChanges(
+            @Parameter(description = "워크스페이스 ID", required = true, example = "123")
+            @PathVariable Long workspaceId,
+            @Parameter(description = "마지막으로 받은 version (epoch millis)", required = true, example = "1734567890123")
+            @RequestParam long since) {
+        log.info("GET /mindmap/{}/nodes/changes?since={}", workspaceId, since);
+        return ResponseEntity.ok(nodeService.getNodeChanges(workspaceId, since));
+    }
+
     @Operation(
             summary = "워크스페이스 노드 간단 조회",
             description = "특정 워크스페이스에 속한 노드의 간단한 정보(nodeId, keyword)만 조회합니다. 캘린더 등에서 경량화된 응답이 필요할 때 사용됩니다."
@@ -507,7 +534,7 @@ public class NodeController {
 
     @Operation(
             summary = "워크스페이스 복제",
-            description = "기존 워크스페이스의 모든 노드를 새 워크스페이스로 복제합니다."
+            description = "기존 워크스페이스의 모든 노드를 새 워크스페이스로 복제합니다. 응답은 복제 결과 요약이며, 노드 목록은 노드 조회 API로 가져옵니다."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "워크스페이스 복제 성공"),
@@ -515,7 +542,7 @@ public class NodeController {
             @ApiResponse(responseCode = "500", description = "복제 중 오류 발생", content = @Content)
     })
     @PostMapping("/{workspaceId}/clone")
-    public ResponseEntity<List<MindmapNode>> cloneWorkspace(
+    public ResponseEntity<WorkspaceCloneResponse> cloneWorkspace(
             @Parameter(hidden = true)
             @RequestHeader("X-USER-ID") String userId,
             @Parameter(description = "원본 워크스페이스 ID", required = true, example = "123")
@@ -537,12 +564,12 @@ public class NodeController {
             @RequestBody WorkspaceCloneRequest request) {
         log.info("POST /mindmap/{}/clone - userId={}, name={}", workspaceId, userId, request.workspaceName());
         Long userIdLong = Long.parseLong(userId);
-        List<MindmapNode> clonedNodes = nodeService.cloneWorkspace(
+        WorkspaceCloneResponse response = nodeService.cloneWorkspace(
                 userIdLong,
                 workspaceId,
                 request.workspaceName()
         );
-        return ResponseEntity.status(HttpStatus.CREATED).body(clonedNodes);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @Operation(
@@ -604,6 +631,11 @@ public class NodeController {
                     responseCode = "404",
                     description = "해당 워크스페이스 또는 노드를 찾을 수 없음",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "워크스페이스/사용자별 분석 요청 한도 초과. 잠시 후 다시 시도해야 합니다.",
+                    content = @Content
             )
     })
     @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -627,6 +659,9 @@ public class NodeController {
     )
     @PostMapping("/{workspaceId}/node/{nodeId}/analyze")
     public ResponseEntity<Void> requestAiAnalysis(
+            // Long으로 받아서 숫자가 아닌 헤더는 변환 단계에서 400
+            @Parameter(hidden = true)
+            @RequestHeader(value = "X-USER-ID", required = false) Long userId,
             @Parameter(description = "워크스페이스 ID", required = true, example = "123")
             @PathVariable Long workspaceId,
 
@@ -638,14 +673,19 @@ public class NodeController {
         log.info("POST /mindmap/{}/node/{}/analyze [CONTEXTUAL]", workspaceId, nodeId);
 
         // 현재는 바디 내용에 상관없이 CONTEXTUAL 로직 고정
-        nodeService.requestAiAnalysis(
+        AiAnalysisRequestShaper.Outcome outcome = nodeService.requestAiAnalysis(
                 workspaceId,
                 nodeId,
-                request.contentUrl(),   // contentUrl 사용 안 함
-                request.contentType(),   // contentType 사용 안 함
-                request.prompt()    // prompt 사용 안 함
+                userId,
+                request != null ? request.contentUrl() : null,   // contentUrl 사용 안 함
+                request != null ? request.contentType() : null,   // contentType 사용 안 함
+                request != null ? request.prompt() : null    // prompt 사용 안 함
         );
 
+        // DUPLICATE: 이미 분석 중 → 기존 결과가 WebSocket으로 오므로 그대로 202
+        if (outcome == AiAnalysisRequestShaper.Outcome.RATE_LIMITED) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
         return ResponseEntity.accepted().build();
     }
 
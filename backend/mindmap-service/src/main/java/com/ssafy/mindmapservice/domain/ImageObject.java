@@ -0,0 +1,63 @@
+package com.ssafy.mindmapservice.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내용(SHA-256) 기준으로 중복 제거된 이미지 객체 인덱스
+ * MongoDB 컬렉션: image_objects
+ *
+ * 같은 이미지를 여러 노드/복제 워크스페이스에 올려도 S3에는 한 번만 저장됩니다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "image_objects")
+public class ImageObject {
+
+    /**
+     * 원본 이미지의 SHA-256 (hex)
+     */
+    @Id
+    private String id;
+
+    /**
+     * 원본 S3 key
+     */
+    private String key;
+
+    /**
+     * 캔버스 표시용 축소본 S3 key (축소가 필요 없으면 null)
+     */
+    private String renditionKey;
+
+    private String contentType;
+
+    private Long size;
+
+    /**
+     * S3 업로드 완료 여부 (false면 다음 업로드 요청이 다시 업로드)
+     */
+    private Boolean uploaded;
+
+    /**
+     * ImageGarbageCollector가 S3 삭제 중 (S3 삭제가 끝난 뒤 문서 삭제, 그동안 같은 내용 업로드는 대기)
+     */
+    private Boolean deleting;
+
+    private LocalDateTime createdAt;
+
+    /**
+     * 마지막으로 참조(업로드)된 시각, GC 대상 판단 및 삭제 시 동시성 확인에 사용
+     */
+    @Indexed
+    private LocalDateTime lastReferencedAt;
+}
@@ -8,6 +8,7 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -22,8 +23,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "nodes")
-@CompoundIndex(name = "workspace_node_unique_idx",
-        def = "{'workspaceId': 1, 'nodeId': 1}", unique = true)
+@CompoundIndexes({
+        @CompoundIndex(name = "workspace_node_unique_idx",
+                def = "{'workspaceId': 1, 'nodeId': 1}", unique = true),
+        @CompoundIndex(name = "workspace_updated_at_idx",
+                def = "{'workspaceId': 1, 'updatedAt': 1}")  // 변경분 조회 (nodes/changes)
+})
 public class MindmapNode {
 
     /**
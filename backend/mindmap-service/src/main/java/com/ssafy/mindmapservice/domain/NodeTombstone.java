@@ -0,0 +1,42 @@
+package com.ssafy.mindmapservice.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * 삭제된 노드 기록 (변경분 조회 API용)
+ * MongoDB 컬렉션: node_tombstones
+ *
+ * - nodeId가 있으면 해당 노드 하나가 삭제됨
+ * - nodeId가 null이면 워크스페이스 전체 노드가 교체/삭제됨 (전체 삭제, 정리하기) → 클라이언트는 전체 재조회
+ * - 보관 기간(30일)이 지나면 TTL 인덱스로 자동 삭제, 그보다 오래된 since로 조회하면 전체 재조회
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "node_tombstones")
+@CompoundIndex(name = "workspace_deleted_at_idx", def = "{'workspaceId': 1, 'deletedAt': 1}")
+public class NodeTombstone {
+
+    @Id
+    private String id;
+
+    private Long workspaceId;
+
+    /**
+     * 삭제된 노드 ID (null이면 워크스페이스 전체)
+     */
+    private Long nodeId;
+
+    @Indexed(name = "deleted_at_ttl_idx", expireAfter = "30d")
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,69 @@
+package com.ssafy.mindmapservice.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * 삭제된 워크스페이스의 데이터 정리 진행 상황
+ * MongoDB 컬렉션: workspace_deletions
+ *
+ * workspace.deleted 이벤트를 받으면 PENDING으로 생성되고, WorkspaceDeletionService가 단계별로 정리합니다.
+ * 이미 끝난 단계는 재시도 시 건너뜁니다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "workspace_deletions")
+@CompoundIndex(name = "status_next_attempt_idx", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class WorkspaceDeletion {
+
+    /**
+     * 삭제된 워크스페이스 ID
+     */
+    @Id
+    private Long workspaceId;
+
+    private Status status;
+
+    /**
+     * 지금까지 삭제한 노드 수
+     */
+    private Long deletedNodes;
+
+    private Boolean nodesDeleted;
+
+    private Boolean sequenceDeleted;
+
+    private Boolean searchIndexDeleted;
+
+    /**
+     * 시도 횟수 (max-attempts를 넘으면 FAILED)
+     */
+    private Integer attempts;
+
+    private String lastError;
+
+    private LocalDateTime requestedAt;
+
+    /**
+     * 다음 처리 가능 시각 (재시도 backoff, 처리 중에는 lease 만료 시각)
+     */
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        PENDING,
+        IN_PROGRESS,
+        DONE,
+        FAILED
+    }
+}
@@ -0,0 +1,23 @@
+package com.ssafy.mindmapservice.dto.response;
+
+import java.util.List;
+
+/**
+ * 노드 변경분 응답 DTO
+ *
+ * @param version        다음 조회 때 since로 넘길 값 (epoch millis)
+ * @param fullResync     true면 변경분을 만들 수 없음 → GET /{workspaceId}/nodes로 전체 재조회
+ * @param updated        since 이후 생성/수정된 노드 (image 타입은 presigned URL 포함)
+ * @param deletedNodeIds since 이후 삭제된 노드 ID
+ */
+public record NodeChangesResponse(
+        Long workspaceId,
+        long version,
+        boolean fullResync,
+        List<NodeResponse> updated,
+        List<Long> deletedNodeIds
+) {
+    public static NodeChangesResponse fullResync(Long workspaceId, long version) {
+        return new NodeChangesResponse(workspaceId, version, true, List.of(), List.of());
+    }
+}
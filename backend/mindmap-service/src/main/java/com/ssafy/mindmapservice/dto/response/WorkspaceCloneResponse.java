@@ -0,0 +1,24 @@
+package com.ssafy.mindmapservice.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * 워크스페이스 복제 결과 요약 DTO
+ * (복제된 노드 목록은 GET /mindmap/{workspaceId}/nodes 로 조회)
+ */
+@Schema(description = "워크스페이스 복제 결과 요약 DTO")
+public record WorkspaceCloneResponse(
+
+        @Schema(description = "원본 워크스페이스 ID", example = "123")
+        Long sourceWorkspaceId,
+
+        @Schema(description = "새로 생성된 워크스페이스 ID", example = "456")
+        Long workspaceId,
+
+        @Schema(description = "복제된 노드 수", example = "128")
+        long clonedNodeCount,
+
+        @Schema(description = "복제된 노드 중 가장 큰 nodeId (다음 nodeId는 이 값 + 1)", example = "140")
+        Long maxNodeId
+) {
+}
@@ -8,11 +8,22 @@ import com.ssafy.mindmapservice.dto.kafka.AiAnalysisResult;
 import com.ssafy.mindmapservice.dto.kafka.AiContextualSuggestion;
 import com.ssafy.mindmapservice.dto.kafka.AiSuggestionNode;
 import com.ssafy.mindmapservice.dto.response.AiTrendSuggestionResponse;
+import com.ssafy.mindmapservice.dto.response.TrendItem;
 import com.ssafy.mindmapservice.dto.response.TrendResponse;
 import com.ssafy.mindmapservice.repository.NodeRepository;
 import com.ssafy.mindmapservice.service.NodeService;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -20,6 +31,12 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Slf4j
 @Component
@@ -33,6 +50,14 @@ public class AiAnalysisConsumer {
     private final WorkspaceServiceClient workspaceServiceClient;
     private final AiSuggestionProducer aiSuggestionProducer;
     private final TrendServiceClient trendServiceClient;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // CONTEXTUAL 결과의 독립 단계(트렌드 조회 / 상태 업데이트 등)를 동시에 실행하는 executor (I/O 대기 위주라 가상 스레드 사용)
+    private final ExecutorService fanOutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${ai.result.trend-timeout-ms:800}")
+    private long trendTimeoutMs;
 
     /**
      * AI 서버로부터 분석 결과를 받아서 처리합니다.
@@ -83,14 +108,21 @@ public class AiAnalysisConsumer {
             if (!"SUCCESS".equals(result.status())) {
                 log.error("AI analysis failed: workspaceId={}, nodeId={}, status={}, type={}",
                         result.workspaceId(), originalNodeId, result.status(), analysisType);
-                updateNodeAnalysisStatus(result.workspaceId(), originalNodeId,
-                        MindmapNode.AnalysisStatus.FAILED);
+                completeNodeAnalysis(result.workspaceId(), originalNodeId,
+                        MindmapNode.AnalysisStatus.FAILED, null, null);
                 return;
             }
 
-            // 2. INITIAL인 경우 원본 노드의 memo에 aiSummary 업데이트 및 워크스페이스 title 업데이트
+            // 2. INITIAL인 경우 원본 노드의 memo/keyword + 분석 상태 DONE을 한 번의 조건부 update로 반영하고 워크스페이스 title 업데이트
+            //    노드가 이미 PENDING/PROCESSING이 아니면(재전송된 메시지 등) 자식 노드를 중복 생성하지 않도록 종료
+            //    (DB 오류는 건너뛰지 않고 예외로 올라가 실패로 기록됨)
             if (isInitial) {
-                updateNodeMemo(result.workspaceId(), originalNodeId, result.aiSummary(), result.keyword());
+                if (!completeNodeAnalysis(result.workspaceId(), originalNodeId,
+                        MindmapNode.AnalysisStatus.DONE, result.aiSummary(), result.keyword())) {
+                    log.warn("Skip INITIAL result, node is not waiting for analysis: workspaceId={}, nodeId={}",
+                            result.workspaceId(), originalNodeId);
+                    return;
+                }
                 log.info("Updated original node memo with AI summary: workspaceId={}, nodeId={}",
                         result.workspaceId(), originalNodeId);
 
@@ -134,43 +166,10 @@ public class AiAnalysisConsumer {
 
                 } else {
                     // ✅ CONTEXTUAL: MongoDB 저장 없음. AI + 트렌드 합쳐서 보내기
+                    //    (상태 업데이트 / 노드 업데이트 알림까지 병렬로 처리하고 종료)
                     log.info("🧪 [CONTEXTUAL RESULT] Skip MongoDB node creation. Sending AI + Trend suggestions only.");
-
-                    // 1) AI 추천 리스트
-                    var aiNodes = result.nodes().stream()
-                            .map(n -> new AiSuggestionNode(
-                                    n.tempId(),
-                                    parseLongSafe(n.parentId()),
-                                    n.keyword(),
-                                    n.memo()
-                            ))
-                            .toList();
-
-                    // 2) TrendService 호출
-                    //    기준 키워드는 "확장한 노드의 keyword" 사용하는 게 자연스럽다
-                    MindmapNode baseNode = nodeRepository.findByWorkspaceIdAndNodeId(
-                            result.workspaceId(), originalNodeId
-                    ).orElseThrow(() -> new IllegalArgumentException(
-                            "Base node not found: workspaceId=" + result.workspaceId() + ", nodeId=" + originalNodeId));
-
-                    String parentKeyword = baseNode.getKeyword();
-
-                    TrendResponse trend = trendServiceClient.getParentTrend(
-                            parentKeyword, // 부모 키워드
-                            "7d",          // 집계 기간
-                            3              // 상위 3개만
-                    );
-
-                    // 3) 최종 WebSocket 전송 payload (AI 리스트 + Trend 리스트)
-                    AiTrendSuggestionResponse merged = AiTrendSuggestionResponse.builder()
-                            .workspaceId(result.workspaceId())
-                            .targetNodeId(originalNodeId)
-                            .aiList(aiNodes)
-                            .trendList(trend.getItems()) // TrendItem 그대로
-                            .build();
-
-                    // 4) Node.js로 브로드캐스트 (Kafka 통해)
-                    aiSuggestionProducer.sendContextualSuggestion(merged);
+                    handleContextualResult(result, originalNodeId);
+                    return;
                 }
             } else {
                 log.warn("⚠️ [NO NODES] AI result has no nodes to create: workspaceId={}, nodes={}",
@@ -179,9 +178,11 @@ public class AiAnalysisConsumer {
 
 
 
-            // 5. 원본 노드의 분석 상태를 DONE으로 변경
-            updateNodeAnalysisStatus(result.workspaceId(), originalNodeId,
-                    MindmapNode.AnalysisStatus.DONE);
+            // 5. 원본 노드의 분석 상태를 DONE으로 변경 (INITIAL은 2번에서 memo와 함께 반영됨)
+            if (!isInitial) {
+                completeNodeAnalysis(result.workspaceId(), originalNodeId,
+                        MindmapNode.AnalysisStatus.DONE, null, null);
+            }
 
             log.info("Successfully processed AI analysis result: workspaceId={}, nodeId={}, type={}",
                     result.workspaceId(), originalNodeId, analysisType);
@@ -195,50 +196,177 @@ public class AiAnalysisConsumer {
     }
 
     /**
-     * 노드의 memo를 AI Summary로 업데이트합니다 (INITIAL 분석 전용)
+     * CONTEXTUAL 결과 처리 (fan-out)
+     *
+     * [A] 기준 노드 keyword 조회 → 트렌드 조회(타임아웃 시 빈 목록) → AI + 트렌드 추천 전송
+     * [B] 분석 상태 DONE ($set) → mindmap.node.update 알림
+     *
+     * A와 B는 서로 독립적이라 동시에 실행하고, 트렌드 서비스가 느려도 trendTimeoutMs 이상 기다리지 않습니다.
+     * 단계별 소요 시간은 mindmap.ai.result.step 타이머(step 태그)로 기록됩니다.
      */
-    private void updateNodeMemo(Long workspaceId, Long nodeId, String aiSummary, String keyword) {
-        try {
-            MindmapNode node = nodeRepository.findByWorkspaceIdAndNodeId(workspaceId, nodeId)
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Node not found: workspaceId=" + workspaceId + ", nodeId=" + nodeId));
-
-            node.setMemo(aiSummary);
-            node.setUpdatedAt(LocalDateTime.now());
-
-            if(node.getType().equals("text")) {
-                node.setKeyword(keyword);
-            }
+    private void handleContextualResult(AiAnalysisResult result, Long originalNodeId) {
+        Long workspaceId = result.workspaceId();
+        Timer.Sample total = Timer.start(meterRegistry);
+
+        // 1) AI 추천 리스트
+        var aiNodes = result.nodes().stream()
+                .map(n -> new AiSuggestionNode(
+                        n.tempId(),
+                        parseLongSafe(n.parentId()),
+                        n.keyword(),
+                        n.memo()
+                ))
+                .toList();
+
+        // [A] 기준 노드 → 트렌드 → 추천 전송
+        CompletableFuture<Void> suggestion = CompletableFuture
+                .supplyAsync(() -> timed("base_node", () -> findKeyword(workspaceId, originalNodeId)), fanOutExecutor)
+                .thenCompose(this::fetchTrendWithTimeout)
+                .thenAccept(trendItems -> timed("suggestion_send", () -> {
+                    // 최종 WebSocket 전송 payload (AI 리스트 + Trend 리스트)
+                    AiTrendSuggestionResponse merged = AiTrendSuggestionResponse.builder()
+                            .workspaceId(workspaceId)
+                            .targetNodeId(originalNodeId)
+                            .aiList(aiNodes)
+                            .trendList(trendItems) // TrendItem 그대로
+                            .build();
 
-            nodeRepository.save(node);
+                    // Node.js로 브로드캐스트 (Kafka 통해)
+                    aiSuggestionProducer.sendContextualSuggestion(merged);
+                    return null;
+                }));
+
+        // [B] 상태 업데이트 → 노드 업데이트 알림
+        CompletableFuture<Void> status = CompletableFuture
+                .runAsync(() -> timed("status_update", () -> {
+                    completeNodeAnalysis(workspaceId, originalNodeId, MindmapNode.AnalysisStatus.DONE, null, null);
+                    return null;
+                }), fanOutExecutor)
+                .thenRun(() -> timed("node_update_send", () -> {
+                    nodeUpdateProducer.sendNodeUpdate(workspaceId);
+                    return null;
+                }));
 
-        } catch (Exception e) {
-            log.error("Failed to update node memo: workspaceId={}, nodeId={}",
-                    workspaceId, nodeId, e);
+        try {
+            CompletableFuture.allOf(suggestion, status).join();
+            log.info("Successfully processed AI analysis result: workspaceId={}, nodeId={}, type=CONTEXTUAL",
+                    workspaceId, originalNodeId);
+        } catch (CompletionException e) {
+            log.error("Failed to process CONTEXTUAL result: workspaceId={}, nodeId={}",
+                    workspaceId, originalNodeId, e.getCause());
+        } finally {
+            total.stop(stepTimer("total"));
         }
     }
 
     /**
-     * 노드의 분석 상태를 업데이트합니다.
+     * 트렌드 서비스 조회. trendTimeoutMs 안에 응답이 없거나 실패하면 빈 목록으로 대체합니다.
      */
-    private void updateNodeAnalysisStatus(Long workspaceId, Long nodeId,
-                                          MindmapNode.AnalysisStatus status) {
+    private CompletableFuture<List<TrendItem>> fetchTrendWithTimeout(String parentKeyword) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    TrendResponse trend = trendServiceClient.getParentTrend(
+                            parentKeyword, // 부모 키워드
+                            "7d",          // 집계 기간
+                            3              // 상위 3개만
+                    );
+                    return trend != null && trend.getItems() != null ? trend.getItems() : List.<TrendItem>of();
+                }, fanOutExecutor)
+                .completeOnTimeout(null, trendTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.warn("Trend lookup failed, fallback to empty list: parentKeyword={}", parentKeyword, e);
+                    return List.of();
+                })
+                .thenApply(items -> {
+                    sample.stop(stepTimer("trend_lookup"));
+                    if (items == null) {
+                        log.warn("Trend lookup timed out after {}ms, fallback to empty list: parentKeyword={}",
+                                trendTimeoutMs, parentKeyword);
+                        return List.of();
+                    }
+                    return items;
+                });
+    }
+
+    /**
+     * 기준 노드의 keyword만 조회합니다 (전체 문서 로드 대신 projection)
+     */
+    private String findKeyword(Long workspaceId, Long nodeId) {
+        Query query = new Query(Criteria.where("workspaceId").is(workspaceId).and("nodeId").is(nodeId));
+        query.fields().include("keyword");
+
+        MindmapNode baseNode = mongoTemplate.findOne(query, MindmapNode.class);
+        if (baseNode == null) {
+            throw new IllegalArgumentException(
+                    "Base node not found: workspaceId=" + workspaceId + ", nodeId=" + nodeId);
+        }
+        return baseNode.getKeyword();
+    }
+
+    private <T> T timed(String step, Supplier<T> body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            MindmapNode node = nodeRepository.findByWorkspaceIdAndNodeId(workspaceId, nodeId)
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Node not found: workspaceId=" + workspaceId + ", nodeId=" + nodeId));
+            return body.get();
+        } finally {
+            sample.stop(stepTimer(step));
+        }
+    }
 
-            node.setAnalysisStatus(status);
-            node.setUpdatedAt(LocalDateTime.now());
-            nodeRepository.save(node);
+    private Timer stepTimer(String step) {
+        return Timer.builder("mindmap.ai.result.step")
+                .description("AI 분석 결과(CONTEXTUAL) 처리 단계별 소요 시간")
+                .tag("step", step)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
-            log.debug("Updated node analysis status: workspaceId={}, nodeId={}, status={}",
-                    workspaceId, nodeId, status);
+    @PreDestroy
+    void shutdownFanOutExecutor() {
+        fanOutExecutor.shutdown();
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to update node analysis status: workspaceId={}, nodeId={}, status={}",
-                    workspaceId, nodeId, status, e);
+    /**
+     * 분석 완료/실패를 노드에 반영합니다.
+     * 문서 전체를 읽고 다시 저장하지 않고, 한 번의 조건부 updateOne으로 필요한 필드만 변경합니다.
+     * (NodeEventConsumer가 그 사이 반영한 x/y/keyword 등 Yjs 편집을 덮어쓰지 않음)
+     *
+     * - 조건: analysisStatus가 PENDING 또는 PROCESSING인 경우에만 (compare-and-set)
+     * - aiSummary가 있으면 memo 변경, keyword가 있으면 text 노드에 한해 keyword 변경 (INITIAL 전용)
+     *
+     * @return 실제로 반영되었으면 true, 노드가 없거나 이미 분석 대기 상태가 아니면 false
+     *         (DB 오류는 false로 바꾸지 않고 그대로 던짐 → 호출한 쪽에서 "이미 처리됨"과 구분)
+     */
+    private boolean completeNodeAnalysis(Long workspaceId, Long nodeId,
+                                         MindmapNode.AnalysisStatus status,
+                                         String aiSummary, String keyword) {
+        Query query = new Query(Criteria.where("workspaceId").is(workspaceId)
+                .and("nodeId").is(nodeId)
+                .and("analysisStatus").in(
+                        MindmapNode.AnalysisStatus.PENDING.name(),
+                        MindmapNode.AnalysisStatus.PROCESSING.name()));
+
+        // type 조건부 keyword 변경까지 한 번에 하기 위해 pipeline update 사용
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("analysisStatus").toValue(status.name())
+                .set("updatedAt").toValue(LocalDateTime.now());
+
+        if (aiSummary != null) {
+            update.set("memo").toValue(aiSummary);
         }
+        if (keyword != null) {
+            update.set("keyword").toValue(ConditionalOperators
+                    .when(Criteria.where("type").is("text"))
+                    .then(keyword)
+                    .otherwiseValueOf("keyword"));
+        }
+
+        UpdateResult updateResult = mongoTemplate.updateFirst(query, update, MindmapNode.class);
+        boolean applied = updateResult.getModifiedCount() > 0;
+
+        log.debug("Complete node analysis: workspaceId={}, nodeId={}, status={}, memo={}, applied={}",
+                workspaceId, nodeId, status, aiSummary != null, applied);
+        return applied;
     }
 
     private Long parseLongSafe(String value) {
@@ -8,6 +8,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -38,4 +42,28 @@ public class AiAnalysisProducer {
             throw new RuntimeException("AI 분석 요청 전송 실패", e);
         }
     }
+
+    /**
+     * 같은 워크스페이스의 CONTEXTUAL 요청 여러 개를 한 메시지로 전송합니다.
+     * AI 서버가 analysisType=CONTEXTUAL_BATCH 를 지원할 때만 사용합니다. (AiAnalysisRequestShaper 배치 모드)
+     *
+     * @param workspaceId 워크스페이스 ID (파티션 키)
+     * @param requests    CONTEXTUAL 분석 요청 목록
+     */
+    public void sendAnalysisBatch(Long workspaceId, List<AiAnalysisRequest> requests) {
+        try {
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("workspaceId", workspaceId);
+            message.put("analysisType", "CONTEXTUAL_BATCH");
+            message.put("requests", requests);
+
+            kafkaTemplate.send(aiRequestTopic, workspaceId.toString(), objectMapper.writeValueAsString(message));
+
+            log.info("Sent AI analysis batch to Kafka: workspaceId={}, size={}", workspaceId, requests.size());
+
+        } catch (Exception e) {
+            log.error("Failed to send AI analysis batch to Kafka", e);
+            throw new RuntimeException("AI 분석 배치 요청 전송 실패", e);
+        }
+    }
 }
@@ -0,0 +1,332 @@
+package com.ssafy.mindmapservice.kafka;
+
+import com.mongodb.client.result.UpdateResult;
+import com.ssafy.mindmapservice.domain.MindmapNode;
+import com.ssafy.mindmapservice.dto.request.AiAnalysisRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AiAnalysisProducer 앞단에서 CONTEXTUAL 분석 요청을 정리(shaping)합니다.
+ *
+ * 1. 중복 제거: 같은 (workspaceId, nodeId)가 PENDING/PROCESSING이면 새 요청을 보내지 않음
+ *    (MongoDB 조건부 update로 원자적으로 판단하므로 인스턴스가 여러 개여도 안전)
+ * 2. 토큰 버킷: 워크스페이스별 / 사용자별 요청 속도 제한
+ * 3. 배치: ai.request.batch.enabled=true 인 경우 같은 워크스페이스의 CONTEXTUAL 요청을 모아서 한 메시지로 전송
+ *    (AI 서버가 배치 메시지를 지원할 때만 켤 것)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiAnalysisRequestShaper {
+
+    public enum Outcome {
+        ACCEPTED,     // 전송(또는 배치 대기열에 추가)됨
+        DUPLICATE,    // 이미 분석 중인 노드 → 기존 결과를 기다리면 됨
+        RATE_LIMITED  // 요청 한도 초과
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final AiAnalysisProducer aiAnalysisProducer;
+
+    // 워크스페이스별: 기본 분당 20건, 버스트 5건
+    @Value("${ai.request.rate.workspace-per-minute:20}") private int workspacePerMinute;
+    @Value("${ai.request.rate.workspace-burst:5}") private int workspaceBurst;
+
+    // 사용자별: 기본 분당 10건, 버스트 3건
+    @Value("${ai.request.rate.user-per-minute:10}") private int userPerMinute;
+    @Value("${ai.request.rate.user-burst:3}") private int userBurst;
+
+    // AI 결과가 오지 않아 PENDING/PROCESSING에 멈춘 노드는 이 시간 후 재요청 허용
+    @Value("${ai.request.pending-timeout-seconds:300}") private long pendingTimeoutSeconds;
+
+    @Value("${ai.request.batch.enabled:false}") private boolean batchEnabled;
+    @Value("${ai.request.batch.window-ms:300}") private long batchWindowMs;
+    @Value("${ai.request.batch.max-size:8}") private int batchMaxSize;
+
+    private static final int MAX_BUCKETS = 10_000;
+
+    private final Map<Long, TokenBucket> workspaceBuckets = new ConcurrentHashMap<>();
+    private final Map<Long, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+
+    // workspaceId → 대기 중인 CONTEXTUAL 요청 (배치 모드 전용)
+    private final Map<Long, List<AiAnalysisRequest>> pendingBatches = new LinkedHashMap<>();
+    private volatile boolean running = false;
+    private Thread flusher;
+
+    /**
+     * CONTEXTUAL 분석 요청을 제출합니다.
+     * ACCEPTED인 경우 노드의 analysisStatus는 PENDING으로 바뀌어 있습니다.
+     *
+     * @param request 분석 요청 (nodes 컨텍스트 포함)
+     * @param userId  요청한 사용자 ID (없으면 사용자 한도는 적용하지 않음)
+     */
+    public Outcome submit(AiAnalysisRequest request, Long userId) {
+        Long workspaceId = request.workspaceId();
+        Long nodeId = request.nodeId();
+
+        // 1) 중복 제거 + PENDING 표시 (원자적)
+        PendingMark previous = markPending(workspaceId, nodeId);
+        if (previous == null) {
+            log.info("Skip duplicate AI analysis request: workspaceId={}, nodeId={}", workspaceId, nodeId);
+            return Outcome.DUPLICATE;
+        }
+
+        // 2) 속도 제한 (워크스페이스 → 사용자 순으로 토큰 소비)
+        TokenBucket wsBucket = bucket(workspaceBuckets, workspaceId, workspaceBurst, workspacePerMinute);
+        TokenBucket userBucket = userId == null ? null : bucket(userBuckets, userId, userBurst, userPerMinute);
+
+        if (!wsBucket.tryAcquire()) {
+            restoreStatus(workspaceId, nodeId, previous);
+            log.warn("AI analysis rate limited (workspace): workspaceId={}, nodeId={}", workspaceId, nodeId);
+            return Outcome.RATE_LIMITED;
+        }
+        if (userBucket != null && !userBucket.tryAcquire()) {
+            wsBucket.refund();
+            restoreStatus(workspaceId, nodeId, previous);
+            log.warn("AI analysis rate limited (user): userId={}, workspaceId={}, nodeId={}", userId, workspaceId, nodeId);
+            return Outcome.RATE_LIMITED;
+        }
+
+        // 3) 전송
+        try {
+            if (batchEnabled && "CONTEXTUAL".equals(request.analysisType())) {
+                enqueue(request);
+            } else {
+                aiAnalysisProducer.sendAnalysisRequest(request);
+            }
+        } catch (RuntimeException e) {
+            restoreStatus(workspaceId, nodeId, previous);
+            throw e;
+        }
+        return Outcome.ACCEPTED;
+    }
+
+    // ===================== 중복 제거 =====================
+
+    /**
+     * PENDING 표시 전 상태 (요청을 보내지 못했을 때 되돌리기용)
+     *
+     * @param status    변경 전 analysisStatus
+     * @param updatedAt 변경 전 updatedAt
+     * @param markedAt  PENDING 표시 때 기록한 updatedAt
+     */
+    private record PendingMark(MindmapNode.AnalysisStatus status, LocalDateTime updatedAt, LocalDateTime markedAt) {
+    }
+
+    /**
+     * 분석 중이 아닌 노드(또는 타임아웃된 노드)만 PENDING으로 바꿉니다.
+     *
+     * @return 변경 전 상태 (findAndModify의 변경 전 문서), 이미 분석 중이면 null
+     */
+    private PendingMark markPending(Long workspaceId, Long nodeId) {
+        // MongoDB Date는 ms 단위 → 되돌릴 때 같은 값으로 비교할 수 있도록 잘라서 저장
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Criteria notInFlight = new Criteria().orOperator(
+                Criteria.where("analysisStatus").nin(
+                        MindmapNode.AnalysisStatus.PENDING, MindmapNode.AnalysisStatus.PROCESSING),
+                Criteria.where("updatedAt").lt(now.minusSeconds(pendingTimeoutSeconds))
+        );
+        Query query = new Query(Criteria.where("workspaceId").is(workspaceId)
+                .and("nodeId").is(nodeId)
+                .andOperator(notInFlight));
+
+        Update update = new Update()
+                .set("analysisStatus", MindmapNode.AnalysisStatus.PENDING)
+                .set("updatedAt", now);
+
+        MindmapNode before = mongoTemplate.findAndModify(query, update, MindmapNode.class);
+        if (before == null) {
+            return null;
+        }
+        MindmapNode.AnalysisStatus status =
+                before.getAnalysisStatus() != null ? before.getAnalysisStatus() : MindmapNode.AnalysisStatus.NONE;
+        return new PendingMark(status, before.getUpdatedAt(), now);
+    }
+
+    /**
+     * PENDING 표시를 되돌립니다.
+     * 그 사이 다른 변경이 없으면 updatedAt도 되돌려서, 보내지 못한 요청이 변경분 조회(/nodes/changes)에 노드 변경으로 잡히지 않게 합니다.
+     * 다른 변경이 있었으면 그 변경의 updatedAt은 유지하고 상태만 되돌립니다.
+     */
+    private void restoreStatus(Long workspaceId, Long nodeId, PendingMark previous) {
+        Criteria pending = Criteria.where("workspaceId").is(workspaceId)
+                .and("nodeId").is(nodeId)
+                .and("analysisStatus").is(MindmapNode.AnalysisStatus.PENDING);
+
+        UpdateResult result = mongoTemplate.updateFirst(
+                new Query(pending.and("updatedAt").is(previous.markedAt())),
+                new Update().set("analysisStatus", previous.status()).set("updatedAt", previous.updatedAt()),
+                MindmapNode.class);
+
+        if (result.getModifiedCount() == 0) {
+            result = mongoTemplate.updateFirst(
+                    new Query(Criteria.where("workspaceId").is(workspaceId)
+                            .and("nodeId").is(nodeId)
+                            .and("analysisStatus").is(MindmapNode.AnalysisStatus.PENDING)),
+                    new Update().set("analysisStatus", previous.status()),
+                    MindmapNode.class);
+        }
+        log.debug("Restored analysisStatus: workspaceId={}, nodeId={}, status={}, modified={}",
+                workspaceId, nodeId, previous.status(), result.getModifiedCount());
+    }
+
+    /**
+     * 삭제된 워크스페이스의 속도 제한 버킷과 배치 대기 요청을 버립니다.
+     */
+    public void forgetWorkspace(Long workspaceId) {
+        workspaceBuckets.remove(workspaceId);
+        List<AiAnalysisRequest> dropped;
+        synchronized (pendingBatches) {
+            dropped = pendingBatches.remove(workspaceId);
+        }
+        if (dropped != null) {
+            log.debug("Dropped pending AI requests of deleted workspace: workspaceId={}, count={}",
+                    workspaceId, dropped.size());
+        }
+    }
+
+    // ===================== 속도 제한 =====================
+
+    private TokenBucket bucket(Map<Long, TokenBucket> buckets, Long key, int burst, int perMinute) {
+        if (buckets.size() > MAX_BUCKETS) {
+            // 가득 찬(= 한동안 안 쓰인) 버킷만 정리
+            buckets.values().removeIf(TokenBucket::isFull);
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(burst, perMinute / 60_000.0));
+    }
+
+    /**
+     * 단순 토큰 버킷 (ms 단위 refill)
+     */
+    static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerMs;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, double refillPerMs) {
+            this.capacity = capacity;
+            this.refillPerMs = refillPerMs;
+            this.tokens = capacity;
+            this.lastRefill = System.currentTimeMillis();
+        }
+
+        synchronized boolean tryAcquire() {
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isFull() {
+            refill();
+            return tokens >= capacity;
+        }
+
+        private void refill() {
+            long now = System.currentTimeMillis();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMs);
+            lastRefill = now;
+        }
+    }
+
+    // ===================== 배치 =====================
+
+    private void enqueue(AiAnalysisRequest request) {
+        List<AiAnalysisRequest> ready = null;
+        synchronized (pendingBatches) {
+            List<AiAnalysisRequest> list = pendingBatches.computeIfAbsent(request.workspaceId(), k -> new ArrayList<>());
+            list.add(request);
+            if (list.size() >= batchMaxSize) {
+                ready = pendingBatches.remove(request.workspaceId());
+            }
+        }
+        if (ready != null) {
+            sendBatch(request.workspaceId(), ready);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!batchEnabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "ai-request-batch-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) flusher.join(1000);
+        flushAll();
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                Thread.sleep(batchWindowMs);
+                flushAll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("AI request batch flush loop error", e);
+            }
+        }
+    }
+
+    private void flushAll() {
+        Map<Long, List<AiAnalysisRequest>> snapshot;
+        synchronized (pendingBatches) {
+            if (pendingBatches.isEmpty()) return;
+            snapshot = new LinkedHashMap<>(pendingBatches);
+            pendingBatches.clear();
+        }
+        snapshot.forEach(this::sendBatch);
+    }
+
+    private void sendBatch(Long workspaceId, List<AiAnalysisRequest> requests) {
+        try {
+            if (requests.size() == 1) {
+                aiAnalysisProducer.sendAnalysisRequest(requests.getFirst());
+            } else {
+                aiAnalysisProducer.sendAnalysisBatch(workspaceId, requests);
+            }
+        } catch (Exception e) {
+            log.error("Failed to send AI analysis batch: workspaceId={}, size={}", workspaceId, requests.size(), e);
+            for (AiAnalysisRequest r : requests) {
+                mongoTemplate.updateFirst(
+                        new Query(Criteria.where("workspaceId").is(r.workspaceId()).and("nodeId").is(r.nodeId())),
+                        new Update().set("analysisStatus", MindmapNode.AnalysisStatus.FAILED)
+                                .set("updatedAt", LocalDateTime.now()),
+                        MindmapNode.class);
+            }
+        }
+    }
+}
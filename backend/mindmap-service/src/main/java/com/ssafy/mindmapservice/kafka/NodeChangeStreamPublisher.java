@@ -0,0 +1,341 @@
+package com.ssafy.mindmapservice.kafka;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * nodes / node_tombstones 컬렉션의 change stream을 구독해서 mindmap.node.update 알림을 발행합니다.
+ *
+ * REST / Yjs 이벤트 / AI 결과 / 정리하기 등 어떤 경로로 노드가 바뀌어도 같은 방식으로 알림이 나갑니다.
+ * - flush-interval 동안 모인 변경을 워크스페이스별로 합쳐서 nodeId만 담은 delta 메시지로 전송
+ * - 전송이 끝난 뒤 resume token을 change_stream_offsets에 저장 → 재시작 시 이어서 처리 (at-least-once)
+ * - 인스턴스가 여러 개면 lease를 가진 한 곳에서만 구독
+ *
+ * change stream은 MongoDB replica set(또는 sharded cluster)에서만 동작합니다.
+ * standalone이면 시작 시 한 번 확인하고 워커를 끝냅니다.
+ * 웹소켓 서비스가 아직 delta 메시지를 클라이언트에 전달하지 않으므로 기본값은 비활성입니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NodeChangeStreamPublisher {
+
+    private static final String OFFSET_COLLECTION = "change_stream_offsets";
+    private static final String STREAM_ID = "node-update-publisher";
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final NodeUpdateProducer nodeUpdateProducer;
+
+    @Value("${mindmap.change-stream.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mindmap.change-stream.flush-interval:200ms}")
+    private Duration flushInterval;
+
+    @Value("${mindmap.change-stream.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${mindmap.change-stream.lease-timeout:30s}")
+    private Duration leaseTimeout;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean running = false;
+    private Thread worker;
+
+    /**
+     * 워크스페이스별로 모은 변경 (nodeId 중복 제거)
+     */
+    private static final class WorkspaceDelta {
+        final Set<Long> updated = new LinkedHashSet<>();
+        final Set<Long> deleted = new LinkedHashSet<>();
+        boolean reset;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            log.info("Node change stream publisher disabled");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "node-change-stream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(flushInterval.toMillis() + 1000);
+        }
+        releaseLease();
+    }
+
+    private void runLoop() {
+        if (!changeStreamSupported()) {
+            running = false;
+            return;
+        }
+        while (running) {
+            try {
+                if (!acquireLease()) {
+                    // 다른 인스턴스가 구독 중 → lease 만료를 기다림
+                    TimeUnit.MILLISECONDS.sleep(leaseTimeout.toMillis() / 3);
+                    continue;
+                }
+                tail();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    // oplog에서 resume token 위치가 사라짐 → 현재 시점부터 다시 시작 (그 사이 변경은 nodes/changes로 복구)
+                    log.warn("Change stream history lost, restarting from now");
+                    saveResumeToken(null);
+                } else {
+                    log.error("Node change stream error", e);
+                    sleepQuietly();
+                }
+            } catch (Exception e) {
+                log.error("Node change stream error", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * replica set / sharded cluster인지 확인합니다. (standalone에서 watch는 매번 실패)
+     * 연결 실패처럼 판단할 수 없는 경우는 지원한다고 보고 재시도 루프에 맡김
+     */
+    private boolean changeStreamSupported() {
+        try {
+            Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+            if (hello.get("setName") != null || "isdbgrid".equals(hello.get("msg"))) {
+                return true;
+            }
+            log.warn("MongoDB is not a replica set or sharded cluster, node change stream publisher stopped");
+            return false;
+        } catch (Exception e) {
+            log.warn("Failed to check MongoDB topology for change stream, will retry", e);
+            return true;
+        }
+    }
+
+    private void tail() {
+        List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.and(
+                        Filters.in("ns.coll", "nodes", "node_tombstones"),
+                        Filters.in("operationType", "insert", "update", "replace"))),
+                // 알림에 필요한 필드만 받음
+                Aggregates.project(Projections.include(
+                        "operationType", "ns", "documentKey",
+                        "fullDocument.workspaceId", "fullDocument.nodeId")));
+
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb().watch(pipeline)
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(flushInterval.toMillis(), TimeUnit.MILLISECONDS)
+                .batchSize(maxBatchSize);
+
+        BsonDocument resumeToken = loadResumeToken();
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            log.info("Node change stream started: resumed={}", resumeToken != null);
+
+            Map<Long, WorkspaceDelta> pending = new LinkedHashMap<>();
+            int pendingCount = 0;
+            long batchStartedAt = System.currentTimeMillis();
+
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    if (collect(change, pending)) {
+                        pendingCount++;
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                boolean due = now - batchStartedAt >= flushInterval.toMillis() || pendingCount >= maxBatchSize;
+                if (!due) {
+                    continue;
+                }
+
+                BsonDocument token = cursor.getResumeToken();
+                if (!pending.isEmpty()) {
+                    flush(pending);
+                    pending.clear();
+                    pendingCount = 0;
+                }
+                if (token != null) {
+                    saveResumeToken(token);
+                }
+                if (!renewLease()) {
+                    log.warn("Lost node change stream lease, stop tailing");
+                    return;
+                }
+                batchStartedAt = now;
+            }
+        }
+    }
+
+    /**
+     * @return 알림 대상 변경이면 true
+     */
+    private boolean collect(ChangeStreamDocument<Document> change, Map<Long, WorkspaceDelta> pending) {
+        Document doc = change.getFullDocument();
+        if (doc == null) {
+            // update 직후 삭제되어 lookup 결과가 없음 → 삭제 tombstone으로 알림
+            return false;
+        }
+
+        Long workspaceId = toLong(doc.get("workspaceId"));
+        if (workspaceId == null) {
+            return false;
+        }
+        Long nodeId = toLong(doc.get("nodeId"));
+        WorkspaceDelta delta = pending.computeIfAbsent(workspaceId, k -> new WorkspaceDelta());
+
+        if ("node_tombstones".equals(change.getNamespace().getCollectionName())) {
+            if (nodeId == null) {
+                delta.reset = true;
+            } else {
+                delta.updated.remove(nodeId);
+                delta.deleted.add(nodeId);
+            }
+        } else if (nodeId != null) {
+            delta.deleted.remove(nodeId);
+            delta.updated.add(nodeId);
+        }
+        return true;
+    }
+
+    private void flush(Map<Long, WorkspaceDelta> pending) {
+        long version = System.currentTimeMillis();
+        List<CompletableFuture<?>> sends = new ArrayList<>(pending.size());
+
+        pending.forEach((workspaceId, delta) -> {
+            if (delta.reset) {
+                // 전체 재조회가 필요하므로 개별 nodeId는 보내지 않음
+                sends.add(nodeUpdateProducer.sendNodeDelta(workspaceId, version, List.of(), List.of(), true));
+            } else {
+                sends.add(nodeUpdateProducer.sendNodeDelta(workspaceId, version, delta.updated, delta.deleted, false));
+            }
+        });
+
+        // 전송이 확인된 뒤에만 resume token을 저장 (실패 시 예외 → 재시작 후 같은 변경부터 다시 전송)
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+        log.debug("Flushed node deltas: workspaces={}", pending.size());
+    }
+
+    // ===================== resume token / lease =====================
+
+    private MongoCollection<Document> offsets() {
+        return mongoTemplate.getCollection(OFFSET_COLLECTION);
+    }
+
+    private BsonDocument loadResumeToken() {
+        Document offset = offsets().find(Filters.eq("_id", STREAM_ID)).first();
+        if (offset == null || offset.get("resumeToken") == null) {
+            return null;
+        }
+        return offset.get("resumeToken", Document.class).toBsonDocument();
+    }
+
+    private void saveResumeToken(BsonDocument token) {
+        offsets().updateOne(Filters.eq("_id", STREAM_ID),
+                Updates.combine(Updates.set("resumeToken", token), Updates.set("updatedAt", new Date())));
+    }
+
+    /**
+     * lease가 비었거나 만료되었으면 이 인스턴스가 가져갑니다.
+     */
+    private boolean acquireLease() {
+        Date now = new Date();
+        Bson filter = Filters.and(
+                Filters.eq("_id", STREAM_ID),
+                Filters.or(
+                        Filters.eq("owner", instanceId),
+                        Filters.exists("leaseUntil", false),
+                        Filters.lt("leaseUntil", now)));
+        try {
+            offsets().findOneAndUpdate(filter,
+                    Updates.combine(
+                            Updates.set("owner", instanceId),
+                            Updates.set("leaseUntil", new Date(now.getTime() + leaseTimeout.toMillis()))),
+                    new FindOneAndUpdateOptions().upsert(true));
+            return true;
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() == DUPLICATE_KEY) {
+                // 문서는 있지만 다른 인스턴스가 lease 보유 중 (upsert 시 _id 충돌)
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private boolean renewLease() {
+        Date leaseUntil = new Date(System.currentTimeMillis() + leaseTimeout.toMillis());
+        return offsets().updateOne(
+                Filters.and(Filters.eq("_id", STREAM_ID), Filters.eq("owner", instanceId)),
+                Updates.set("leaseUntil", leaseUntil)).getModifiedCount() > 0;
+    }
+
+    private void releaseLease() {
+        try {
+            offsets().updateOne(
+                    Filters.and(Filters.eq("_id", STREAM_ID), Filters.eq("owner", instanceId)),
+                    Updates.unset("leaseUntil"));
+        } catch (Exception e) {
+            log.debug("Failed to release node change stream lease", e);
+        }
+    }
+
+    private Long toLong(Object value) {
+        return value instanceof Number n ? n.longValue() : null;
+    }
+
+    private void sleepQuietly() {
+        try {
+            TimeUnit.SECONDS.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.ssafy.mindmapservice.kafka;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ssafy.mindmapservice.domain.MindmapNode;
+import com.ssafy.mindmapservice.service.NodeTombstoneService;
 import com.ssafy.mindmapservice.service.SequenceGeneratorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +15,8 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +28,7 @@ public class NodeEventConsumer {
     private final MongoTemplate mongoTemplate;
     private final ObjectMapper objectMapper;
     private final SequenceGeneratorService sequenceGeneratorService;
+    private final NodeTombstoneService nodeTombstoneService;
 
     @KafkaListener(topics = "${kafka.topics.node-events}", groupId = "${spring.kafka.consumer.group-id}")
     public void consumeNodeEvents(String message) {
@@ -35,6 +39,8 @@ public class NodeEventConsumer {
             log.info("Processing {} node events", events.size());
 
             BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MindmapNode.class);
+            // workspaceId → 삭제된 nodeId (변경분 조회용 tombstone)
+            Map<Long, List<Long>> deletedNodeIds = new HashMap<>();
 
             for (Map<String, Object> event : events) {
                 String operation = (String) event.get("operation");
@@ -127,6 +133,7 @@ public class NodeEventConsumer {
                         Query deleteQuery = new Query(Criteria.where("nodeId").is(nodeId)
                                 .and("workspaceId").is(workspaceId));
                         bulkOps.remove(deleteQuery);
+                        deletedNodeIds.computeIfAbsent(workspaceId, k -> new ArrayList<>()).add(nodeId);
                         break;
                     }
 
@@ -136,6 +143,7 @@ public class NodeEventConsumer {
             }
 
             bulkOps.execute();
+            deletedNodeIds.forEach(nodeTombstoneService::recordDeleted);
             log.info("Successfully processed {} node events", events.size());
 
         } catch (Exception e) {
@@ -9,11 +9,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+/**
+ * mindmap.node.update 토픽으로 노드 변경 알림을 보냅니다.
+ * - sendNodeUpdate / sendNodeUpdateWithNodes: 웹소켓 서버가 initial-create-done으로 클라이언트에 전달하는 기존 형식
+ * - sendNodeDelta: NodeChangeStreamPublisher가 nodes 변경을 모아서 보내는 DELTA 형식
+ *   (웹소켓 서버는 아직 DELTA를 클라이언트에 전달하지 않으므로, 기존 형식 알림을 함께 유지합니다)
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -30,6 +38,7 @@ public class NodeUpdateProducer {
             Map<String, Object> message = new HashMap<>();
             message.put("workspaceId", workspaceId);
             message.put("message", "노드 분석 후 업데이트를 완료했습니다.");
+            message.put("version", System.currentTimeMillis()); // 변경분 조회(nodes/changes)용 watermark
 
             String jsonMessage = objectMapper.writeValueAsString(message);
 
@@ -60,6 +69,7 @@ public class NodeUpdateProducer {
             message.put("message", "새로운 노드가 추가되었습니다.");
             message.put("nodes", nodeInfos);  // 전체 노드 정보
             message.put("nodeCount", nodeInfos.size());
+            message.put("version", System.currentTimeMillis());
 
             String jsonMessage = objectMapper.writeValueAsString(message);
 
@@ -71,4 +81,36 @@ public class NodeUpdateProducer {
             log.error("Failed to send node update with nodes to Kafka", e);
         }
     }
+
+    /**
+     * 워크스페이스의 노드 변경분(delta) 알림을 전송합니다.
+     * 클라이언트는 노드 ID만 받고, 실제 내용은 GET /{workspaceId}/nodes/changes?since= 로 가져옵니다.
+     *
+     * @param version     변경분 조회용 watermark (epoch millis)
+     * @param updated     생성/수정된 nodeId
+     * @param deleted     삭제된 nodeId
+     * @param reset       워크스페이스 전체 노드가 교체/삭제됨 (전체 재조회 필요)
+     */
+    public CompletableFuture<?> sendNodeDelta(Long workspaceId, long version,
+                                              Collection<Long> updated, Collection<Long> deleted, boolean reset) {
+        try {
+            Map<String, Object> message = new HashMap<>();
+            message.put("workspaceId", workspaceId);
+            message.put("type", "DELTA");
+            message.put("version", version);
+            message.put("updated", updated);
+            message.put("deleted", deleted);
+            message.put("reset", reset);
+
+            String jsonMessage = objectMapper.writeValueAsString(message);
+
+            log.debug("Sending node delta: workspaceId={}, updated={}, deleted={}, reset={}",
+                    workspaceId, updated.size(), deleted.size(), reset);
+            return kafkaTemplate.send(nodeUpdateTopic, workspaceId.toString(), jsonMessage);
+
+        } catch (Exception e) {
+            log.error("Failed to send node delta to Kafka: workspaceId={}", workspaceId, e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package com.ssafy.mindmapservice.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssafy.mindmapservice.service.WorkspaceDeletionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * workspace-service가 발행하는 워크스페이스 이벤트를 수신합니다.
+ *
+ * 예외는 삼키지 않고 던져서 컨테이너 에러 핸들러가 재시도 / DLT 처리하도록 합니다. (KafkaConsumerConfig)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkspaceEventConsumer {
+
+    private final ObjectMapper objectMapper;
+    private final WorkspaceDeletionService workspaceDeletionService;
+
+    /**
+     * 워크스페이스 삭제 이벤트: 정리 작업을 등록만 하고 바로 반환합니다. (실제 삭제는 백그라운드)
+     * 같은 이벤트가 다시 와도 requestDeletion이 멱등하게 처리합니다.
+     */
+    @KafkaListener(topics = "${kafka.topics.workspace-deleted}", groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "retryingKafkaListenerContainerFactory")
+    public void consumeWorkspaceDeleted(String message) throws JsonProcessingException {
+        JsonNode event = objectMapper.readTree(message);
+        JsonNode workspaceIdNode = event.get("workspaceId");
+        if (workspaceIdNode == null || !workspaceIdNode.canConvertToLong()) {
+            throw new IllegalArgumentException("Invalid workspace deleted event: " + message);
+        }
+
+        workspaceDeletionService.requestDeletion(workspaceIdNode.asLong());
+    }
+}
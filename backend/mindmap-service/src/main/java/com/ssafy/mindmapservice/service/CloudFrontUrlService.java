@@ -2,6 +2,8 @@ package com.ssafy.mindmapservice.service;
 
 import com.amazonaws.services.cloudfront.CloudFrontUrlSigner;
 import com.amazonaws.services.cloudfront.util.SignerUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -9,14 +11,31 @@ import org.springframework.stereotype.Service;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.PrivateKey;
 import java.security.spec.InvalidKeySpecException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * CloudFront Signed URL을 생성하는 서비스
  * S3 Presigned URL 대비 URL 길이를 대폭 줄여서 클라이언트 URL 제한 문제를 해결합니다.
+ *
+ * 서명(RSA)은 비용이 크므로 S3 key별로 서명된 URL을 캐싱하고,
+ * 남은 유효 기간이 refresh-ratio(기본 20%) 미만일 때만 다시 서명합니다.
+ *
+ * Private Key는 시작 시 한 번 로드하고, 파일이 바뀌면(키 교체) 백그라운드에서 다시 로드합니다.
+ * CloudFront는 공개 키마다 Key Pair ID가 다르므로, hot reload는 ID도 파일(key-pair-id-path)로 받을 때만 켜고
+ * 두 파일을 항상 함께 읽어서 교체합니다. (ID가 설정값으로 고정이면 시작 시 한 번만 로드)
  */
 @Slf4j
 @Service
@@ -25,20 +44,64 @@ public class CloudFrontUrlService {
     @Value("${cloud.aws.cloudfront.domain}")
     private String cloudFrontDomain;
 
-    @Value("${cloud.aws.cloudfront.key-pair-id}")
+    @Value("${cloud.aws.cloudfront.key-pair-id:}")
     private String keyPairId;
 
+    // Key Pair ID 파일 (Private Key와 같은 secret에 마운트), 설정하면 key-pair-id보다 우선
+    @Value("${cloud.aws.cloudfront.key-pair-id-path:}")
+    private String keyPairIdPath;
+
     @Value("${cloud.aws.cloudfront.private-key-path}")
     private String privateKeyPath;
 
-    private PrivateKey privateKey;
+    // 서명 URL 유효 기간 (기존 하드코딩 값 7일 유지)
+    @Value("${cloud.aws.cloudfront.url-ttl:7d}")
+    private Duration urlTtl;
+
+    // 남은 유효 기간이 이 비율 미만이면 재서명
+    @Value("${cloud.aws.cloudfront.url-refresh-ratio:0.2}")
+    private double refreshRatio;
+
+    @Value("${cloud.aws.cloudfront.url-cache-max-size:20000}")
+    private int cacheMaxSize;
+
+    // 키 파일 변경 확인 주기 (0 이하면 hot reload 사용 안 함)
+    @Value("${cloud.aws.cloudfront.key-reload-interval-seconds:60}")
+    private long keyReloadIntervalSeconds;
+
+    // 현재 서명 키 (volatile로 교체 시 모든 스레드에 안전하게 공개)
+    private volatile SigningKey signingKey;
+
+    private volatile boolean running = false;
+    private Thread keyWatcher;
+
+    /**
+     * @param fingerprint 키 / ID 파일의 실제 경로 + 수정 시각 + 크기 (symlink 교체 방식의 secret 마운트도 감지)
+     */
+    private record SigningKey(PrivateKey privateKey, String keyPairId, String fingerprint) {
+    }
+
+    // S3 key → 서명된 URL
+    private final Map<String, SignedUrl> signedUrlCache = new ConcurrentHashMap<>();
+
+    // 배치 서명용 (CPU 작업이라 코어 수 이하의 작은 풀)
+    private final ExecutorService signerExecutor = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+
+    private record SignedUrl(String url, long issuedAtMillis, long expiresAtMillis) {
+        boolean isFresh(long now, double refreshRatio) {
+            long lifetime = expiresAtMillis - issuedAtMillis;
+            return expiresAtMillis - now > lifetime * refreshRatio;
+        }
+    }
 
     /**
      * CloudFront Signed URL을 생성합니다.
      * S3 key를 받아서 CloudFront URL로 변환하고 서명합니다.
+     * 캐시에 충분히 유효한 URL이 있으면 서명 없이 그대로 반환합니다.
      *
      * @param s3Key S3 객체 키 (예: mindmap/image/uuid.png)
-     * @param duration URL 유효 기간
+     * @param duration URL 유효 기간 (현재는 url-ttl 설정값 사용)
      * @return CloudFront Signed URL (150~250자 정도)
      */
     public String generateSignedUrl(String s3Key, Duration duration) {
@@ -46,29 +109,94 @@ public class CloudFrontUrlService {
             return null;
         }
 
-        try {
-            // Private Key 로드 (캐싱)
-            if (privateKey == null) {
-                privateKey = loadPrivateKey();
+        SignedUrl cached = signedUrlCache.get(s3Key);
+        if (cached != null && cached.isFresh(System.currentTimeMillis(), refreshRatio)) {
+            return cached.url();
+        }
+
+        return sign(s3Key).url();
+    }
+
+    /**
+     * 여러 S3 key의 CloudFront Signed URL을 한 번에 생성합니다.
+     * 캐시에 없는(또는 만료가 가까운) key만 서명 풀에서 병렬로 서명합니다.
+     *
+     * @param s3Keys S3 객체 키 목록
+     * @return S3 key → Signed URL (서명 실패한 key는 포함되지 않음)
+     */
+    public Map<String, String> generateSignedUrls(Collection<String> s3Keys) {
+        Map<String, String> result = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        for (String s3Key : s3Keys) {
+            if (s3Key == null || s3Key.isBlank() || result.containsKey(s3Key)) {
+                continue;
+            }
+            SignedUrl cached = signedUrlCache.get(s3Key);
+            if (cached != null && cached.isFresh(now, refreshRatio)) {
+                result.put(s3Key, cached.url());
+            } else {
+                result.put(s3Key, null);
+                misses.add(s3Key);
+            }
+        }
+
+        if (misses.size() == 1) {
+            signQuietly(misses.getFirst(), result);
+        } else if (!misses.isEmpty()) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(misses.size());
+            Map<String, String> signed = new ConcurrentHashMap<>();
+            for (String s3Key : misses) {
+                futures.add(CompletableFuture.runAsync(() -> signQuietly(s3Key, signed), signerExecutor));
             }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            result.putAll(signed);
+        }
+
+        result.values().removeIf(url -> url == null);
+        log.debug("Generated CloudFront signed URLs: keys={}, signed={}", result.size(), misses.size());
+        return result;
+    }
+
+    private void signQuietly(String s3Key, Map<String, String> out) {
+        try {
+            out.put(s3Key, sign(s3Key).url());
+        } catch (Exception e) {
+            log.error("Failed to generate CloudFront signed URL for key: {}", s3Key, e);
+        }
+    }
+
+    /**
+     * 실제 서명을 수행하고 캐시에 저장합니다.
+     */
+    private SignedUrl sign(String s3Key) {
+        try {
+            SigningKey key = currentSigningKey();
 
             // CloudFront URL 생성
             String resourceUrl = "https://" + cloudFrontDomain + "/" + s3Key;
 
             // 만료 시간 계산
-//            Date expiresOn = new Date(System.currentTimeMillis() + duration.toMillis());
-            Date expiresOn = new Date(System.currentTimeMillis() + Duration.ofDays(7).toMillis()); //TODO: 변경 필요
+            long issuedAt = System.currentTimeMillis();
+            Date expiresOn = new Date(issuedAt + urlTtl.toMillis());
 
             // CloudFront Signed URL 생성 (Canned Policy 사용)
             String signedUrl = CloudFrontUrlSigner.getSignedURLWithCannedPolicy(
                     resourceUrl,
-                    keyPairId,
-                    privateKey,
+                    key.keyPairId(),
+                    key.privateKey(),
                     expiresOn
             );
 
+            SignedUrl entry = new SignedUrl(signedUrl, issuedAt, expiresOn.getTime());
+            if (signedUrlCache.size() >= cacheMaxSize) {
+                evictStale(issuedAt);
+            }
+            signedUrlCache.put(s3Key, entry);
+
             log.debug("Generated CloudFront signed URL for key: {}, expires: {}", s3Key, expiresOn);
-            return signedUrl;
+            return entry;
 
         } catch (Exception e) {
             log.error("Failed to generate CloudFront signed URL for key: {}", s3Key, e);
@@ -76,27 +204,126 @@ public class CloudFrontUrlService {
         }
     }
 
+    /**
+     * 캐시가 가득 찼을 때: 재서명 대상(만료 임박)부터 정리하고, 그래도 가득 차 있으면 전체 비움
+     */
+    private void evictStale(long now) {
+        signedUrlCache.values().removeIf(entry -> !entry.isFresh(now, refreshRatio));
+        if (signedUrlCache.size() >= cacheMaxSize) {
+            signedUrlCache.clear();
+        }
+    }
+
+    // ===================== Private Key =====================
+
+    @PostConstruct
+    void init() {
+        reloadPrivateKeyIfChanged();
+
+        if (keyReloadIntervalSeconds <= 0) {
+            return;
+        }
+        if (keyPairIdPath == null || keyPairIdPath.isBlank()) {
+            // 키만 바꾸고 ID는 그대로 쓰면 모든 서명이 무효가 되므로 교체 감지를 하지 않음
+            log.info("CloudFront key hot reload disabled: key-pair-id-path is not set");
+            return;
+        }
+        running = true;
+        keyWatcher = new Thread(this::watchLoop, "cloudfront-key-watcher");
+        keyWatcher.setDaemon(true);
+        keyWatcher.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        if (keyWatcher != null) {
+            keyWatcher.interrupt();
+            keyWatcher.join(1000);
+        }
+        signerExecutor.shutdown();
+    }
+
+    private void watchLoop() {
+        while (running) {
+            try {
+                Thread.sleep(keyReloadIntervalSeconds * 1000);
+                reloadPrivateKeyIfChanged();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("CloudFront key watcher loop error", e);
+            }
+        }
+    }
+
+    private SigningKey currentSigningKey() {
+        SigningKey key = signingKey;
+        if (key == null) {
+            throw new IllegalStateException("CloudFront private key is not loaded: " + privateKeyPath);
+        }
+        return key;
+    }
+
+    /**
+     * 키 파일(또는 ID 파일)이 바뀌었으면 키와 ID를 함께 다시 로드해서 교체합니다.
+     * 로드에 실패하면 기존 키를 그대로 사용합니다.
+     *
+     * @return 새 키로 교체했으면 true
+     */
+    synchronized boolean reloadPrivateKeyIfChanged() {
+        try {
+            Path realPath = Path.of(privateKeyPath).toRealPath();
+            Path idPath = keyPairIdPath == null || keyPairIdPath.isBlank() ? null : Path.of(keyPairIdPath).toRealPath();
+            String fingerprint = fingerprint(realPath) + (idPath != null ? "|" + fingerprint(idPath) : "");
+
+            SigningKey current = signingKey;
+            if (current != null && current.fingerprint().equals(fingerprint)) {
+                return false;
+            }
+
+            String id = idPath != null ? Files.readString(idPath).trim() : keyPairId;
+            if (id == null || id.isBlank()) {
+                throw new IllegalStateException("CloudFront key pair ID is not configured");
+            }
+
+            signingKey = new SigningKey(loadPrivateKey(realPath.toFile()), id, fingerprint);
+
+            if (current != null) {
+                // 이전 키로 서명된 URL은 다시 서명되도록 캐시 비움
+                signedUrlCache.clear();
+                log.info("CloudFront signing key rotated: {}, keyPairId={}", realPath, id);
+            }
+            return true;
+
+        } catch (Exception e) {
+            log.error("Failed to load CloudFront private key: {}", privateKeyPath, e);
+            return false;
+        }
+    }
+
+    private static String fingerprint(Path realPath) throws IOException {
+        return realPath + ":" + Files.getLastModifiedTime(realPath).toMillis() + ":" + Files.size(realPath);
+    }
+
     /**
      * Private Key 파일을 로드합니다.
      * PEM 형식의 RSA Private Key를 읽어서 PrivateKey 객체로 변환합니다.
      *
+     * @param privateKeyFile Private Key 파일
      * @return PrivateKey 객체
      * @throws IOException Private Key 파일을 읽을 수 없을 때
      * @throws InvalidKeySpecException Private Key 형식이 잘못되었을 때
      */
-    private PrivateKey loadPrivateKey() throws IOException, InvalidKeySpecException {
-        File privateKeyFile = new File(privateKeyPath);
-
+    private PrivateKey loadPrivateKey(File privateKeyFile) throws IOException, InvalidKeySpecException {
         if (!privateKeyFile.exists()) {
-            throw new IOException("CloudFront private key file not found: " + privateKeyPath);
+            throw new IOException("CloudFront private key file not found: " + privateKeyFile);
         }
 
-        log.info("Loading CloudFront private key from: {}", privateKeyPath);
-
-        // PEM 파일 읽기
-        String privateKeyPEM = new String(Files.readAllBytes(privateKeyFile.toPath()));
+        log.info("Loading CloudFront private key from: {}", privateKeyFile);
 
-        // AWS SDK의 SignerUtils를 사용하여 PEM → PrivateKey 변환
+        // AWS SDK의 SignerUtils를 사용하여 PEM → PrivateKey 변환 (파일은 한 번만 읽음)
         PrivateKey key = SignerUtils.loadPrivateKey(privateKeyFile);
 
         log.info("CloudFront private key loaded successfully");
@@ -116,15 +343,11 @@ public class CloudFrontUrlService {
                 return false;
             }
 
-            if (keyPairId == null || keyPairId.isBlank()) {
-                log.error("CloudFront key pair ID is not configured");
+            if (signingKey == null && !reloadPrivateKeyIfChanged()) {
+                log.error("CloudFront private key or key pair ID is not loaded");
                 return false;
             }
 
-            if (privateKey == null) {
-                privateKey = loadPrivateKey();
-            }
-
             log.info("CloudFront configuration validated successfully");
             return true;
 
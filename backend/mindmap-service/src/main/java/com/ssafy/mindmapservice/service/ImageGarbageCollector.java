@@ -0,0 +1,198 @@
+package com.ssafy.mindmapservice.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.ssafy.mindmapservice.domain.ImageObject;
+import com.ssafy.mindmapservice.domain.MindmapNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 내용 기반 이미지(image_objects) 중 더 이상 어떤 노드도 참조하지 않는 객체를 S3에서 삭제합니다.
+ *
+ * 노드 삭제는 REST / Yjs 이벤트 / 정리하기(재구성) 등 여러 경로로 일어나므로,
+ * 삭제 시점에 참조 수를 줄이는 대신 주기적으로 nodes 컬렉션에서 실제 참조 노드 수를 다시 셉니다.
+ *
+ * - grace-period 동안 새로 참조되지 않은 객체만 확인 (Yjs undo 등으로 다시 살아나는 노드 대비)
+ * - 참조 노드가 0개이고 그 사이 새 업로드가 없었을 때만(lastReferencedAt 비교) deleting 표시 후 S3 삭제
+ * - 문서는 S3 삭제가 끝난 뒤에 지움 → 그동안 같은 내용의 업로드는 기다렸다가 새로 PUT (삭제가 새 객체를 지우지 않음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageGarbageCollector {
+
+    private final MongoTemplate mongoTemplate;
+    private final S3AsyncClient s3AsyncClient;
+
+    @Value("${cloud.aws.s3.thumbnail-bucket}")
+    private String bucket;
+
+    @Value("${image.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${image.gc.grace-period:7d}")
+    private Duration gracePeriod;
+
+    @Value("${image.gc.interval:1h}")
+    private Duration interval;
+
+    @Value("${image.gc.batch-size:200}")
+    private int batchSize;
+
+    private volatile boolean running = false;
+    private Thread worker;
+
+    @PostConstruct
+    void start() {
+        // 참조 확인 쿼리용: image 노드의 keyword(S3 key)만 인덱싱
+        mongoTemplate.indexOps(MindmapNode.class).ensureIndex(new Index()
+                .on("keyword", Sort.Direction.ASC)
+                .named("image_keyword_idx")
+                .partial(PartialIndexFilter.of(Criteria.where("type").is("image"))));
+
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "image-gc");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(1000);
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                Thread.sleep(interval.toMillis());
+                sweep();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Image GC loop error", e);
+            }
+        }
+    }
+
+    /**
+     * grace-period 이상 새 참조가 없던 이미지 객체를 최대 batch-size개 확인합니다.
+     *
+     * @return 삭제 요청한 S3 객체 수 (원본 + 축소본)
+     */
+    public int sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(gracePeriod);
+        Query candidatesQuery = new Query(Criteria.where("lastReferencedAt").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "lastReferencedAt"))
+                .limit(batchSize);
+
+        List<ImageObject> candidates = mongoTemplate.find(candidatesQuery, ImageObject.class);
+        List<ObjectIdentifier> toDelete = new ArrayList<>();
+        List<String> markedIds = new ArrayList<>();
+
+        for (ImageObject image : candidates) {
+            List<String> keys = new ArrayList<>(2);
+            keys.add(image.getKey());
+            if (image.getRenditionKey() != null) {
+                keys.add(image.getRenditionKey());
+            }
+
+            if (Boolean.TRUE.equals(image.getDeleting())) {
+                // 이전 삭제가 문서 삭제 전에 멈춤 (재시작 등) → 다시 삭제 (deleting 동안에는 새 업로드가 없음)
+                markedIds.add(image.getId());
+                keys.forEach(key -> toDelete.add(ObjectIdentifier.builder().key(key).build()));
+                continue;
+            }
+
+            long references = mongoTemplate.count(
+                    new Query(Criteria.where("type").is("image").and("keyword").in(keys)), MindmapNode.class);
+
+            if (references > 0) {
+                // 아직 사용 중 → grace-period 뒤에 다시 확인
+                mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(image.getId())
+                                .and("lastReferencedAt").is(image.getLastReferencedAt())),
+                        new Update().set("lastReferencedAt", LocalDateTime.now()),
+                        ImageObject.class);
+                continue;
+            }
+
+            // 그 사이 같은 이미지가 다시 업로드되었으면(lastReferencedAt 변경) 삭제하지 않음
+            UpdateResult marked = mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(image.getId())
+                            .and("lastReferencedAt").is(image.getLastReferencedAt())
+                            .and("deleting").ne(true)),
+                    new Update().set("deleting", true),
+                    ImageObject.class);
+
+            if (marked.getModifiedCount() > 0) {
+                markedIds.add(image.getId());
+                keys.forEach(key -> toDelete.add(ObjectIdentifier.builder().key(key).build()));
+            }
+        }
+
+        if (!toDelete.isEmpty()) {
+            s3AsyncClient.deleteObjects(DeleteObjectsRequest.builder()
+                            .bucket(bucket)
+                            .delete(Delete.builder().objects(toDelete).quiet(true).build())
+                            .build())
+                    .whenComplete((response, e) -> finishDeletion(markedIds, response, e));
+        }
+
+        log.info("Image GC sweep: candidates={}, deletedObjects={}", candidates.size(), toDelete.size());
+        return toDelete.size();
+    }
+
+    /**
+     * S3 삭제가 끝난 뒤 deleting 문서를 지웁니다. (이후 같은 내용 업로드는 새 문서를 만들고 다시 PUT)
+     * S3 삭제가 실패하면 deleting을 풀고 uploaded=false로 둠 → 다음 업로드가 다시 PUT, 다음 sweep이 다시 확인
+     */
+    private void finishDeletion(List<String> ids, DeleteObjectsResponse response, Throwable error) {
+        Query deleting = new Query(Criteria.where("_id").in(ids).and("deleting").is(true));
+        try {
+            if (error == null && response.errors().isEmpty()) {
+                mongoTemplate.remove(deleting, ImageObject.class);
+                return;
+            }
+
+            if (error != null) {
+                log.error("Failed to delete unreferenced images from S3: count={}", ids.size(), error);
+            } else {
+                log.warn("Some unreferenced images were not deleted: {}", response.errors());
+            }
+            mongoTemplate.updateMulti(deleting,
+                    new Update().unset("deleting").set("uploaded", false), ImageObject.class);
+        } catch (Exception e) {
+            // 다음 sweep이 deleting 문서를 다시 삭제
+            log.error("Failed to finish image deletion: ids={}", ids, e);
+        }
+    }
+}
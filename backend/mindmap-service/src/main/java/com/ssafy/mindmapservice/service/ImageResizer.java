@@ -0,0 +1,115 @@
+package com.ssafy.mindmapservice.service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 캔버스 표시용 축소 이미지(JPEG)를 만듭니다.
+ *
+ * - 원본 크기는 헤더만 읽어서 먼저 확인하고, 충분히 작으면 디코딩하지 않음
+ * - 디코딩 시 subsampling으로 목표 크기의 2배 이내까지만 읽어서 메모리 사용을 줄임
+ * - 투명 영역은 흰색으로 채움 (JPEG는 알파 채널 없음)
+ */
+final class ImageResizer {
+
+    // 정지 이미지만 변환 (gif는 애니메이션이 깨지므로 제외)
+    private static final Set<String> RESIZABLE_FORMATS = Set.of("jpeg", "png", "bmp");
+
+    private ImageResizer() {
+    }
+
+    /**
+     * @param in        원본 이미지 스트림
+     * @param maxWidth  결과 이미지 최대 너비(px)
+     * @param quality   JPEG 품질 (0.0 ~ 1.0)
+     * @param maxPixels 이보다 큰 원본은 디코딩하지 않음 (메모리 보호)
+     * @return 축소된 JPEG 바이트, 변환이 필요 없거나 불가능하면 empty
+     */
+    static Optional<byte[]> toJpeg(InputStream in, int maxWidth, float quality, long maxPixels) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            if (iis == null) {
+                return Optional.empty();
+            }
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                return Optional.empty();
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                if (!RESIZABLE_FORMATS.contains(reader.getFormatName().toLowerCase())) {
+                    return Optional.empty();
+                }
+
+                reader.setInput(iis, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                if (width <= maxWidth || (long) width * height > maxPixels) {
+                    return Optional.empty();
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / (maxWidth * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+
+                BufferedImage source = reader.read(0, param);
+                return Optional.of(encodeJpeg(scale(source, maxWidth), quality));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, targetWidth, targetHeight);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,26 +1,52 @@
 package com.ssafy.mindmapservice.service;
 
+import com.ssafy.mindmapservice.domain.ImageObject;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.UUID;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ImageService {
 
-    private final S3Client s3Client;
+    // GC가 같은 이미지를 삭제하는 중일 때 기다리는 횟수 / 간격 (S3 DeleteObjects 한 번이면 끝남)
+    private static final int DELETING_WAIT_ATTEMPTS = 20;
+    private static final long DELETING_WAIT_MILLIS = 250;
+
+    private final S3AsyncClient s3AsyncClient;
     private final CloudFrontUrlService cloudFrontUrlService;
+    private final MongoTemplate mongoTemplate;
 
     @Value("${cloud.aws.s3.thumbnail-bucket}")
     private String bucket;
@@ -28,51 +54,238 @@ public class ImageService {
     @Value("${cloud.aws.s3.thumbnail-prefix}")
     private String prefix;
 
+    // 캔버스 표시용 축소본
+    @Value("${cloud.aws.s3.rendition.max-width:1024}")
+    private int renditionMaxWidth;
+
+    @Value("${cloud.aws.s3.rendition.quality:0.82}")
+    private float renditionQuality;
+
+    @Value("${cloud.aws.s3.rendition.max-source-pixels:40000000}")
+    private long renditionMaxSourcePixels;
+
+    // 업로드 파일 스트림 읽기용 (블로킹 I/O를 Netty 이벤트 루프 밖에서 수행)
+    private final ExecutorService uploadStreamExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
     /**
-     * 클라이언트가 보낸 썸네일 파일을 S3에 업로드하고,
-     * Workspace.thumbnail 에 S3 key 저장
+     * 이미지 파일을 S3에 업로드하고, 노드에 저장할 key를 반환합니다.
+     * 0) key는 파일 내용의 SHA-256 → 같은 이미지가 이미 업로드되어 있으면 업로드 생략
+     * 1) 원본은 비동기 스트리밍 업로드 (multipart-threshold 이상은 SDK가 multipart upload로 전송)
+     * 2) 원본이 올라가는 동안 원본 너비가 rendition.max-width보다 크면 축소본(JPEG)을 "{sha256}_w{너비}.jpg" key로 업로드
+     * - S3 I/O는 Netty 이벤트 루프에서 처리되지만, 호출 스레드는 두 업로드가 모두 끝날 때까지 기다림
+     * - 원본이 실패해도 축소본 key를 인덱스에 남겨서, 참조 노드가 없으면 ImageGarbageCollector가 함께 삭제
+     *
+     * @return 축소본 key (축소가 필요 없거나 실패하면 원본 key)
      */
     @Transactional
     public String uploadImage(MultipartFile file) {
 
-        // 새 key 생성
-        String key = buildKey(file.getOriginalFilename());
+        // 내용 기반 key 생성
+        String hash = sha256(file);
+        ImageObject existing = acquireImageObject(hash, buildKey(hash, file.getOriginalFilename()), file);
+
+        if (existing != null && Boolean.TRUE.equals(existing.getUploaded())) {
+            log.info("Image deduplicated by content hash: key={}", existing.getKey());
+            return existing.getRenditionKey() != null ? existing.getRenditionKey() : existing.getKey();
+        }
+
+        // 처음 올라온 이미지거나 이전 업로드가 끝나지 않은 경우 (같은 key로 다시 올려도 내용이 같으므로 안전)
+        String key = existing != null ? existing.getKey() : buildKey(hash, file.getOriginalFilename());
 
-        // 1) 새 파일 업로드
-        putObjectToS3(key, file);
+        // 1) 원본 업로드 시작
+        CompletableFuture<Void> original = putObjectToS3(key, file);
 
-        // key 반환
-        return key;
+        // 2) 캔버스 표시용 축소본 생성 + 업로드 (원본 업로드와 동시에 진행)
+        CompletableFuture<String> rendition = uploadRendition(key, file);
+
+        // 축소본은 실패해도 null로 완료되므로 먼저 기다림 (원본이 실패해도 진행 중인 업로드가 남지 않도록)
+        String renditionKey = rendition.join();
+
+        // 원본은 반드시 성공해야 함 (축소본은 실패해도 원본 key로 동작)
+        try {
+            original.join();
+        } catch (CompletionException e) {
+            recordRendition(hash, renditionKey);
+            throw new RuntimeException("Failed to upload image to S3: " + key, e.getCause());
+        }
+        markUploaded(hash, renditionKey);
+
+        // key 반환 (캔버스/AI 분석 모두 축소본 사용, 원본은 같은 hash로 보관)
+        return renditionKey != null ? renditionKey : key;
     }
 
+    // ===================== 내용 기반 중복 제거 =====================
 
+    /**
+     * 업로드 파일의 SHA-256을 계산합니다. (업로드 파일은 로컬 임시 파일/메모리라 한 번 더 읽는 비용이 작음)
+     */
+    private static String sha256(MultipartFile file) {
+        try (InputStream in = new DigestInputStream(file.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(((DigestInputStream) in).getMessageDigest().digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to hash image file", e);
+        }
+    }
+
+    /**
+     * 이미지 객체 인덱스에 참조 시각을 기록합니다. (없으면 생성)
+     * ImageGarbageCollector가 같은 객체를 S3에서 삭제하는 중이면, 삭제가 끝나 문서가 지워질 때까지 기다렸다가 새로 만듭니다.
+     * (삭제 중에 같은 key로 PUT하면 뒤이어 완료되는 삭제가 새 객체를 지움)
+     *
+     * @return 추가 전 문서, 처음 올라온 이미지면 null
+     */
+    private ImageObject acquireImageObject(String hash, String key, MultipartFile file) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return upsertImageObject(hash, key, file);
+            } catch (DuplicateKeyException e) {
+                // deleting=true 문서가 있어 조건에 안 맞고, upsert가 같은 _id로 insert하려다 충돌
+                if (attempt >= DELETING_WAIT_ATTEMPTS) {
+                    throw new IllegalStateException("Image is being deleted, retry later: " + hash, e);
+                }
+                log.info("Image is being deleted by GC, waiting: hash={}, attempt={}", hash, attempt);
+                try {
+                    Thread.sleep(DELETING_WAIT_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for image deletion: " + hash, ie);
+                }
+            }
+        }
+    }
 
-    private String buildKey(String originalFilename) {
+    private ImageObject upsertImageObject(String hash, String key, MultipartFile file) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(Criteria.where("_id").is(hash).and("deleting").ne(true));
+        Update update = new Update()
+                .set("lastReferencedAt", now)
+                .setOnInsert("key", key)
+                .setOnInsert("contentType", file.getContentType())
+                .setOnInsert("size", file.getSize())
+                .setOnInsert("uploaded", false)
+                .setOnInsert("createdAt", now);
+
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(false), ImageObject.class);
+    }
+
+    /**
+     * 원본 업로드가 실패한 경우: uploaded=false로 두고 이미 올라간 축소본 key만 기록 (GC 삭제 대상에 포함)
+     */
+    private void recordRendition(String hash, String renditionKey) {
+        if (renditionKey == null) {
+            return;
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(hash)),
+                new Update().set("renditionKey", renditionKey), ImageObject.class);
+    }
+
+    private void markUploaded(String hash, String renditionKey) {
+        Update update = new Update().set("uploaded", true);
+        if (renditionKey != null) {
+            update.set("renditionKey", renditionKey);
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(hash)), update, ImageObject.class);
+    }
+
+    /**
+     * 축소본 key: mindmap/image/{sha256}.png → mindmap/image/{sha256}_w1024.jpg
+     */
+    static String renditionKey(String originalKey, int width) {
+        int dot = originalKey.lastIndexOf('.');
+        int slash = originalKey.lastIndexOf('/');
+        String base = dot > slash ? originalKey.substring(0, dot) : originalKey;
+        return base + "_w" + width + ".jpg";
+    }
+
+    /**
+     * @return 업로드한 축소본 key, 축소가 필요 없거나 실패하면 null (예외로 완료되지 않음)
+     */
+    private CompletableFuture<String> uploadRendition(String originalKey, MultipartFile file) {
+        Optional<byte[]> resized;
+        try (InputStream in = file.getInputStream()) {
+            resized = ImageResizer.toJpeg(in, renditionMaxWidth, renditionQuality, renditionMaxSourcePixels);
+        } catch (Exception e) {
+            log.warn("Failed to create image rendition: key={}", originalKey, e);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (resized.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String key = renditionKey(originalKey, renditionMaxWidth);
+        byte[] bytes = resized.get();
+
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType("image/jpeg")
+                .build();
+
+        return s3AsyncClient.putObject(putObjectRequest, AsyncRequestBody.fromBytes(bytes))
+                .handle((response, e) -> {
+                    if (e != null) {
+                        // 축소본이 없어도 원본으로 동작하므로 업로드 자체는 실패시키지 않음
+                        log.warn("Failed to upload image rendition: key={}", key, e);
+                        return null;
+                    }
+                    log.info("Image rendition uploaded: key={}, size {} -> {} bytes", key, file.getSize(), bytes.length);
+                    return key;
+                });
+    }
+
+    private String buildKey(String hash, String originalFilename) {
         String ext = "bin";
         if (originalFilename != null && originalFilename.contains(".")) {
-            ext = originalFilename.substring(originalFilename.lastIndexOf('.') + 1);
+            ext = originalFilename.substring(originalFilename.lastIndexOf('.') + 1).toLowerCase();
         }
-        String uuid = UUID.randomUUID().toString();
-        return String.format("%s/%s.%s", prefix, uuid, ext);
+        return String.format("%s/%s.%s", prefix, hash, ext);
     }
 
-    private void putObjectToS3(String key, MultipartFile file) {
+    private CompletableFuture<Void> putObjectToS3(String key, MultipartFile file) {
+        InputStream in;
         try {
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(key)
-                    .contentType(file.getContentType())
-                    .build();
-
-            s3Client.putObject(
-                    putObjectRequest,
-                    RequestBody.fromInputStream(file.getInputStream(), file.getSize())
-            );
+            in = file.getInputStream();
         } catch (IOException e) {
-            throw new RuntimeException("Failed to upload workspace thumbnail to S3", e);
+            throw new RuntimeException("Failed to upload image to S3", e);
+        }
+
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(file.getContentType())
+                .contentLength(file.getSize())
+                .build();
+
+        return s3AsyncClient.putObject(
+                        putObjectRequest,
+                        AsyncRequestBody.fromInputStream(in, file.getSize(), uploadStreamExecutor))
+                .whenComplete((response, e) -> {
+                    closeQuietly(in);
+                    if (e != null) {
+                        log.error("Failed to upload image to S3: key={}", key, e);
+                    } else {
+                        log.debug("Image uploaded to S3: key={}, size={}", key, file.getSize());
+                    }
+                })
+                .thenApply(response -> null);
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // 업로드 결과와 무관
         }
     }
 
+    @PreDestroy
+    void shutdownUploadStreamExecutor() {
+        uploadStreamExecutor.shutdown();
+    }
+
     /**
      * DB에 저장된 thumbnail key로 CloudFront Signed URL 생성
      * 기존 S3 Presigned URL 대비 URL 길이가 대폭 줄어듭니다 (1000~1500자 → 150~250자)
@@ -85,4 +298,17 @@ public class ImageService {
         // CloudFront Signed URL 생성
         return cloudFrontUrlService.generateSignedUrl(ImageKey, duration);
     }
-}
\ No newline at end of file
+
+    /**
+     * 여러 이미지 key의 CloudFront Signed URL을 한 번에 생성합니다. (워크스페이스 전체 조회용)
+     *
+     * @return 이미지 key → Signed URL
+     */
+    public Map<String, String> generateImagePresignedUrls(Collection<String> imageKeys, Duration duration) {
+        if (imageKeys == null || imageKeys.isEmpty()) {
+            return Map.of();
+        }
+
+        return cloudFrontUrlService.generateSignedUrls(imageKeys);
+    }
+}
@@ -48,6 +48,8 @@ public class NodeAiService {
     private final NodeUpdateProducer nodeUpdateProducer;
     private final ObjectMapper objectMapper;
     private final NodeRestructureProducer nodeRestructureProducer;
+    private final NodePromptBuilder nodePromptBuilder;
+    private final NodeTombstoneService nodeTombstoneService;
 
     @Value("${gms.api-key}")
     private String gmsApiKey;
@@ -148,7 +150,7 @@ public class NodeAiService {
         // 2. GPT 프롬프트 생성
         String prompt = isEmptyWorkspace
                 ? buildAddIdeaPromptForEmpty(request.idea())
-                : buildAddIdeaPrompt(existingNodes, request.idea());
+                : nodePromptBuilder.buildAddIdeaPrompt(existingNodes, request.idea());
 
         // 3. GPT API 호출
         ChatCompletionRequest gmsRequest = new ChatCompletionRequest(
@@ -406,85 +408,6 @@ public class NodeAiService {
             """;
     }
 
-    /**
-     * 아이디어 추가용 GPT 프롬프트 생성
-     * 기존 노드 정보 + 새 아이디어를 제공하고, JSON 형식으로 응답받습니다.
-     */
-    private String buildAddIdeaPrompt(List<MindmapNode> existingNodes, String newIdea) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("""
-            You are an AI assistant helping to expand a mindmap with new ideas.
-
-            ## Your Task
-            1. Analyze the user's new idea
-            2. Extract 5–8 key concepts/keywords from the idea
-            3. For each keyword, determine the most appropriate parent node from the existing mindmap
-            4. Create a brief description (memo) for each keyword in Korean
-
-            ## Important Rules
-            - **DO NOT modify existing nodes** - only create new keyword nodes.
-            - Each keyword must have a valid parentId from the existing nodes
-            - Choose the most semantically related parent node for each keyword
-            - If no clear parent exists, use the root node (nodeId with parentId=null)
-            - Never extract more than 8 keywords.
-            - Keywords and memos must be in Korean
-
-            ## Existing Mindmap Nodes
-            Below is the current mindmap structure. You can only use these nodeIds as parentId values:
-
-            ```json
-            [
-            """);
-
-        // 기존 노드 정보를 JSON 형태로 추가
-        for (int i = 0; i < existingNodes.size(); i++) {
-            MindmapNode node = existingNodes.get(i);
-            sb.append("  {")
-                    .append("\"nodeId\": ").append(node.getNodeId()).append(", ")
-                    .append("\"parentId\": ").append(node.getParentId() == null ? "null" : node.getParentId()).append(", ")
-                    .append("\"type\": \"").append(nullToEmpty(node.getType())).append("\", ")
-                    .append("\"keyword\": \"").append(escape(node.getKeyword())).append("\", ")
-                    .append("\"memo\": \"").append(escape(node.getMemo())).append("\"")
-                    .append("}");
-            if (i < existingNodes.size() - 1) sb.append(",");
-            sb.append("\n");
-        }
-
-        sb.append("""
-            ]
-            ```
-
-            ## New Idea to Process
-            """).append("\"").append(escape(newIdea)).append("\"").append("""
-
-
-            ## Required Response Format
-            Respond with ONLY a JSON array containing the extracted keywords. No explanations, no markdown code blocks.
-            Each object must have exactly these fields:
-            - keyword: string (the extracted keyword in Korean)
-            - memo: string (brief description in Korean, 1-2 sentences)
-            - parentId: number (must be a valid nodeId from the existing nodes above)
-
-            Example response format:
-            [
-              {
-                "keyword": "맛집 검색",
-                "memo": "사용자 위치 기반으로 주변 맛집을 검색하는 기능",
-                "parentId": 3
-              },
-              {
-                "keyword": "리뷰 시스템",
-                "memo": "사용자들이 맛집에 대한 리뷰를 작성하고 공유하는 기능",
-                "parentId": 3
-              }
-            ]
-
-            Now extract 5–8 keywords from the new idea and respond with JSON only.
-            """);
-
-        return sb.toString();
-    }
-
     /**
      * 마인드맵 노드 분석용 프롬프트
      */
@@ -619,7 +542,7 @@ public class NodeAiService {
                     .collect(Collectors.toMap(MindmapNode::getNodeId, n -> n));
 
             // 2) GPT 프롬프트 생성 (필요한 정보만 넣자)
-            String prompt = buildRestructurePrompt(nodes);
+            String prompt = nodePromptBuilder.buildRestructurePrompt(nodes);
 
             ChatCompletionRequest request = new ChatCompletionRequest(
                     "gpt-5-mini",
@@ -629,8 +552,8 @@ public class NodeAiService {
                             마크다운, 설명, ``` 금지.
                             새로운 nodeId 생성 금지.
                             기존 nodeId 목록 외의 nodeId 사용 금지.
-                            keyword, memo 내용은 바꾸지 말 것.
-                            createdAt, updatedAt, x, y, color, type 필드는 출력하지 말 것.
+                            nodeId, parentId 필드만 출력할 것.
+                            keyword, memo, createdAt, updatedAt, x, y, color, type 필드는 출력하지 말 것.
                             (서버에서 다시 채운다)
                             """),
                             new ChatMessage("system", """
@@ -655,6 +578,7 @@ public class NodeAiService {
             // 6) DB 전체 덮어쓰기
             nodeRepository.deleteByWorkspaceId(workspaceId);
             nodeRepository.saveAll(rebuilt);
+            nodeTombstoneService.recordReset(workspaceId);
 
             // 🔥 7) APPLY 이벤트 발행 (nodes 포함)
             nodeRestructureProducer.sendApply(workspaceId, rebuilt);
@@ -682,59 +606,6 @@ public class NodeAiService {
 
 
 
-    private String buildRestructurePrompt(List<MindmapNode> nodes) {
-        StringBuilder sb = new StringBuilder();
-
-        sb.append("""
-      당신의 임무는 사용자의 마인드맵을 최적화하여
-      깔끔한 트리 구조로 재구성하는 것입니다.
-
-      🎯 요구사항
-      1. nodeId=1 은 ROOT 이며 절대 변경/삭제/이동 금지
-      2. keyword + memo가 의미적으로 중복이면 병합, nodeId가 작은 것을 남기기
-      3. 계층 구조를 semantic 기준으로 재배치
-      4. parentId 는 존재하는 nodeId 중 하나여야 함
-      5. 출력은 반드시 JSON array 로만, 설명 금지
-      6. parentId를 변경하여 재배치하되, nodeId 집합은 그대로 유지
-
-      🎯 출력 포맷 (예시)
-      [
-        {
-          "nodeId": 1,
-          "parentId": null,
-          "keyword": "루트",
-          "memo": "루트 노드"
-        }
-      ]
-
-      아래는 기존 노드 목록입니다:
-      [
-    """);
-
-        for (int i = 0; i < nodes.size(); i++) {
-            MindmapNode n = nodes.get(i);
-            sb.append(String.format("""
-          {
-            "nodeId": %d,
-            "parentId": %s,
-            "keyword": "%s",
-            "memo": "%s"
-          }%s
-        """,
-                    n.getNodeId(),
-                    n.getParentId() == null ? "null" : n.getParentId(),
-                    escape(n.getKeyword()),
-                    escape(n.getMemo()),
-                    (i < nodes.size() - 1 ? "," : "")
-            ));
-        }
-
-        sb.append("\n]");
-
-        return sb.toString();
-    }
-
-
     private List<MindmapNode> parseRestructureJson(
             Long workspaceId,
             String json,
@@ -754,24 +625,19 @@ public class NodeAiService {
                 }
 
                 // parentId는 GPT가 바꿔준 값 사용
-                Long parentId = n.get("parentId").isNull()
+                Long parentId = !n.hasNonNull("parentId")
                         ? null
                         : n.get("parentId").asLong();
 
-                // keyword/memo는 바꾸지 말라고 했으니, 혹시라도 바뀌었으면 검증해서 막을 수도 있음
-                String keywordFromGpt = n.get("keyword").asText();
-                String memoFromGpt = n.get("memo").asText();
-
-                String originalKeyword = original.getKeyword() != null ? original.getKeyword() : "";
-                String originalMemo = original.getMemo() != null ? original.getMemo() : "";
-
-                if (!originalKeyword.equals(keywordFromGpt)) {
-                    log.warn("GPT가 keyword를 변경함: nodeId={}, original='{}', gpt='{}'",
-                            nodeId, originalKeyword, keywordFromGpt);
-                }
-                if (!originalMemo.equals(memoFromGpt)) {
-                    log.warn("GPT가 memo를 변경함: nodeId={}, original='{}', gpt='{}'",
-                            nodeId, originalMemo, memoFromGpt);
+                // keyword/memo는 출력하지 말라고 했으니, 혹시 포함돼 있으면 변경 여부만 로깅
+                // (프롬프트의 memo는 잘린 값이라 memo는 비교하지 않음)
+                if (n.hasNonNull("keyword")) {
+                    String keywordFromGpt = n.get("keyword").asText();
+                    String originalKeyword = original.getKeyword() != null ? original.getKeyword() : "";
+                    if (!originalKeyword.equals(keywordFromGpt)) {
+                        log.warn("GPT가 keyword를 변경함: nodeId={}, original='{}', gpt='{}'",
+                                nodeId, originalKeyword, keywordFromGpt);
+                    }
                 }
 
                 result.add(
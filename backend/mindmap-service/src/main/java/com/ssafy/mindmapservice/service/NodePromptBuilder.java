@@ -0,0 +1,294 @@
+package com.ssafy.mindmapservice.service;
+
+import com.ssafy.mindmapservice.domain.MindmapNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * GPT 프롬프트에 들어가는 노드 목록을 압축된 표 형식으로 직렬화합니다.
+ *
+ * - 노드 한 줄 = "id|parentId|keyword|memo" (JSON 대비 키 이름/따옴표/공백 토큰 제거)
+ * - memo는 memoMaxChars 까지만 잘라서 사용
+ * - 전체 노드가 토큰 예산을 넘으면 새 아이디어와 관련도가 높은 노드만 골라서 사용 (루트는 항상 포함)
+ * - 최종 프롬프트는 미리 크기를 계산한 StringBuilder 하나에 작성
+ */
+@Slf4j
+@Component
+public class NodePromptBuilder {
+
+    static final String TABLE_HEADER = "id|parentId|keyword|memo\n";
+    private static final String NULL_CELL = "-";
+
+    private final int tokenBudget;
+    private final int memoMaxChars;
+
+    public NodePromptBuilder(
+            @Value("${gms.prompt.node-token-budget:6000}") int tokenBudget,
+            @Value("${gms.prompt.memo-max-chars:80}") int memoMaxChars) {
+        this.tokenBudget = tokenBudget;
+        this.memoMaxChars = memoMaxChars;
+    }
+
+    // ===================== 프롬프트 =====================
+
+    /**
+     * 아이디어 추가용 프롬프트.
+     * 노드가 많으면 토큰 예산 안에서 관련도 높은 노드만 포함합니다.
+     */
+    public String buildAddIdeaPrompt(List<MindmapNode> existingNodes, String newIdea) {
+        List<String> rows = selectRows(existingNodes, newIdea, tokenBudget);
+
+        StringBuilder sb = new StringBuilder(ADD_IDEA_HEAD.length() + ADD_IDEA_TAIL.length()
+                + TABLE_HEADER.length() + totalLength(rows) + (newIdea == null ? 0 : newIdea.length()) + 16);
+
+        sb.append(ADD_IDEA_HEAD).append(TABLE_HEADER);
+        for (String row : rows) {
+            sb.append(row);
+        }
+        sb.append("\n## New Idea to Process\n\"").append(inline(newIdea)).append('"').append(ADD_IDEA_TAIL);
+        return sb.toString();
+    }
+
+    /**
+     * 정리하기(재구성)용 프롬프트.
+     * 응답에서 빠진 노드는 삭제되므로 전체 노드를 포함하고, memo만 잘라서 사용합니다.
+     */
+    public String buildRestructurePrompt(List<MindmapNode> nodes) {
+        List<String> rows = new ArrayList<>(nodes.size());
+        for (MindmapNode node : nodes) {
+            rows.add(toRow(node));
+        }
+
+        StringBuilder sb = new StringBuilder(RESTRUCTURE_HEAD.length() + TABLE_HEADER.length() + totalLength(rows));
+        sb.append(RESTRUCTURE_HEAD).append(TABLE_HEADER);
+        for (String row : rows) {
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+
+    // ===================== 노드 선택 =====================
+
+    /**
+     * 토큰 예산 안에 들어가는 노드 행을 원래 순서대로 반환합니다.
+     * 예산을 넘는 경우: 루트 → 관련도 점수 순으로 채웁니다.
+     */
+    List<String> selectRows(List<MindmapNode> nodes, String query, int budget) {
+        List<String> allRows = new ArrayList<>(nodes.size());
+        int totalTokens = 0;
+        for (MindmapNode node : nodes) {
+            String row = toRow(node);
+            allRows.add(row);
+            totalTokens += estimateTokens(row);
+        }
+
+        if (totalTokens <= budget) {
+            return allRows;
+        }
+
+        Map<Long, Integer> childCount = new HashMap<>();
+        for (MindmapNode node : nodes) {
+            if (node.getParentId() != null) {
+                childCount.merge(node.getParentId(), 1, Integer::sum);
+            }
+        }
+        Set<String> queryGrams = bigrams(query);
+
+        Integer[] order = new Integer[nodes.size()];
+        double[] scores = new double[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            order[i] = i;
+            scores[i] = score(nodes.get(i), queryGrams, childCount);
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> -scores[i]));
+
+        boolean[] picked = new boolean[nodes.size()];
+        int used = 0;
+        int pickedCount = 0;
+        for (int idx : order) {
+            int cost = estimateTokens(allRows.get(idx));
+            if (used + cost > budget && pickedCount > 0) {
+                continue;
+            }
+            picked[idx] = true;
+            used += cost;
+            pickedCount++;
+        }
+
+        List<String> result = new ArrayList<>(pickedCount);
+        for (int i = 0; i < nodes.size(); i++) {
+            if (picked[i]) {
+                result.add(allRows.get(i));
+            }
+        }
+
+        log.info("Prompt node selection: total={}, selected={}, tokens {} -> {} (budget={})",
+                nodes.size(), pickedCount, totalTokens, used, budget);
+        return result;
+    }
+
+    private double score(MindmapNode node, Set<String> queryGrams, Map<Long, Integer> childCount) {
+        // 루트는 반드시 포함 (GPT의 기본 parentId 후보)
+        if (node.getParentId() == null) {
+            return Double.MAX_VALUE;
+        }
+
+        double s = 0;
+        if (!queryGrams.isEmpty()) {
+            s += 3.0 * overlap(bigrams(node.getKeyword()), queryGrams);
+            s += overlap(bigrams(truncate(node.getMemo())), queryGrams);
+        }
+        // 자식이 많은 노드는 카테고리 역할일 가능성이 높음
+        s += Math.log1p(childCount.getOrDefault(node.getNodeId(), 0));
+        return s;
+    }
+
+    private static int overlap(Set<String> grams, Set<String> queryGrams) {
+        int hit = 0;
+        for (String g : grams) {
+            if (queryGrams.contains(g)) hit++;
+        }
+        return hit;
+    }
+
+    /**
+     * 한국어는 띄어쓰기 단위 매칭이 부정확해서 공백을 제거한 문자 bigram으로 비교합니다.
+     */
+    private static Set<String> bigrams(String s) {
+        if (s == null || s.isBlank()) {
+            return Set.of();
+        }
+        String compact = s.toLowerCase().replaceAll("\\s+", "");
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 1 < compact.length(); i++) {
+            grams.add(compact.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    // ===================== 직렬화 =====================
+
+    String toRow(MindmapNode node) {
+        return node.getNodeId() + "|"
+                + (node.getParentId() == null ? NULL_CELL : node.getParentId()) + "|"
+                + displayKeyword(node) + "|"
+                + cell(truncate(node.getMemo())) + "\n";
+    }
+
+    /**
+     * image 노드의 keyword는 S3 key, video 노드는 URL이라 GPT에게 의미가 없으므로 타입 표시로 대체합니다.
+     */
+    private String displayKeyword(MindmapNode node) {
+        if ("image".equals(node.getType())) return "[image]";
+        if ("video".equals(node.getType())) return "[video]";
+        return cell(node.getKeyword());
+    }
+
+    private String truncate(String memo) {
+        if (memo == null) return null;
+        if (memo.length() <= memoMaxChars) return memo;
+        return memo.substring(0, memoMaxChars) + "…";
+    }
+
+    private static String cell(String s) {
+        if (s == null || s.isEmpty()) return NULL_CELL;
+        return inline(s).replace('|', '/');
+    }
+
+    private static String inline(String s) {
+        if (s == null) return "";
+        return s.replace('\n', ' ').replace('\r', ' ').trim();
+    }
+
+    private static int totalLength(List<String> rows) {
+        int len = 0;
+        for (String row : rows) len += row.length();
+        return len;
+    }
+
+    /**
+     * 대략적인 토큰 수 추정 (tokenizer 호출 없이)
+     * ASCII는 4글자당 1토큰, 한글 등 비ASCII 문자는 글자당 1토큰으로 계산합니다.
+     */
+    static int estimateTokens(CharSequence s) {
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) < 0x80) ascii++;
+            else other++;
+        }
+        return other + (ascii + 3) / 4;
+    }
+
+    // ===================== 템플릿 =====================
+
+    private static final String ADD_IDEA_HEAD = """
+            You are an AI assistant helping to expand a mindmap with new ideas.
+
+            ## Your Task
+            1. Analyze the user's new idea
+            2. Extract 5–8 key concepts/keywords from the idea
+            3. For each keyword, determine the most appropriate parent node from the existing mindmap
+            4. Create a brief description (memo) for each keyword in Korean
+
+            ## Important Rules
+            - **DO NOT modify existing nodes** - only create new keyword nodes.
+            - Each keyword must have a valid parentId from the existing nodes
+            - Choose the most semantically related parent node for each keyword
+            - If no clear parent exists, use the root node (the row whose parentId is "-")
+            - Never extract more than 8 keywords.
+            - Keywords and memos must be in Korean
+
+            ## Existing Mindmap Nodes
+            One node per line, columns separated by "|". "-" means null/empty, memo may be truncated with "…".
+            You can only use these ids as parentId values:
+
+            """;
+
+    private static final String ADD_IDEA_TAIL = """
+
+
+            ## Required Response Format
+            Respond with ONLY a JSON array containing the extracted keywords. No explanations, no markdown code blocks.
+            Each object must have exactly these fields:
+            - keyword: string (the extracted keyword in Korean)
+            - memo: string (brief description in Korean, 1-2 sentences)
+            - parentId: number (must be a valid id from the existing nodes above)
+
+            Example response format:
+            [{"keyword":"맛집 검색","memo":"사용자 위치 기반으로 주변 맛집을 검색하는 기능","parentId":3},{"keyword":"리뷰 시스템","memo":"사용자들이 맛집에 대한 리뷰를 작성하고 공유하는 기능","parentId":3}]
+
+            Now extract 5–8 keywords from the new idea and respond with JSON only.
+            """;
+
+    private static final String RESTRUCTURE_HEAD = """
+            당신의 임무는 사용자의 마인드맵을 최적화하여
+            깔끔한 트리 구조로 재구성하는 것입니다.
+
+            🎯 요구사항
+            1. nodeId=1 은 ROOT 이며 절대 변경/삭제/이동 금지
+            2. keyword + memo가 의미적으로 중복이면 병합, nodeId가 작은 것을 남기기
+            3. 계층 구조를 semantic 기준으로 재배치
+            4. parentId 는 존재하는 nodeId 중 하나여야 함
+            5. 출력은 반드시 JSON array 로만, 설명 금지
+            6. parentId를 변경하여 재배치하되, nodeId 집합은 그대로 유지
+            7. keyword, memo는 출력하지 말 것 (서버가 원본 값을 유지)
+
+            🎯 출력 포맷 (예시)
+            [{"nodeId":1,"parentId":null},{"nodeId":2,"parentId":1}]
+
+            아래는 기존 노드 목록입니다.
+            한 줄에 노드 하나, 컬럼은 "|"로 구분, "-"는 null/빈 값, memo는 "…"로 잘려 있을 수 있습니다.
+
+            """;
+}
@@ -3,27 +3,47 @@ package com.ssafy.mindmapservice.service;
 import com.ssafy.mindmapservice.client.WorkspaceServiceClientAdapter;
 import com.ssafy.mindmapservice.domain.InitialColor;
 import com.ssafy.mindmapservice.domain.MindmapNode;
+import com.ssafy.mindmapservice.domain.NodeTombstone;
 import com.ssafy.mindmapservice.dto.request.AiAnalysisRequest;
 import com.ssafy.mindmapservice.dto.kafka.AiNodeResult;
 import com.ssafy.mindmapservice.dto.request.InitialMindmapRequest;
 import com.ssafy.mindmapservice.dto.request.NodePositionUpdateRequest;
 import com.ssafy.mindmapservice.dto.response.CreatedNodeInfo;
 import com.ssafy.mindmapservice.dto.response.InitialMindmapResponse;
+import com.ssafy.mindmapservice.dto.response.NodeChangesResponse;
 import com.ssafy.mindmapservice.dto.kafka.NodeContextDto;
 import com.ssafy.mindmapservice.dto.response.NodeSimpleResponse;
 import com.ssafy.mindmapservice.dto.response.NodeResponse;
+import com.ssafy.mindmapservice.dto.response.WorkspaceCloneResponse;
 import com.ssafy.mindmapservice.dto.request.ImageNodeCreateRequest;
 import com.ssafy.mindmapservice.kafka.AiAnalysisProducer;
+import com.ssafy.mindmapservice.kafka.AiAnalysisRequestShaper;
 import com.ssafy.mindmapservice.repository.NodeRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.aggregation.UnsetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Slf4j
 @Service
@@ -31,12 +51,34 @@ import java.util.*;
 public class NodeService {
 
     private final NodeRepository nodeRepository;
+    private final MongoTemplate mongoTemplate;
     private final WorkspaceServiceClientAdapter workspaceServiceClientAdapter;
     private final AiAnalysisProducer aiAnalysisProducer;
+    private final AiAnalysisRequestShaper aiAnalysisRequestShaper;
     private final SequenceGeneratorService sequenceGeneratorService;
     private final TrendEventPublisher trendEventPublisher;
     private final PublicIndexSyncService publicIndexSyncService;
     private final ImageService imageService;
+    private final NodeTombstoneService nodeTombstoneService;
+
+    // 변경분 조회 시 since보다 이만큼 앞에서부터 조회 (updatedAt은 커밋 전에 정해지므로 늦게 반영된 쓰기 보완)
+    @Value("${mindmap.changes.overlap:5s}")
+    private Duration changesOverlap;
+
+    // 변경 노드가 이보다 많으면 전체 재조회가 더 효율적
+    @Value("${mindmap.changes.max-size:2000}")
+    private int changesMaxSize;
+
+    // 새 워크스페이스의 첫 노드(루트)는 항상 nodeId=1
+    private static final long ROOT_NODE_ID = 1L;
+
+    // 새 워크스페이스 루트 노드 생성 시 서로 독립적인 I/O(시퀀스 초기화 ↔ 노드 저장)를 겹쳐서 실행
+    private final ExecutorService creationExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    void shutdownCreationExecutor() {
+        creationExecutor.shutdown();
+    }
 
     public List<MindmapNode> getNodesByWorkspace(Long workspaceId) {
         log.info("Getting all nodes for workspace: {}", workspaceId);
@@ -55,22 +97,91 @@ public class NodeService {
     public List<NodeResponse> getNodesWithPresignedUrls(Long workspaceId) {
         log.info("Getting all nodes with presigned URLs for workspace: {}", workspaceId);
         List<MindmapNode> nodes = nodeRepository.findByWorkspaceId(workspaceId);
+        return toResponsesWithPresignedUrls(workspaceId, nodes);
+    }
+
+    /**
+     * since(epoch millis) 이후 변경된 노드와 삭제된 노드 ID를 조회합니다.
+     * (workspaceId, updatedAt) / (workspaceId, deletedAt) 인덱스로 변경분만 읽습니다.
+     *
+     * - since 이후 전체 삭제/정리하기가 있었거나, tombstone 보관 기간보다 오래되었거나,
+     *   변경 노드가 max-size를 넘으면 fullResync=true로 응답
+     * - overlap 구간 때문에 이미 받은 변경이 다시 올 수 있음 (nodeId 기준으로 덮어쓰면 됨)
+     *
+     * @param workspaceId 워크스페이스 ID
+     * @param since       이전 응답(또는 mindmap.node.update 알림)의 version
+     */
+    public NodeChangesResponse getNodeChanges(Long workspaceId, long since) {
+        long now = System.currentTimeMillis();
+
+        if (since <= 0 || since < now - NodeTombstoneService.RETENTION.toMillis()) {
+            return NodeChangesResponse.fullResync(workspaceId, now);
+        }
+
+        LocalDateTime from = toLocalDateTime(since - changesOverlap.toMillis());
+
+        List<NodeTombstone> tombstones = mongoTemplate.find(
+                new Query(Criteria.where("workspaceId").is(workspaceId).and("deletedAt").gte(from)),
+                NodeTombstone.class);
+        if (tombstones.stream().anyMatch(t -> t.getNodeId() == null)) {
+            return NodeChangesResponse.fullResync(workspaceId, now);
+        }
 
+        Query changedQuery = new Query(Criteria.where("workspaceId").is(workspaceId).and("updatedAt").gte(from))
+                .limit(changesMaxSize + 1);
+        List<MindmapNode> changed = mongoTemplate.find(changedQuery, MindmapNode.class);
+        if (changed.size() > changesMaxSize) {
+            return NodeChangesResponse.fullResync(workspaceId, now);
+        }
+
+        long version = since;
+        Set<Long> aliveNodeIds = new HashSet<>();
+        for (MindmapNode node : changed) {
+            aliveNodeIds.add(node.getNodeId());
+            if (node.getUpdatedAt() != null) {
+                version = Math.max(version, toEpochMillis(node.getUpdatedAt()));
+            }
+        }
+
+        // 삭제 후 다시 생성된 노드(Yjs undo 등)는 삭제 목록에서 제외
+        List<Long> deletedNodeIds = new ArrayList<>();
+        for (NodeTombstone tombstone : tombstones) {
+            version = Math.max(version, toEpochMillis(tombstone.getDeletedAt()));
+            if (!aliveNodeIds.contains(tombstone.getNodeId())) {
+                deletedNodeIds.add(tombstone.getNodeId());
+            }
+        }
+
+        log.debug("Node changes: workspaceId={}, since={}, updated={}, deleted={}",
+                workspaceId, since, changed.size(), deletedNodeIds.size());
+
+        return new NodeChangesResponse(workspaceId, version, false,
+                toResponsesWithPresignedUrls(workspaceId, changed), deletedNodeIds.stream().distinct().toList());
+    }
+
+    private List<NodeResponse> toResponsesWithPresignedUrls(Long workspaceId, List<MindmapNode> nodes) {
+        // image 타입 노드의 S3 key를 모아서 한 번에 서명 (캐시에 있는 URL은 재사용)
+        List<String> imageKeys = nodes.stream()
+                .filter(node -> "image".equals(node.getType()) && node.getKeyword() != null && !node.getKeyword().isBlank())
+                .map(MindmapNode::getKeyword)
+                .toList();
+
+        Map<String, String> signedUrls;
+        try {
+            signedUrls = imageService.generateImagePresignedUrls(imageKeys, Duration.ofHours(1));
+        } catch (Exception e) {
+            log.error("Failed to generate presigned URLs for workspace: {}", workspaceId, e);
+            signedUrls = Map.of();
+        }
+
+        Map<String, String> resolved = signedUrls;
         return nodes.stream()
                 .map(node -> {
                     String resolvedKeyword = node.getKeyword();
 
-                    // image 타입인 경우 S3 key를 presigned URL로 변환
-                    if ("image".equals(node.getType()) && node.getKeyword() != null && !node.getKeyword().isBlank()) {
-                        try {
-                            resolvedKeyword = imageService.generateImagePresignedUrl(
-                                    node.getKeyword(),
-                                    Duration.ofHours(1)
-                            );
-                            log.debug("Generated presigned URL for image node: nodeId={}", node.getNodeId());
-                        } catch (Exception e) {
-                            log.error("Failed to generate presigned URL for nodeId={}", node.getNodeId(), e);
-                        }
+                    // image 타입인 경우 S3 key를 presigned URL로 변환 (실패 시 S3 key 그대로)
+                    if ("image".equals(node.getType()) && node.getKeyword() != null && resolved.containsKey(node.getKeyword())) {
+                        resolvedKeyword = resolved.get(node.getKeyword());
                     }
 
                     return NodeResponse.from(node, resolvedKeyword);
@@ -78,6 +189,14 @@ public class NodeService {
                 .toList();
     }
 
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
     /**
      * 워크스페이스의 노드 간단 정보 조회 (nodeId, keyword만 포함)
      * 캘린더 등에서 경량화된 응답이 필요할 때 사용
@@ -240,6 +359,51 @@ public class NodeService {
         return saved;
     }
 
+    /**
+     * 방금 생성한 워크스페이스에 루트 노드를 저장합니다. (createNode의 새 워크스페이스 전용 경로)
+     * - 새 워크스페이스는 항상 PRIVATE → isPublic 조회, 트렌드 이벤트, ES 인덱싱 생략
+     * - 첫 노드이므로 nodeId=1을 미리 할당하고, 시퀀스 초기화와 노드 저장을 동시에 수행
+     */
+    private MindmapNode createRootNodeOfNewWorkspace(MindmapNode node) {
+        Long workspaceId = node.getWorkspaceId();
+        LocalDateTime now = LocalDateTime.now();
+
+        node.setNodeId(ROOT_NODE_ID);
+        node.setCreatedAt(now);
+        node.setUpdatedAt(now);
+
+        if (node.getAnalysisStatus() == null) {
+            node.setAnalysisStatus(MindmapNode.AnalysisStatus.NONE);
+        }
+
+        CompletableFuture<Void> sequence = CompletableFuture.runAsync(
+                () -> sequenceGeneratorService.reserveNodeIds(workspaceId, ROOT_NODE_ID), creationExecutor);
+
+        MindmapNode saved = nodeRepository.insert(node);
+        join(sequence);
+
+        log.info("Created root node of new workspace: workspaceId={}, nodeId={}",
+                saved.getWorkspaceId(), saved.getNodeId());
+        return saved;
+    }
+
+    /**
+     * join()이 감싼 CompletionException을 벗겨서 원래 예외를 그대로 던집니다.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
     /**
      * 이미지 파일을 업로드하고 이미지 노드를 생성합니다.
      * 1. S3에 이미지 파일 업로드
@@ -290,11 +454,11 @@ public class NodeService {
         log.info("Creating initial mindmap with image file: userId={}, fileName={}",
                 userId, file.getOriginalFilename());
 
-        // 1. 이미지 S3 업로드
+        // 1. 이미지 S3 업로드 (워크스페이스보다 먼저: 업로드가 실패하면 빈 워크스페이스가 남지 않도록)
         String imageKey = imageService.uploadImage(file);
         log.debug("Image uploaded to S3: key={}", imageKey);
 
-        // 2. 기존 메서드 재사용
+        // 2. 워크스페이스 생성(필요 시) + 루트 노드 생성 + INITIAL AI 분석 요청
         return createInitialMindmapWithImage(userId, imageKey, startPrompt, workspaceId);
     }
 
@@ -375,48 +539,67 @@ public class NodeService {
     public void deleteNode(Long workspaceId, Long nodeId) {
         log.debug("Deleting node: workspaceId={}, nodeId={}", workspaceId, nodeId);
         nodeRepository.deleteByWorkspaceIdAndNodeId(workspaceId, nodeId);
+        nodeTombstoneService.recordDeleted(workspaceId, nodeId);
     }
 
     @Transactional
     public void deleteAllNodes(Long workspaceId) {
         log.debug("Deleting all nodes for workspace: {}", workspaceId);
         nodeRepository.deleteByWorkspaceId(workspaceId);
+        nodeTombstoneService.recordReset(workspaceId);
     }
 
+    /**
+     * 워크스페이스를 복제합니다.
+     * 노드를 애플리케이션으로 읽어오지 않고 MongoDB aggregation($match → $unset/$set → $merge)으로 DB 안에서 복사합니다.
+     *
+     * @return 복제 결과 요약 (노드 목록은 반환하지 않음)
+     */
     @Transactional
-    public List<MindmapNode> cloneWorkspace(Long userId, Long sourceWorkspaceId, String newWorkspaceName) {
+    public WorkspaceCloneResponse cloneWorkspace(Long userId, Long sourceWorkspaceId, String newWorkspaceName) {
         log.info("Cloning workspace: userId={}, source={}, newName={}", userId, sourceWorkspaceId, newWorkspaceName);
 
-        List<MindmapNode> sourceNodes = nodeRepository.findByWorkspaceId(sourceWorkspaceId);
+        // 원본 존재 확인 + 최대 nodeId (시퀀스 초기값)
+        Query lastNodeQuery = new Query(Criteria.where("workspaceId").is(sourceWorkspaceId))
+                .with(Sort.by(Sort.Direction.DESC, "nodeId"))
+                .limit(1);
+        lastNodeQuery.fields().include("nodeId");
+        MindmapNode lastNode = mongoTemplate.findOne(lastNodeQuery, MindmapNode.class);
 
-        if (sourceNodes.isEmpty()) {
+        if (lastNode == null) {
             throw new IllegalArgumentException("Source workspace is empty: " + sourceWorkspaceId);
         }
 
         Long newWorkspaceId = workspaceServiceClientAdapter.createWorkspace(userId, newWorkspaceName);
         log.info("Created new workspace with ID: {}", newWorkspaceId);
 
-        List<MindmapNode> clonedNodes = sourceNodes.stream()
-                .map(node -> MindmapNode.builder()
-                        .nodeId(node.getNodeId())
-                        .workspaceId(newWorkspaceId)
-                        .parentId(node.getParentId())
-                        .type(node.getType())
-                        .keyword(node.getKeyword())
-                        .memo(node.getMemo())
-                        .analysisStatus(node.getAnalysisStatus())
-                        .x(node.getX())
-                        .y(node.getY())
-                        .color(node.getColor())
-                        .createdAt(LocalDateTime.now())
-                        .updatedAt(LocalDateTime.now())
-                        .build())
-                .toList();
+        Date now = new Date();
+        Aggregation cloneAggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("workspaceId").is(sourceWorkspaceId)),
+                UnsetOperation.unset("_id"),
+                Aggregation.addFields()
+                        .addFieldWithValue("workspaceId", newWorkspaceId)
+                        .addFieldWithValue("createdAt", now)
+                        .addFieldWithValue("updatedAt", now)
+                        .build(),
+                // (workspaceId, nodeId) unique 인덱스 기준으로 병합 (재시도 시 중복 생성 방지)
+                Aggregation.merge()
+                        .intoCollection("nodes")
+                        .on("workspaceId", "nodeId")
+                        .whenMatched(MergeOperation.WhenDocumentsMatch.keepExistingDocument())
+                        .whenNotMatched(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                        .build()
+        );
+        mongoTemplate.aggregate(cloneAggregation, "nodes", Document.class);
+
+        // 복제된 노드 이후부터 nodeId가 발급되도록 시퀀스 초기화
+        sequenceGeneratorService.reserveNodeIds(newWorkspaceId, lastNode.getNodeId());
 
-        List<MindmapNode> savedNodes = nodeRepository.saveAll(clonedNodes);
-        log.info("Cloned {} nodes to workspace {}", savedNodes.size(), newWorkspaceId);
+        long clonedCount = mongoTemplate.count(
+                new Query(Criteria.where("workspaceId").is(newWorkspaceId)), MindmapNode.class);
+        log.info("Cloned {} nodes to workspace {}", clonedCount, newWorkspaceId);
 
-        return savedNodes;
+        return new WorkspaceCloneResponse(sourceWorkspaceId, newWorkspaceId, clonedCount, lastNode.getNodeId());
     }
 
     /**
@@ -581,15 +764,19 @@ public class NodeService {
 
     /**
      * CONTEXTUAL AI 분석을 요청합니다.
-     * 1. 노드의 분석 상태를 PENDING으로 변경
-     * 2. Kafka를 통해 AI 서버로 분석 요청 전송
+     * 1. 노드 컨텍스트 수집
+     * 2. AiAnalysisRequestShaper를 통해 중복 제거 / 속도 제한 후 PENDING 변경 + Kafka 전송
      * CONTEXTUAL만 사용하므로 analysisType 파라미터는 받지 않고,
      * 내부에서 "CONTEXTUAL"로 고정합니다.
+     *
+     * @param userId 요청 사용자 ID (null 가능, 사용자별 속도 제한용)
+     * @return 요청 처리 결과 (ACCEPTED / DUPLICATE / RATE_LIMITED)
      */
-    public void requestAiAnalysis(Long workspaceId, Long nodeId,
-                                  String contentUrl,
-                                  String contentType,
-                                  String prompt) {
+    public AiAnalysisRequestShaper.Outcome requestAiAnalysis(Long workspaceId, Long nodeId,
+                                                             Long userId,
+                                                             String contentUrl,
+                                                             String contentType,
+                                                             String prompt) {
 
         final String analysisType = "CONTEXTUAL";
 
@@ -604,12 +791,7 @@ public class NodeService {
         List<NodeContextDto> nodes = getAncestorContext(workspaceId, nodeId);
         log.debug("Collected node context with {} nodes", nodes.size());
 
-        // 3. 분석 상태를 PENDING으로 변경
-        node.setAnalysisStatus(MindmapNode.AnalysisStatus.PENDING);
-        node.setUpdatedAt(LocalDateTime.now());
-        nodeRepository.save(node);
-
-        // 4. Kafka를 통해 AI 서버로 분석 요청 전송
+        // 3. 분석 요청 생성
         AiAnalysisRequest request = new AiAnalysisRequest(
                 workspaceId,
                 nodeId,
@@ -620,9 +802,11 @@ public class NodeService {
                 nodes           // 조상 경로 컨텍스트
         );
 
-        aiAnalysisProducer.sendAnalysisRequest(request);
+        // 4. 중복 제거 / 속도 제한 후 PENDING 변경 + Kafka 전송
+        AiAnalysisRequestShaper.Outcome outcome = aiAnalysisRequestShaper.submit(request, userId);
 
-        log.info("AI analysis request sent successfully: nodeId={}, type={}", nodeId, analysisType);
+        log.info("AI analysis request handled: nodeId={}, type={}, outcome={}", nodeId, analysisType, outcome);
+        return outcome;
     }
 
 
@@ -659,7 +843,7 @@ public class NodeService {
                 .analysisStatus(MindmapNode.AnalysisStatus.PENDING)
                 .build();
 
-        MindmapNode createdNode = createNode(rootNode);
+        MindmapNode createdNode = createRootNodeOfNewWorkspace(rootNode);
         log.info("Voice idea root node created: workspaceId={}, nodeId={}", workspaceId, createdNode.getNodeId());
 
         // 3. AI 분석 요청 (INITIAL 타입으로)
@@ -695,11 +879,8 @@ public class NodeService {
     private void requestVoiceIdeaAnalysis(Long workspaceId, Long nodeId, String text) {
         log.info("Requesting INITIAL AI analysis for voice idea: workspaceId={}, nodeId={}", workspaceId, nodeId);
 
-        // 1. 노드 존재 확인
-        nodeRepository.findByWorkspaceIdAndNodeId(workspaceId, nodeId).
-                orElseThrow(() -> new IllegalArgumentException("Node not found: " + nodeId));
-
-        // 2. Kafka를 통해 AI 서버로 분석 요청 전송 (INITIAL 타입)
+        // 노드는 직전에 같은 요청에서 저장했으므로 존재 확인 조회는 생략
+        // Kafka를 통해 AI 서버로 분석 요청 전송 (INITIAL 타입)
         AiAnalysisRequest request = new AiAnalysisRequest(
                 workspaceId,
                 nodeId,
@@ -731,8 +912,9 @@ public class NodeService {
 
         // 1) workspaceId 결정 (null이면 생성, 있으면 그대로 사용)
         Long workspaceId = request.workspaceId();
+        boolean newWorkspace = workspaceId == null;
 
-        if (workspaceId == null) {
+        if (newWorkspace) {
             workspaceId = workspaceServiceClientAdapter.createWorkspace(
                     userId,
                     request.startPrompt()
@@ -771,7 +953,7 @@ public class NodeService {
             throw new IllegalArgumentException("Unsupported content type: " + contentType + ". Use /initial/upload for IMAGE type.");
         }
 
-        MindmapNode createdNode = createNode(rootNode);
+        MindmapNode createdNode = newWorkspace ? createRootNodeOfNewWorkspace(rootNode) : createNode(rootNode);
         log.info("Root node created: workspaceId={}, nodeId={}", workspaceId, createdNode.getNodeId());
 
         // 3. INITIAL AI 분석 요청 (Kafka)
@@ -800,17 +982,29 @@ public class NodeService {
 
         // 1) workspaceIdDecide 결정 (null이면 생성, 있으면 그대로 사용)
         Long workspaceIdDecide = workspaceId;
+        boolean newWorkspace = workspaceIdDecide == null;
 
-        if (workspaceIdDecide == null) {
+        if (newWorkspace) {
             workspaceIdDecide = workspaceServiceClientAdapter.createWorkspace(
                     userId,
                     startPrompt
             );
             log.info("Workspace not provided → created new workspaceIdDecide={}", workspaceIdDecide);
         }
+
+        return createInitialImageMindmap(imageUrl, startPrompt, workspaceIdDecide, newWorkspace);
+    }
+
+    /**
+     * 이미지 루트 노드 생성 → INITIAL AI 분석 요청 → 응답 생성 (createInitialMindmapWithImage 공통 로직)
+     *
+     * @param newWorkspace 방금 생성한 워크스페이스인지 여부 (루트 노드 생성 경로 결정)
+     */
+    private InitialMindmapResponse createInitialImageMindmap(String imageUrl, String startPrompt,
+                                                             Long workspaceId, boolean newWorkspace) {
         // 2. 이미지 노드 생성
         MindmapNode rootNode = MindmapNode.builder()
-                .workspaceId(workspaceIdDecide)
+                .workspaceId(workspaceId)
                 .parentId(null)
                 .keyword(imageUrl)  // 이미지 URL을 keyword에 저장
                 .type("image")
@@ -820,16 +1014,25 @@ public class NodeService {
                 .analysisStatus(MindmapNode.AnalysisStatus.PENDING)
                 .build();
 
-        MindmapNode createdNode = createNode(rootNode);
-        log.info("Image root node created: workspaceIdDecide={}, nodeId={}", workspaceIdDecide, createdNode.getNodeId());
+        MindmapNode createdNode = newWorkspace ? createRootNodeOfNewWorkspace(rootNode) : createNode(rootNode);
+        log.info("Image root node created: workspaceId={}, nodeId={}", workspaceId, createdNode.getNodeId());
+
+        // presigned URL은 AI 요청과 응답에 같이 사용 (한 번만 서명)
+        String presignedUrl = imageService.generateImagePresignedUrl(imageUrl, Duration.ofHours(1));
 
-        String requestImageUrl = imageService.generateImagePresignedUrl(imageUrl, Duration.ofHours(1));
         // 3. INITIAL AI 분석 요청
-        sendInitialAnalysisRequest(workspaceIdDecide, createdNode.getNodeId(),
-                requestImageUrl, "IMAGE", startPrompt);
+        sendInitialAnalysisRequest(workspaceId, createdNode.getNodeId(),
+                presignedUrl, "IMAGE", startPrompt);
 
         // 4. 응답 생성
-        return buildInitialMindmapResponse(workspaceIdDecide, createdNode);
+        return new InitialMindmapResponse(
+                workspaceId,
+                createdNode.getNodeId(),
+                presignedUrl,
+                createdNode.getMemo(),
+                createdNode.getAnalysisStatus().name(),
+                "마인드맵이 생성되었습니다. AI 분석이 진행 중입니다."
+        );
     }
 
     /**
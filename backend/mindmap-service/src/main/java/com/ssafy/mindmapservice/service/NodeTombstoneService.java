@@ -0,0 +1,60 @@
+package com.ssafy.mindmapservice.service;
+
+import com.ssafy.mindmapservice.domain.NodeTombstone;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 노드 삭제를 node_tombstones에 기록합니다.
+ * 변경분 조회(GET /{workspaceId}/nodes/changes)에서 삭제된 노드를 알려주기 위해 모든 삭제 경로에서 호출해야 합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NodeTombstoneService {
+
+    /**
+     * NodeTombstone.deletedAt TTL 인덱스(30d)와 같은 값
+     */
+    public static final Duration RETENTION = Duration.ofDays(30);
+
+    private final MongoTemplate mongoTemplate;
+
+    public void recordDeleted(Long workspaceId, Long nodeId) {
+        recordDeleted(workspaceId, List.of(nodeId));
+    }
+
+    public void recordDeleted(Long workspaceId, Collection<Long> nodeIds) {
+        if (nodeIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<NodeTombstone> tombstones = nodeIds.stream()
+                .map(nodeId -> NodeTombstone.builder()
+                        .workspaceId(workspaceId)
+                        .nodeId(nodeId)
+                        .deletedAt(now)
+                        .build())
+                .toList();
+        mongoTemplate.insertAll(tombstones);
+        log.debug("Recorded node tombstones: workspaceId={}, count={}", workspaceId, tombstones.size());
+    }
+
+    /**
+     * 워크스페이스 전체 노드가 삭제/교체되었음을 기록합니다. (이후 변경분 조회는 전체 재조회로 응답)
+     */
+    public void recordReset(Long workspaceId) {
+        mongoTemplate.insert(NodeTombstone.builder()
+                .workspaceId(workspaceId)
+                .deletedAt(LocalDateTime.now())
+                .build());
+        log.debug("Recorded workspace node reset: workspaceId={}", workspaceId);
+    }
+}
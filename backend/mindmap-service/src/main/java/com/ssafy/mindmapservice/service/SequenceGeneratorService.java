@@ -52,4 +52,21 @@ public class SequenceGeneratorService {
         log.debug("Generated nodeId {} for workspace {}", sequence.getSequence(), workspaceId);
         return sequence.getSequence();
     }
+
+    /**
+     * nodeId를 upTo까지 이미 사용한 것으로 예약합니다.
+     * 새 워크스페이스의 루트 노드처럼 nodeId를 미리 정해서 저장하는 경우, 이후 generateNextNodeId가 upTo+1부터 발급하도록 합니다.
+     *
+     * @param workspaceId 워크스페이스 ID
+     * @param upTo        예약할 마지막 nodeId
+     */
+    public void reserveNodeIds(Long workspaceId, long upTo) {
+        Query query = new Query(Criteria.where("workspaceId").is(workspaceId));
+
+        // 이미 더 큰 값이면 그대로 유지 ($max), 없으면 생성
+        Update update = new Update().max("sequence", upTo);
+
+        mongoTemplate.upsert(query, update, NodeSequence.class);
+        log.debug("Reserved nodeIds up to {} for workspace {}", upTo, workspaceId);
+    }
 }
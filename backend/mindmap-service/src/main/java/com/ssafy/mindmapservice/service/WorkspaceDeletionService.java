@@ -0,0 +1,272 @@
+package com.ssafy.mindmapservice.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryResponse;
+import com.mongodb.client.result.DeleteResult;
+import com.ssafy.mindmapservice.domain.MindmapNode;
+import com.ssafy.mindmapservice.domain.NodeSequence;
+import com.ssafy.mindmapservice.domain.WorkspaceDeletion;
+import com.ssafy.mindmapservice.kafka.AiAnalysisRequestShaper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 삭제된 워크스페이스의 mindmap 데이터를 비동기로 정리합니다. (workspace.deleted 이벤트)
+ *
+ * 단계: 노드 배치 삭제 → 노드 시퀀스 삭제 → 공개 검색 인덱스(ES) 문서 삭제
+ * - 진행 상황은 workspace_deletions 컬렉션에 기록하고, 완료된 단계는 재시도 시 건너뜀
+ * - 처리 중인 작업은 lease(nextAttemptAt)로 잡아두므로 인스턴스가 여러 개여도 한 곳에서만 처리
+ * - 실패 시 지수 backoff로 max-attempts까지 재시도
+ * - 노드가 참조하던 이미지는 ImageGarbageCollector가 grace-period 후 정리
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkspaceDeletionService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ElasticsearchClient esClient;
+    private final AiAnalysisRequestShaper aiAnalysisRequestShaper;
+
+    @Value("${elasticsearch.public-index-name:public_mindmap_nodes}")
+    private String indexName;
+
+    @Value("${workspace.deletion.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${workspace.deletion.poll-interval:5s}")
+    private Duration pollInterval;
+
+    @Value("${workspace.deletion.lease-timeout:5m}")
+    private Duration leaseTimeout;
+
+    @Value("${workspace.deletion.initial-backoff:10s}")
+    private Duration initialBackoff;
+
+    @Value("${workspace.deletion.max-backoff:30m}")
+    private Duration maxBackoff;
+
+    @Value("${workspace.deletion.max-attempts:10}")
+    private int maxAttempts;
+
+    // 새 삭제 요청이 들어오면 poll-interval을 기다리지 않고 바로 처리
+    private final BlockingQueue<Boolean> wakeups = new LinkedBlockingQueue<>(1);
+    private volatile boolean running = false;
+    private Thread worker;
+
+    /**
+     * 워크스페이스 정리 작업을 등록합니다. 같은 워크스페이스에 대한 중복 이벤트는 무시됩니다.
+     */
+    public void requestDeletion(Long workspaceId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        mongoTemplate.upsert(
+                new Query(Criteria.where("_id").is(workspaceId)),
+                new Update()
+                        .setOnInsert("status", WorkspaceDeletion.Status.PENDING)
+                        .setOnInsert("deletedNodes", 0L)
+                        .setOnInsert("nodesDeleted", false)
+                        .setOnInsert("sequenceDeleted", false)
+                        .setOnInsert("searchIndexDeleted", false)
+                        .setOnInsert("attempts", 0)
+                        .setOnInsert("requestedAt", now)
+                        .setOnInsert("nextAttemptAt", now),
+                WorkspaceDeletion.class);
+
+        // 메모리에만 있는 워크스페이스 상태는 바로 정리
+        aiAnalysisRequestShaper.forgetWorkspace(workspaceId);
+
+        wakeups.offer(Boolean.TRUE);
+        log.info("Workspace deletion requested: workspaceId={}", workspaceId);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "workspace-deletion");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(1000);
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                WorkspaceDeletion job = claimNext();
+                if (job == null) {
+                    wakeups.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                process(job);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Workspace deletion loop error", e);
+            }
+        }
+    }
+
+    /**
+     * 처리 가능한 작업 하나를 lease와 함께 가져옵니다. (lease가 만료된 IN_PROGRESS 작업 포함)
+     */
+    private WorkspaceDeletion claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(Criteria.where("status")
+                .in(WorkspaceDeletion.Status.PENDING, WorkspaceDeletion.Status.IN_PROGRESS)
+                .and("nextAttemptAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+
+        return mongoTemplate.findAndModify(query,
+                new Update()
+                        .set("status", WorkspaceDeletion.Status.IN_PROGRESS)
+                        .set("nextAttemptAt", now.plus(leaseTimeout))
+                        .inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                WorkspaceDeletion.class);
+    }
+
+    private void process(WorkspaceDeletion job) {
+        Long workspaceId = job.getWorkspaceId();
+        try {
+            if (!Boolean.TRUE.equals(job.getNodesDeleted())) {
+                deleteNodes(workspaceId);
+            }
+            if (!Boolean.TRUE.equals(job.getSequenceDeleted())) {
+                mongoTemplate.remove(new Query(Criteria.where("workspaceId").is(workspaceId)), NodeSequence.class);
+                markStep(workspaceId, "sequenceDeleted");
+            }
+            if (!Boolean.TRUE.equals(job.getSearchIndexDeleted())) {
+                deleteSearchDocuments(workspaceId);
+                markStep(workspaceId, "searchIndexDeleted");
+            }
+
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(workspaceId)),
+                    new Update()
+                            .set("status", WorkspaceDeletion.Status.DONE)
+                            .set("completedAt", LocalDateTime.now())
+                            .unset("lastError"),
+                    WorkspaceDeletion.class);
+            log.info("Workspace deletion completed: workspaceId={}, attempts={}", workspaceId, job.getAttempts());
+
+        } catch (Exception e) {
+            scheduleRetry(job, e);
+        }
+    }
+
+    /**
+     * 노드를 batch-size개씩 _id로 삭제합니다. (한 번의 큰 deleteMany로 다른 요청이 밀리지 않도록)
+     */
+    private void deleteNodes(Long workspaceId) {
+        Query idQuery = new Query(Criteria.where("workspaceId").is(workspaceId)).limit(batchSize);
+        idQuery.fields().include("_id");
+
+        while (running) {
+            List<Object> ids = mongoTemplate.find(idQuery, MindmapNode.class).stream()
+                    .map(node -> (Object) node.getId())
+                    .toList();
+            if (ids.isEmpty()) {
+                markStep(workspaceId, "nodesDeleted");
+                return;
+            }
+
+            DeleteResult result = mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), MindmapNode.class);
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(workspaceId)),
+                    new Update()
+                            .inc("deletedNodes", result.getDeletedCount())
+                            // 진행 중이면 lease 연장
+                            .set("nextAttemptAt", LocalDateTime.now().plus(leaseTimeout)),
+                    WorkspaceDeletion.class);
+            log.debug("Deleted node batch: workspaceId={}, count={}", workspaceId, result.getDeletedCount());
+        }
+        throw new IllegalStateException("Workspace deletion interrupted by shutdown");
+    }
+
+    private void deleteSearchDocuments(Long workspaceId) throws IOException {
+        try {
+            DeleteByQueryResponse response = esClient.deleteByQuery(d -> d
+                    .index(indexName)
+                    .query(q -> q.term(t -> t.field("workspaceId").value(workspaceId)))
+                    .conflicts(Conflicts.Proceed)
+                    .ignoreUnavailable(true));
+
+            if (!response.failures().isEmpty()) {
+                throw new IllegalStateException("ES deleteByQuery failures: " + response.failures().size());
+            }
+            log.debug("[ES] deleted documents of workspace {}: {}", workspaceId, response.deleted());
+
+        } catch (ElasticsearchException e) {
+            // 인덱스가 아직 없으면 지울 문서도 없음
+            if (e.status() == 404) {
+                return;
+            }
+            throw e;
+        }
+    }
+
+    private void markStep(Long workspaceId, String step) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(workspaceId)),
+                new Update().set(step, true),
+                WorkspaceDeletion.class);
+    }
+
+    private void scheduleRetry(WorkspaceDeletion job, Exception cause) {
+        Long workspaceId = job.getWorkspaceId();
+        int attempts = job.getAttempts() == null ? 1 : job.getAttempts();
+        String error = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+
+        if (attempts >= maxAttempts) {
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(workspaceId)),
+                    new Update().set("status", WorkspaceDeletion.Status.FAILED).set("lastError", error),
+                    WorkspaceDeletion.class);
+            log.error("Give up workspace deletion after {} attempts: workspaceId={}", attempts, workspaceId, cause);
+            return;
+        }
+
+        // initial-backoff * 2^(attempts-1), 최대 max-backoff
+        long backoffMillis = Math.min(maxBackoff.toMillis(),
+                initialBackoff.toMillis() << Math.min(attempts - 1, 20));
+
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(workspaceId)),
+                new Update()
+                        .set("status", WorkspaceDeletion.Status.PENDING)
+                        .set("lastError", error)
+                        .set("nextAttemptAt", LocalDateTime.now().plus(Duration.ofMillis(backoffMillis))),
+                WorkspaceDeletion.class);
+        log.warn("Workspace deletion failed, retry in {}ms: workspaceId={}, attempts={}",
+                backoffMillis, workspaceId, attempts, cause);
+    }
+}
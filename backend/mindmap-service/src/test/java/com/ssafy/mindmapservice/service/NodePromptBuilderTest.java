@@ -0,0 +1,142 @@
+package com.ssafy.mindmapservice.service;
+
+import com.ssafy.mindmapservice.domain.MindmapNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NodePromptBuilderTest {
+
+    private static final int BUDGET = 6000;
+    private static final int MEMO_MAX = 80;
+
+    private final NodePromptBuilder builder = new NodePromptBuilder(BUDGET, MEMO_MAX);
+
+    @Test
+    void smallWorkspaceKeepsEveryNode() {
+        List<MindmapNode> nodes = workspace(20);
+
+        List<String> rows = builder.selectRows(nodes, "맛집 추천", BUDGET);
+
+        assertEquals(20, rows.size());
+        assertTrue(rows.get(0).startsWith("1|-|"));
+    }
+
+    @Test
+    void largeWorkspaceIsCutToBudgetAndKeepsRootAndRelevantNodes() {
+        List<MindmapNode> nodes = workspace(5000);
+        nodes.add(node(9999L, 500L, "삼겹살 맛집 지도", "동네별 삼겹살 맛집을 지도에 표시"));
+
+        List<String> rows = builder.selectRows(nodes, "삼겹살 맛집 추천 앱", BUDGET);
+
+        int tokens = rows.stream().mapToInt(NodePromptBuilder::estimateTokens).sum();
+        assertTrue(tokens <= BUDGET, "tokens=" + tokens);
+        assertTrue(rows.stream().anyMatch(r -> r.startsWith("1|-|")), "root must be kept");
+        assertTrue(rows.stream().anyMatch(r -> r.startsWith("9999|")), "relevant node must be kept");
+    }
+
+    @Test
+    void rowEscapesSeparatorsAndTruncatesMemo() {
+        MindmapNode n = node(3L, 1L, "a|b", "줄바꿈\n포함" + "가".repeat(200));
+
+        String row = builder.toRow(n);
+
+        assertTrue(row.startsWith("3|1|a/b|줄바꿈 포함"));
+        assertTrue(row.endsWith("…\n"));
+        assertEquals(1, row.chars().filter(c -> c == '\n').count());
+    }
+
+    @Test
+    void rowKeepsQuotesUnescaped() {
+        String row = builder.toRow(node(4L, 1L, "\"인용\" 키워드", "그가 \"좋다\"고 말함"));
+
+        assertEquals("4|1|\"인용\" 키워드|그가 \"좋다\"고 말함\n", row);
+    }
+
+    /**
+     * 같은 100 / 1k / 5k 노드 워크스페이스를 기존 JSON 직렬화와 새 표 형식으로 직렬화해서 크기와 토큰 수를 비교
+     * - 전체 노드 표(정리하기): JSON 대비 글자 수 55% 이하, 토큰 수 80% 이하 (이 fixture는 한글 memo 위주라 토큰 절감폭이 작음)
+     * - 예산 적용 표(아이디어 추가): 노드 수와 관계없이 토큰 예산 이내
+     */
+    @Test
+    void compactTableIsSmallerThanLegacyJsonAndBudgetedTableStaysWithinBudget() {
+        for (int size : new int[]{100, 1_000, 5_000}) {
+            List<MindmapNode> nodes = workspace(size);
+
+            String legacy = legacyJson(nodes);
+            String compact = compactTable(nodes);
+            int legacyTokens = NodePromptBuilder.estimateTokens(legacy);
+            int compactTokens = NodePromptBuilder.estimateTokens(compact);
+
+            assertTrue(compact.length() * 100L <= legacy.length() * 55L,
+                    "nodes=" + size + " compactChars=" + compact.length() + " legacyChars=" + legacy.length());
+            assertTrue(compactTokens * 100L <= legacyTokens * 80L,
+                    "nodes=" + size + " compactTokens=" + compactTokens + " legacyTokens=" + legacyTokens);
+
+            int budgetedTokens = builder.selectRows(nodes, "맛집 추천 앱", BUDGET).stream()
+                    .mapToInt(NodePromptBuilder::estimateTokens)
+                    .sum();
+            assertTrue(budgetedTokens <= BUDGET,
+                    "nodes=" + size + " budgetedTokens=" + budgetedTokens);
+        }
+    }
+
+    // ===== helpers =====
+
+    /** 정리하기 프롬프트에 들어가는 노드 표 (헤더 + 전체 행) */
+    private String compactTable(List<MindmapNode> nodes) {
+        StringBuilder sb = new StringBuilder(NodePromptBuilder.TABLE_HEADER);
+        for (MindmapNode n : nodes) {
+            sb.append(builder.toRow(n));
+        }
+        return sb.toString();
+    }
+
+    /** 기존 buildRestructurePrompt 의 노드 직렬화 방식 */
+    private static String legacyJson(List<MindmapNode> nodes) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < nodes.size(); i++) {
+            MindmapNode n = nodes.get(i);
+            sb.append(String.format("""
+                      {
+                        "nodeId": %d,
+                        "parentId": %s,
+                        "keyword": "%s",
+                        "memo": "%s"
+                      }%s
+                    """,
+                    n.getNodeId(),
+                    n.getParentId() == null ? "null" : n.getParentId(),
+                    n.getKeyword(),
+                    n.getMemo(),
+                    (i < nodes.size() - 1 ? "," : "")));
+        }
+        return sb.toString();
+    }
+
+    private static List<MindmapNode> workspace(int size) {
+        List<MindmapNode> nodes = new ArrayList<>(size + 1);
+        nodes.add(node(1L, null, "서비스 아이디어", "루트 노드"));
+        for (long id = 2; id <= size; id++) {
+            long parentId = Math.max(1, id / 4);
+            nodes.add(node(id, parentId, "키워드 " + id,
+                    "노드 " + id + " 에 대한 설명입니다. 사용자가 작성한 메모는 보통 한두 문장 정도이며 가끔 길게 작성되기도 합니다."));
+        }
+        return nodes;
+    }
+
+    private static MindmapNode node(Long nodeId, Long parentId, String keyword, String memo) {
+        return MindmapNode.builder()
+                .workspaceId(1L)
+                .nodeId(nodeId)
+                .parentId(parentId)
+                .type("text")
+                .keyword(keyword)
+                .memo(memo)
+                .build();
+    }
+}
@@ -201,6 +201,18 @@ class KafkaConsumerService {
    *   nodeCount: 2
    * }
    *
+   * 메시지 형식 예시 (Mongo change stream 변경분 알림):
+   * {
+   *   type: 'DELTA',
+   *   workspaceId: 123,
+   *   version: 1731000000000,
+   *   updated: [10, 11],
+   *   deleted: [7],
+   *   reset: false
+   * }
+   * 클라이언트가 아직 /nodes/changes 변경분 조회를 하지 않으므로 지금은 수신만 하고 건너뜀
+   * (초기 생성 완료 / AI 결과 알림은 위의 message 형식으로 따로 옴)
+   *
    * @param {object} data - Kafka 메시지 데이터
    */
   handleNodeUpdate(data) {
@@ -212,6 +224,18 @@ class KafkaConsumerService {
       return;
     }
 
+    // 변경분(DELTA) 알림: 클라이언트 전달 전까지 건너뜀
+    if (data.type === 'DELTA') {
+      logger.debug('Received node delta from Kafka (not forwarded)', {
+        workspaceId,
+        version: data.version,
+        updatedCount: Array.isArray(data.updated) ? data.updated.length : 0,
+        deletedCount: Array.isArray(data.deleted) ? data.deleted.length : 0,
+        reset: data.reset,
+      });
+      return;
+    }
+
     // 아이디어 추가로 노드가 생성된 경우 (nodes 배열 포함)
     if (message && nodes && Array.isArray(nodes)) {
       logger.info(`Received nodes created message from Kafka`, {
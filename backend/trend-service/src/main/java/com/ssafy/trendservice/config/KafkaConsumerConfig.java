@@ -1,7 +1,10 @@
 package com.ssafy.trendservice.config;
 
 import com.ssafy.trendservice.dto.event.RelationEvent;
+import com.ssafy.trendservice.service.TrendEventDeduplicator;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -10,9 +13,11 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -53,13 +58,38 @@ public class KafkaConsumerConfig {
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, RelationEvent> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, RelationEvent> kafkaListenerContainerFactory(
+            TrendEventDeduplicator deduplicator) {
         ConcurrentKafkaListenerContainerFactory<String, RelationEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
         factory.setBatchListener(true);
         factory.setConcurrency(3); // 3개의 컨슈머 스레드
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // 새로 할당된 파티션은 다른 인스턴스가 처리하던 이벤트가 재전송될 수 있음 → 중복 확인을 Redis로
+        factory.getContainerProperties().setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                if (!partitions.isEmpty()) {
+                    deduplicator.onPartitionsAssigned();
+                }
+            }
+        });
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * 인메모리 트렌드 엔진용 (TrendEngineConsumer)
+     * 인스턴스 전용 그룹이라 offset을 커밋하지 않음 (MANUAL + ack 호출 없음), 위치는 엔진 체크포인트로 관리
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, RelationEvent> trendEngineListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, RelationEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(1);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+}
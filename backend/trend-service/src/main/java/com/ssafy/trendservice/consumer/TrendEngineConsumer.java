@@ -0,0 +1,49 @@
+package com.ssafy.trendservice.consumer;
+
+import com.ssafy.trendservice.dto.event.RelationEvent;
+import com.ssafy.trendservice.service.TrendWindowEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 인메모리 트렌드 엔진용 컨슈머
+ * - 인스턴스마다 고유한 컨슈머 그룹으로 토픽의 모든 파티션을 읽음 (카운트 적재용 그룹과 별개)
+ * - offset은 커밋하지 않고 엔진 체크포인트에 저장, 재시작 시 그 위치로 seek
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrendEngineConsumer implements ConsumerSeekAware {
+
+    private final TrendWindowEngine windowEngine;
+
+    @KafkaListener(
+            id = "trend-engine",
+            topics = "${trend.kafka.topic}",
+            groupId = "${trend.engine.group-id}",
+            containerFactory = "trendEngineListenerContainerFactory",
+            autoStartup = "${trend.engine.enabled:true}"
+    )
+    public void consume(List<ConsumerRecord<String, RelationEvent>> records) {
+        windowEngine.record(records);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.keySet().forEach(partition -> {
+            Long next = windowEngine.nextOffset(partition.partition());
+            if (next != null) {
+                callback.seek(partition.topic(), partition.partition(), next);
+            }
+        });
+        log.info("Trend engine assigned {} partitions", assignments.size());
+    }
+}
@@ -16,7 +16,7 @@ import java.util.List;
 /**
  * Kafka 이벤트 컨슈머
  * - RELATION_ADD, RELATION_VIEW 이벤트 수신
- * - 배치 단위로 처리 후 수동 커밋
+ * - 인메모리 합산 후 Redis에 반영된 poll만 수동 커밋 (Redis 반영 실패 시 커밋하지 않음)
  */
 @Slf4j
 @Component
@@ -40,19 +40,8 @@ public class TrendEventConsumer {
             log.info("Received {} events from partition {} at offset {}",
                     events.size(), partition, offset);
 
-            // 각 이벤트 처리
-            for (RelationEvent event : events) {
-                try {
-                    countService.processEvent(event);
-                } catch (Exception e) {
-                    log.error("Failed to process event: {}", event, e);
-                    // 개별 이벤트 실패는 로깅만 하고 계속 진행
-                }
-            }
-
-            // 수동 커밋
-            acknowledgment.acknowledge();
-            log.debug("Successfully processed and committed {} events", events.size());
+            // 인메모리 합산 → Redis 반영 후 수동 커밋 (TrendCountAccumulator)
+            countService.processEvents(events, acknowledgment);
 
         } catch (Exception e) {
             log.error("Error consuming events", e);
@@ -32,13 +32,14 @@ public class TrendController {
 
     /**
      * 글로벌 트렌드 조회
-     * GET /trend/top?period=7d&limit=20
+     * GET /trend/top?period=1h&limit=20
      */
     @Operation(
             summary = "글로벌 트렌드 상위 키워드 조회",
             description = """
                     전체 사용자/워크스페이스 기준으로 상위 트렌드 키워드를 조회합니다.
-                    - 기간(period)에 따라 7일/30일 집계 결과를 반환합니다.
+                    - 기간(period)에 따라 1시간/24시간/7일/30일 집계 결과를 반환합니다.
+                    - 1시간/24시간은 실시간(인메모리) 집계만 사용합니다.
                     - limit가 null이면 서비스 내부 기본값(예: 5 )이 사용됩니다.
                     """
     )
@@ -68,11 +69,11 @@ public class TrendController {
     @Timed(value = "trend.query.global", description = "Global trend query time")
     public ResponseEntity<TrendResponse> getGlobalTop(
             @Parameter(
-                    description = "집계 기간 (7일/30일)",
+                    description = "집계 기간 (1시간/24시간/7일/30일)",
                     example = "7d"
             )
             @RequestParam(defaultValue = "7d")
-            @Pattern(regexp = "^(7d|30d)$", message = "Period must be either '7d' or '30d'")
+            @Pattern(regexp = "^(1h|24h|7d|30d)$", message = "Period must be one of '1h', '24h', '7d', '30d'")
             String period,
 
             @Parameter(
@@ -0,0 +1,18 @@
+package com.ssafy.trendservice.dto.event;
+
+/**
+ * 인메모리 합산 단위: (이벤트 타입, 분 버킷, parent, child)
+ *
+ * @param epochMinute UTC 기준 epoch minute (epochMillis / 60000)
+ */
+public record EdgeBucketKey(
+        EventType type,
+        long epochMinute,
+        String parentKeyword,
+        String childKeyword
+) {
+    public static EdgeBucketKey of(RelationEvent event) {
+        long ts = event.getTimestamp() > 0 ? event.getTimestamp() : System.currentTimeMillis();
+        return new EdgeBucketKey(event.getType(), ts / 60_000L, event.getParentKeyword(), event.getChildKeyword());
+    }
+}
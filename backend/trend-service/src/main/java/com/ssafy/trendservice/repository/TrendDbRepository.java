@@ -1,5 +1,6 @@
 package com.ssafy.trendservice.repository;
 
+import com.ssafy.trendservice.util.DateUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -7,7 +8,9 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,15 +27,23 @@ public class TrendDbRepository {
 
     private final JdbcTemplate jdbcTemplate;
 
+    private static final String CURSOR_SCORE_WINDOW = "score-window";
+
     // ================== 일별 원본 데이터 UPSERT ==================
 
     /**
-     * trend_edge_daily 테이블에 배치 UPSERT
-     * ON CONFLICT UPDATE로 중복 처리
+     * trend_edge_daily 테이블에 배치 UPSERT하고, 바뀐 만큼만 trend_edge_score에 더합니다.
+     *
+     * Redis 일별 해시는 누적값이므로 기존 행과의 차이(delta)를 DB에서 계산합니다.
+     * - 같은 값을 다시 넣으면 delta가 0 → 재실행해도 스코어가 중복 반영되지 않음
+     * - 카운트는 줄어들지 않음 (Redis 키 유실 시 DB 값 유지)
+     *
+     * @param scoreWindowEnd 현재 스코어 윈도우의 마지막 날 (7일: end-6 ~ end, 30일: end-29 ~ end)
+     *                       이후 날짜의 값은 윈도우가 그 날로 밀릴 때 advanceScoreWindow가 반영
      */
     @Transactional
     public void upsertDailyEdges(LocalDate date, Map<String, Map<String, Long>> addCounts,
-                                 Map<String, Map<String, Long>> viewCounts) {
+                                 Map<String, Map<String, Long>> viewCounts, LocalDate scoreWindowEnd) {
         // 모든 parent-child 조합 수집
         Map<String, Map<String, CountPair>> mergedData = new HashMap<>();
 
@@ -60,17 +71,6 @@ public class TrendDbRepository {
             }
         }
 
-        // 배치 UPSERT
-        String sql = """
-            INSERT INTO trend_edge_daily (d, parent_kw, child_kw, add_cnt, view_cnt)
-            VALUES (?, ?, ?, ?, ?)
-            ON CONFLICT (d, parent_kw, child_kw)
-            DO UPDATE SET
-                add_cnt = EXCLUDED.add_cnt,
-                view_cnt = EXCLUDED.view_cnt,
-                updated_at = CURRENT_TIMESTAMP
-        """;
-
         List<Object[]> batchArgs = mergedData.entrySet().stream()
                 .flatMap(parentEntry ->
                         parentEntry.getValue().entrySet().stream()
@@ -83,10 +83,64 @@ public class TrendDbRepository {
                                 })
                 ).toList();
 
-        if (!batchArgs.isEmpty()) {
-            jdbcTemplate.batchUpdate(sql, batchArgs);
-            log.info("Upserted {} daily edges for date: {}", batchArgs.size(), date);
+        if (batchArgs.isEmpty()) {
+            return;
         }
+
+        // 1. 트랜잭션 범위 임시 테이블에 누적값 적재
+        jdbcTemplate.execute("""
+            CREATE TEMP TABLE IF NOT EXISTS trend_edge_daily_stage (
+                d DATE,
+                parent_kw TEXT,
+                child_kw TEXT,
+                add_cnt BIGINT,
+                view_cnt BIGINT
+            ) ON COMMIT DELETE ROWS
+        """);
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO trend_edge_daily_stage (d, parent_kw, child_kw, add_cnt, view_cnt)
+            VALUES (?, ?, ?, ?, ?)
+        """, batchArgs);
+
+        // 2. 기존 일별 값과의 차이만 스코어에 반영 (윈도우 밖의 날짜는 0)
+        int scored = jdbcTemplate.update("""
+            INSERT INTO trend_edge_score (parent_kw, child_kw, score_7d, score_30d)
+            SELECT parent_kw,
+                   child_kw,
+                   CASE WHEN d >= ? THEN delta ELSE 0 END,
+                   delta
+            FROM (
+                SELECT s.d, s.parent_kw, s.child_kw,
+                       (GREATEST(s.add_cnt, COALESCE(e.add_cnt, 0)) - COALESCE(e.add_cnt, 0)) * 3
+                     + (GREATEST(s.view_cnt, COALESCE(e.view_cnt, 0)) - COALESCE(e.view_cnt, 0)) AS delta
+                FROM trend_edge_daily_stage s
+                LEFT JOIN trend_edge_daily e
+                       ON e.d = s.d AND e.parent_kw = s.parent_kw AND e.child_kw = s.child_kw
+            ) changed
+            WHERE delta <> 0 AND d >= ? AND d <= ?
+            ON CONFLICT (parent_kw, child_kw)
+            DO UPDATE SET
+                score_7d = trend_edge_score.score_7d + EXCLUDED.score_7d,
+                score_30d = trend_edge_score.score_30d + EXCLUDED.score_30d,
+                last_updated_at = CURRENT_TIMESTAMP
+        """, scoreWindowEnd.minusDays(6), scoreWindowEnd.minusDays(29), scoreWindowEnd);
+
+        // 3. 일별 누적값 반영 (바뀐 행만)
+        int upserted = jdbcTemplate.update("""
+            INSERT INTO trend_edge_daily (d, parent_kw, child_kw, add_cnt, view_cnt)
+            SELECT d, parent_kw, child_kw, add_cnt, view_cnt
+            FROM trend_edge_daily_stage
+            ON CONFLICT (d, parent_kw, child_kw)
+            DO UPDATE SET
+                add_cnt = GREATEST(trend_edge_daily.add_cnt, EXCLUDED.add_cnt),
+                view_cnt = GREATEST(trend_edge_daily.view_cnt, EXCLUDED.view_cnt),
+                updated_at = CURRENT_TIMESTAMP
+            WHERE EXCLUDED.add_cnt > trend_edge_daily.add_cnt
+               OR EXCLUDED.view_cnt > trend_edge_daily.view_cnt
+        """);
+
+        log.info("Upserted daily edges for date {}: read={}, changed={}, scoresUpdated={}",
+                date, batchArgs.size(), upserted, scored);
     }
 
     private static class CountPair {
@@ -97,15 +151,73 @@ public class TrendDbRepository {
     // ================== 집계 스코어 계산 및 저장 ==================
 
     /**
-     * 7일/30일 집계 계산 및 trend_edge_score 업데이트
+     * 스코어 윈도우의 마지막 날 (증분 스코어가 어느 날짜 기준인지)
+     *
+     * @return 아직 전체 계산을 한 번도 하지 않았으면 null
+     */
+    public LocalDate getScoreWindowEnd() {
+        String cursor = getLastProcessedCursor(CURSOR_SCORE_WINDOW);
+        return cursor != null ? LocalDate.parse(cursor) : null;
+    }
+
+    /**
+     * 스코어 윈도우를 newEnd까지 하루씩 밉니다.
+     * - 윈도우에 새로 들어오는 날(end): 윈도우 밖이라 반영되지 않았던 일별 값을 더함
+     * - 윈도우에서 빠지는 날(7일: end-7, 30일: end-30): 일별 값을 뺌
+     */
+    @Transactional
+    public void advanceScoreWindow(LocalDate currentEnd, LocalDate newEnd) {
+        String sql = """
+            INSERT INTO trend_edge_score (parent_kw, child_kw, score_7d, score_30d)
+            SELECT
+                parent_kw,
+                child_kw,
+                COALESCE(SUM(CASE WHEN d = ? THEN (add_cnt * 3 + view_cnt)
+                                  WHEN d = ? THEN -(add_cnt * 3 + view_cnt)
+                                  ELSE 0 END), 0),
+                COALESCE(SUM(CASE WHEN d = ? THEN (add_cnt * 3 + view_cnt)
+                                  WHEN d = ? THEN -(add_cnt * 3 + view_cnt)
+                                  ELSE 0 END), 0)
+            FROM trend_edge_daily
+            WHERE d IN (?, ?, ?)
+            GROUP BY parent_kw, child_kw
+            ON CONFLICT (parent_kw, child_kw)
+            DO UPDATE SET
+                score_7d = trend_edge_score.score_7d + EXCLUDED.score_7d,
+                score_30d = trend_edge_score.score_30d + EXCLUDED.score_30d,
+                last_updated_at = CURRENT_TIMESTAMP
+        """;
+
+        for (LocalDate end = currentEnd.plusDays(1); !end.isAfter(newEnd); end = end.plusDays(1)) {
+            LocalDate expired7d = end.minusDays(7);
+            LocalDate expired30d = end.minusDays(30);
+            int updated = jdbcTemplate.update(sql, end, expired7d, end, expired30d, end, expired7d, expired30d);
+            log.info("Advanced score window to {}: {} edges adjusted", end, updated);
+        }
+
+        updateBatchCursor(CURSOR_SCORE_WINDOW, newEnd.toString());
+    }
+
+    /**
+     * 7일/30일 집계 전체 재계산 및 trend_edge_score 업데이트
      * 가중치: add_cnt * 3 + view_cnt * 1
+     *
+     * 평소에는 upsertDailyEdges / advanceScoreWindow가 증분으로 유지하고,
+     * 최초 실행이나 주기적인 보정(reconcile)에서만 호출합니다.
      */
     @Transactional
     public void rebuildAggregatedScores() {
-        LocalDate today = LocalDate.now();
+        LocalDate today = DateUtil.today();
         LocalDate date7d = today.minusDays(6); // 오늘 포함 7일
         LocalDate date30d = today.minusDays(29); // 오늘 포함 30일
 
+        // 윈도우에서 완전히 빠진 edge도 0이 되도록 먼저 초기화
+        jdbcTemplate.update("""
+            UPDATE trend_edge_score
+            SET score_7d = 0, score_30d = 0, last_updated_at = CURRENT_TIMESTAMP
+            WHERE score_7d <> 0 OR score_30d <> 0
+        """);
+
         String sql = """
             INSERT INTO trend_edge_score (parent_kw, child_kw, score_7d, score_30d)
             SELECT
@@ -114,7 +226,7 @@ public class TrendDbRepository {
                 COALESCE(SUM(CASE WHEN d >= ? THEN (add_cnt * 3 + view_cnt) ELSE 0 END), 0) AS score_7d,
                 COALESCE(SUM(CASE WHEN d >= ? THEN (add_cnt * 3 + view_cnt) ELSE 0 END), 0) AS score_30d
             FROM trend_edge_daily
-            WHERE d >= ?
+            WHERE d >= ? AND d <= ?
             GROUP BY parent_kw, child_kw
             ON CONFLICT (parent_kw, child_kw)
             DO UPDATE SET
@@ -123,7 +235,8 @@ public class TrendDbRepository {
                 last_updated_at = CURRENT_TIMESTAMP
         """;
 
-        int updated = jdbcTemplate.update(sql, date7d, date30d, date30d);
+        int updated = jdbcTemplate.update(sql, date7d, date30d, date30d, today);
+        updateBatchCursor(CURSOR_SCORE_WINDOW, today.toString());
         log.info("Rebuilt aggregated scores: {} edges updated", updated);
     }
 
@@ -163,7 +276,7 @@ public class TrendDbRepository {
      * 글로벌 트렌드 조회 (7일 기준)
      */
     public Map<String, Double> getGlobalTrend7d(int limit) {
-        LocalDate today = LocalDate.now();
+        LocalDate today = DateUtil.today();
         LocalDate date7d = today.minusDays(6); // 오늘 포함 7일
 
         String sql = """
@@ -201,7 +314,7 @@ public class TrendDbRepository {
      * 글로벌 트렌드 조회 (30일 기준)
      */
     public Map<String, Double> getGlobalTrend30d(int limit) {
-        LocalDate today = LocalDate.now();
+        LocalDate today = DateUtil.today();
         LocalDate date30d = today.minusDays(29); // 오늘 포함 30일
 
         String sql = """
@@ -231,6 +344,30 @@ public class TrendDbRepository {
     }
 
 
+    /**
+     * 지정한 키워드들이 parent로 쓰였을 때의 자식 수 (since 이후)
+     * 글로벌 트렌드 가중치 계산용, 후보 키워드만 조회
+     */
+    public Map<String, Long> getChildCounts(Collection<String> parentKeywords, LocalDate since) {
+        Map<String, Long> result = new HashMap<>();
+        if (parentKeywords.isEmpty()) {
+            return result;
+        }
+
+        String sql = """
+            SELECT parent_kw, COUNT(DISTINCT child_kw)
+            FROM trend_edge_daily
+            WHERE d >= ? AND parent_kw = ANY(?)
+            GROUP BY parent_kw
+        """;
+
+        jdbcTemplate.query(sql, rs -> {
+            result.put(rs.getString(1), rs.getLong(2));
+        }, since, parentKeywords.toArray(new String[0]));
+
+        return result;
+    }
+
     /**
      * 키워드 검색 (LIKE 검색)
      */
@@ -284,7 +421,8 @@ public class TrendDbRepository {
     // ================== Helpers ==================
 
     private Map<String, Double> queryToMap(String sql, Object... args) {
-        Map<String, Double> result = new HashMap<>();
+        // SQL ORDER BY 순서 유지
+        Map<String, Double> result = new LinkedHashMap<>();
 
         jdbcTemplate.query(sql, rs -> {
             String keyword = rs.getString(1);
@@ -1,19 +1,31 @@
 package com.ssafy.trendservice.repository;
 
+import com.ssafy.trendservice.dto.event.EdgeBucketKey;
+import com.ssafy.trendservice.dto.event.EventType;
 import com.ssafy.trendservice.util.RedisKeyUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.DefaultStringTuple;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
 import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Redis 접근 레포지토리
@@ -28,25 +40,23 @@ public class TrendRedisRepository {
 
     private final StringRedisTemplate redisTemplate;
 
-    // ================== 카운트 증가 ==================
+    private static final long REALTIME_BUCKET_TTL_SECONDS = 7200; // 2시간
+    private static final String BUCKET_INDEX_SINCE_KEY = "meta:bucket-index-since";
 
-    /**
-     * 일별 + 실시간 버킷에 add count 증가
-     */
-    public void incrementAddCount(String parentKw, String childKw, LocalDateTime timestamp, long ttlSeconds) {
-        LocalDate date = timestamp.toLocalDate();
-        LocalDateTime minuteBucket = timestamp.truncatedTo(java.time.temporal.ChronoUnit.MINUTES);
+    // KEYS[1] = ZSET, ARGV = member1, delta1, member2, delta2, ...
+    private static final String ZSET_INCR_IF_EXISTS_SCRIPT = """
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return 0
+            end
+            for i = 1, #ARGV, 2 do
+                redis.call('ZINCRBY', KEYS[1], ARGV[i + 1], ARGV[i])
+            end
+            return 1
+            """;
 
-        // 일별 해시
-        String dailyKey = RedisKeyUtil.dailyAddKey(date, parentKw);
-        redisTemplate.opsForHash().increment(dailyKey, childKw, 1);
-        redisTemplate.expire(dailyKey, Duration.ofSeconds(ttlSeconds));
+    private volatile Long bucketIndexSince;
 
-        // 실시간 버킷
-        String rtKey = RedisKeyUtil.realtimeAddKey(minuteBucket, parentKw);
-        redisTemplate.opsForHash().increment(rtKey, childKw, 1);
-        redisTemplate.expire(rtKey, Duration.ofSeconds(7200)); // 2시간
-    }
+    // ================== 카운트 증가 ==================
 
     /**
      * 일별 + 실시간 버킷에 view count 증가
@@ -58,43 +68,246 @@ public class TrendRedisRepository {
         String dailyKey = RedisKeyUtil.dailyViewKey(date, parentKw);
         redisTemplate.opsForHash().increment(dailyKey, childKw, 1);
         redisTemplate.expire(dailyKey, Duration.ofSeconds(ttlSeconds));
+        registerParent(RedisKeyUtil.dailyViewIndexKey(date), parentKw, ttlSeconds);
 
         String rtKey = RedisKeyUtil.realtimeViewKey(minuteBucket, parentKw);
         redisTemplate.opsForHash().increment(rtKey, childKw, 1);
-        redisTemplate.expire(rtKey, Duration.ofSeconds(7200));
+        redisTemplate.expire(rtKey, Duration.ofSeconds(REALTIME_BUCKET_TTL_SECONDS));
+        registerParent(RedisKeyUtil.realtimeViewIndexKey(minuteBucket), parentKw, REALTIME_BUCKET_TTL_SECONDS);
+    }
+
+    private void registerParent(String indexKey, String parentKw, long ttlSeconds) {
+        redisTemplate.opsForSet().add(indexKey, parentKw);
+        redisTemplate.expire(indexKey, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * (타입, 분 버킷, parent, child) 단위로 합산된 카운트를 일별 / 실시간 해시에 한 번의 파이프라인으로 반영합니다.
+     * EXPIRE는 배치 안에서 키마다 한 번만 보냅니다.
+     * 각 버킷의 parent는 버킷 인덱스 SET에도 등록합니다. (배치 조회가 SCAN 없이 읽도록)
+     *
+     * @param counts           합산된 증가량
+     * @param ttlSeconds       일별 해시 TTL
+     * @param markers          함께 기록할 idempotency 마커 키
+     * @param markerTtlSeconds 마커 TTL
+     */
+    public void incrementBatch(Map<EdgeBucketKey, Long> counts, long ttlSeconds,
+                               Collection<String> markers, long markerTtlSeconds) {
+        Map<String, Map<String, Long>> countsByKey = new HashMap<>();
+        Map<String, Long> ttlByKey = new HashMap<>();
+        Map<String, Set<String>> parentsByIndex = new HashMap<>();
+
+        counts.forEach((edge, delta) -> {
+            boolean add = edge.type() == EventType.RELATION_ADD;
+            if (!add && edge.type() != EventType.RELATION_VIEW) {
+                return;
+            }
+
+            LocalDateTime minuteBucket = LocalDateTime.ofInstant(
+                    Instant.ofEpochSecond(edge.epochMinute() * 60), ZoneOffset.UTC);
+            LocalDate date = minuteBucket.toLocalDate();
+            String parentKw = edge.parentKeyword();
+
+            String dailyKey = add ? RedisKeyUtil.dailyAddKey(date, parentKw) : RedisKeyUtil.dailyViewKey(date, parentKw);
+            String rtKey = add ? RedisKeyUtil.realtimeAddKey(minuteBucket, parentKw) : RedisKeyUtil.realtimeViewKey(minuteBucket, parentKw);
+
+            countsByKey.computeIfAbsent(dailyKey, k -> new HashMap<>()).merge(edge.childKeyword(), delta, Long::sum);
+            countsByKey.computeIfAbsent(rtKey, k -> new HashMap<>()).merge(edge.childKeyword(), delta, Long::sum);
+            ttlByKey.put(dailyKey, ttlSeconds);
+            ttlByKey.put(rtKey, REALTIME_BUCKET_TTL_SECONDS);
+
+            String dailyIndex = add ? RedisKeyUtil.dailyAddIndexKey(date) : RedisKeyUtil.dailyViewIndexKey(date);
+            String rtIndex = add ? RedisKeyUtil.realtimeAddIndexKey(minuteBucket) : RedisKeyUtil.realtimeViewIndexKey(minuteBucket);
+            parentsByIndex.computeIfAbsent(dailyIndex, k -> new HashSet<>()).add(parentKw);
+            parentsByIndex.computeIfAbsent(rtIndex, k -> new HashSet<>()).add(parentKw);
+            ttlByKey.put(dailyIndex, ttlSeconds);
+            ttlByKey.put(rtIndex, REALTIME_BUCKET_TTL_SECONDS);
+        });
+
+        pipelineIncrements(countsByKey, parentsByIndex, ttlByKey, markers, markerTtlSeconds);
+    }
+
+    /**
+     * 카운트 증가, 버킷 인덱스 등록, idempotency 마커 기록을 한 번의 파이프라인으로 보냅니다. (추가 왕복 없음)
+     */
+    private void pipelineIncrements(Map<String, Map<String, Long>> countsByKey,
+                                    Map<String, Set<String>> parentsByIndex,
+                                    Map<String, Long> ttlByKey,
+                                    Collection<String> markers, long markerTtlSeconds) {
+        if (countsByKey.isEmpty() && markers.isEmpty()) {
+            return;
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            countsByKey.forEach((key, childCounts) -> {
+                childCounts.forEach((child, delta) -> conn.hIncrBy(key, child, delta));
+                Long ttl = ttlByKey.get(key);
+                if (ttl != null) {
+                    conn.expire(key, ttl);
+                }
+            });
+            parentsByIndex.forEach((indexKey, parents) -> {
+                conn.sAdd(indexKey, parents.toArray(new String[0]));
+                Long ttl = ttlByKey.get(indexKey);
+                if (ttl != null) {
+                    conn.expire(indexKey, ttl);
+                }
+            });
+            markers.forEach(marker -> conn.setEx(marker, markerTtlSeconds, "1"));
+            return null;
+        });
+
+        log.debug("Pipelined trend increments: keys={}", countsByKey.size());
     }
 
-    // ================== SCAN 기반 배치 처리 ==================
+    // ================== 버킷 인덱스 기반 배치 조회 ==================
 
     /**
-     * 특정 날짜의 일별 키들을 SCAN으로 조회
+     * 특정 날짜의 일별 해시 조회
      * @return Map<parent, Map<child, count>>
      */
-    public Map<String, Map<String, Long>> scanDailyAddKeys(LocalDate date, int scanCount) {
-        String pattern = RedisKeyUtil.dailyAddPattern(date);
-        return scanHashKeys(pattern, scanCount);
+    public Map<String, Map<String, Long>> getDailyAddCounts(LocalDate date, int batchSize) {
+        return readBucket(RedisKeyUtil.dailyAddIndexKey(date),
+                parent -> RedisKeyUtil.dailyAddKey(date, parent),
+                RedisKeyUtil.dailyAddPattern(date),
+                date.atStartOfDay(ZoneOffset.UTC).toInstant(), batchSize);
+    }
+
+    public Map<String, Map<String, Long>> getDailyViewCounts(LocalDate date, int batchSize) {
+        return readBucket(RedisKeyUtil.dailyViewIndexKey(date),
+                parent -> RedisKeyUtil.dailyViewKey(date, parent),
+                RedisKeyUtil.dailyViewPattern(date),
+                date.atStartOfDay(ZoneOffset.UTC).toInstant(), batchSize);
+    }
+
+    /**
+     * 실시간(분) 버킷 조회
+     */
+    public Map<String, Map<String, Long>> getRealtimeAddCounts(LocalDateTime bucket, int batchSize) {
+        return readBucket(RedisKeyUtil.realtimeAddIndexKey(bucket),
+                parent -> RedisKeyUtil.realtimeAddKey(bucket, parent),
+                RedisKeyUtil.realtimeAddPattern(bucket),
+                bucket.toInstant(ZoneOffset.UTC), batchSize);
+    }
+
+    public Map<String, Map<String, Long>> getRealtimeViewCounts(LocalDateTime bucket, int batchSize) {
+        return readBucket(RedisKeyUtil.realtimeViewIndexKey(bucket),
+                parent -> RedisKeyUtil.realtimeViewKey(bucket, parent),
+                RedisKeyUtil.realtimeViewPattern(bucket),
+                bucket.toInstant(ZoneOffset.UTC), batchSize);
+    }
+
+    /**
+     * 지정한 parent들의 일별 해시만 조회 (증분 집계용)
+     */
+    public Map<String, Map<String, Long>> getDailyAddCounts(LocalDate date, Collection<String> parents, int batchSize) {
+        return readHashes(parents, parent -> RedisKeyUtil.dailyAddKey(date, parent), batchSize);
+    }
+
+    public Map<String, Map<String, Long>> getDailyViewCounts(LocalDate date, Collection<String> parents, int batchSize) {
+        return readHashes(parents, parent -> RedisKeyUtil.dailyViewKey(date, parent), batchSize);
+    }
+
+    /**
+     * 해당 분 버킷에 카운트가 기록된 parent 목록 (add + view)
+     *
+     * @return 버킷 인덱스 도입 전 버킷이라 알 수 없으면 empty
+     */
+    public Optional<Set<String>> getRealtimeActiveParents(LocalDateTime bucket) {
+        if (bucket.toInstant(ZoneOffset.UTC).toEpochMilli() < bucketIndexSince()) {
+            return Optional.empty();
+        }
+
+        List<Object> members = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            conn.sMembers(RedisKeyUtil.realtimeAddIndexKey(bucket));
+            conn.sMembers(RedisKeyUtil.realtimeViewIndexKey(bucket));
+            return null;
+        });
+
+        Set<String> parents = new HashSet<>();
+        for (Object set : members) {
+            if (set instanceof Collection<?> values) {
+                values.forEach(value -> parents.add((String) value));
+            }
+        }
+        return Optional.of(parents);
+    }
+
+    /**
+     * 버킷 인덱스 SET의 parent 목록(SMEMBERS)으로 해시 키를 만들고, batchSize개씩 파이프라인 HGETALL로 읽습니다.
+     * 인덱스 도입 전에 쓰기가 시작된 버킷만 기존처럼 SCAN합니다.
+     */
+    private Map<String, Map<String, Long>> readBucket(String indexKey,
+                                                      Function<String, String> hashKeyOf,
+                                                      String legacyPattern,
+                                                      Instant bucketStart,
+                                                      int batchSize) {
+        if (bucketStart.toEpochMilli() < bucketIndexSince()) {
+            return scanHashKeys(legacyPattern, batchSize);
+        }
+
+        Set<String> members = redisTemplate.opsForSet().members(indexKey);
+        if (members == null || members.isEmpty()) {
+            return new HashMap<>();
+        }
+        return readHashes(members, hashKeyOf, batchSize);
     }
 
-    public Map<String, Map<String, Long>> scanDailyViewKeys(LocalDate date, int scanCount) {
-        String pattern = RedisKeyUtil.dailyViewPattern(date);
-        return scanHashKeys(pattern, scanCount);
+    /**
+     * parent별 해시를 batchSize개씩 파이프라인 HGETALL로 읽습니다.
+     */
+    private Map<String, Map<String, Long>> readHashes(Collection<String> parentKeywords,
+                                                      Function<String, String> hashKeyOf,
+                                                      int batchSize) {
+        Map<String, Map<String, Long>> result = new HashMap<>();
+        List<String> parents = new ArrayList<>(parentKeywords);
+        int chunkSize = Math.max(1, batchSize);
+        for (int from = 0; from < parents.size(); from += chunkSize) {
+            List<String> chunk = parents.subList(from, Math.min(from + chunkSize, parents.size()));
+            List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                chunk.forEach(parent -> conn.hGetAll(hashKeyOf.apply(parent)));
+                return null;
+            });
+
+            for (int i = 0; i < chunk.size(); i++) {
+                if (!(hashes.get(i) instanceof Map<?, ?> hash) || hash.isEmpty()) {
+                    continue; // 해시가 먼저 만료된 경우
+                }
+                Map<String, Long> childCounts = new HashMap<>();
+                hash.forEach((child, count) -> childCounts.put((String) child, Long.valueOf((String) count)));
+                result.put(chunk.get(i), childCounts);
+            }
+        }
+
+        return result;
     }
 
     /**
-     * 실시간 버킷 SCAN
+     * 버킷 인덱스 기록을 시작한 시각 (epoch millis)
+     * 처음 배포된 인스턴스가 기록하고, 이 시각 이전에 시작된 버킷은 인덱스가 불완전하므로 SCAN으로 읽습니다.
      */
-    public Map<String, Map<String, Long>> scanRealtimeAddKeys(LocalDateTime bucket, int scanCount) {
-        String pattern = RedisKeyUtil.realtimeAddPattern(bucket);
-        return scanHashKeys(pattern, scanCount);
+    private long bucketIndexSince() {
+        Long since = bucketIndexSince;
+        if (since == null) {
+            since = markSince(BUCKET_INDEX_SINCE_KEY);
+            bucketIndexSince = since;
+        }
+        return since;
     }
 
-    public Map<String, Map<String, Long>> scanRealtimeViewKeys(LocalDateTime bucket, int scanCount) {
-        String pattern = RedisKeyUtil.realtimeViewPattern(bucket);
-        return scanHashKeys(pattern, scanCount);
+    /**
+     * 기능 도입 시각 마커: 처음 호출한 인스턴스의 현재 시각을 기록하고, 이후에는 기록된 값을 반환 (epoch millis)
+     */
+    public long markSince(String key) {
+        redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()));
+        return Long.parseLong(redisTemplate.opsForValue().get(key));
     }
 
     /**
-     * 패턴 매칭 키들을 SCAN하고 각 해시의 내용을 조회
+     * 패턴 매칭 키들을 SCAN하고 각 해시의 내용을 조회 (인덱스 도입 전 버킷용)
      */
     private Map<String, Map<String, Long>> scanHashKeys(String pattern, int scanCount) {
         Map<String, Map<String, Long>> result = new HashMap<>();
@@ -145,10 +358,32 @@ public class TrendRedisRepository {
     }
 
     /**
-     * ZSET 스코어 증가
+     * 여러 ZSET에 델타를 한 번의 파이프라인으로 더합니다. (키마다 스크립트 한 번)
+     * - 이미 있는 ZSET에만 더함: 델타만으로 키를 새로 만들면 TTL 없는 불완전한 캐시가 남음
+     *
+     * @param deltasByKey ZSET 키 → member → 델타
      */
-    public void zsetIncrBy(String key, String member, double delta) {
-        redisTemplate.opsForZSet().incrementScore(key, member, delta);
+    public void zsetIncrByBatch(Map<String, Map<String, Double>> deltasByKey) {
+        if (deltasByKey.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            deltasByKey.forEach((key, deltas) -> {
+                if (deltas.isEmpty()) {
+                    return;
+                }
+                String[] keysAndArgs = new String[1 + deltas.size() * 2];
+                keysAndArgs[0] = key;
+                int i = 1;
+                for (Map.Entry<String, Double> entry : deltas.entrySet()) {
+                    keysAndArgs[i++] = entry.getKey();
+                    keysAndArgs[i++] = Double.toString(entry.getValue());
+                }
+                conn.eval(ZSET_INCR_IF_EXISTS_SCRIPT, ReturnType.INTEGER, 1, keysAndArgs);
+            });
+            return null;
+        });
     }
 
     /**
@@ -159,18 +394,59 @@ public class TrendRedisRepository {
     }
 
     /**
-     * ZSET 전체 삭제 후 재구성
+     * ZSET 재구성 (임시 키에 채운 뒤 RENAME으로 교체)
+     * - RENAME은 원자적이라 조회 쪽은 이전 ZSET 또는 새 ZSET 전체만 보게 됨 (빈 캐시 / 일부만 채워진 캐시 없음)
+     * - TTL은 임시 키에 걸고 RENAME으로 같이 넘어감
      */
     public void zsetRebuild(String key, Map<String, Double> members, long ttlSeconds) {
-        redisTemplate.delete(key);
-        if (!members.isEmpty()) {
-            Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
-            for (Map.Entry<String, Double> entry : members.entrySet()) {
-                tuples.add(ZSetOperations.TypedTuple.of(entry.getKey(), entry.getValue()));
+        if (members.isEmpty()) {
+            redisTemplate.delete(key);
+            return;
+        }
+
+        String tmpKey = key + ":tmp:" + UUID.randomUUID();
+        Set<StringRedisConnection.StringTuple> tuples = new HashSet<>();
+        for (Map.Entry<String, Double> entry : members.entrySet()) {
+            tuples.add(new DefaultStringTuple(
+                    entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getKey(), entry.getValue()));
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            conn.zAdd(tmpKey, tuples);
+            conn.expire(tmpKey, ttlSeconds);
+            conn.rename(tmpKey, key);
+            return null;
+        });
+    }
+
+    /**
+     * 여러 member의 점수를 한 번에 조회 (EXISTS + ZMSCORE 파이프라인)
+     *
+     * @return 키가 없으면 empty, 있으면 member → 점수 (없는 member는 제외)
+     */
+    public Optional<Map<String, Double>> zsetScores(String key, List<String> members) {
+        if (members.isEmpty()) {
+            return zsetExists(key) ? Optional.of(Map.of()) : Optional.empty();
+        }
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            conn.exists(key);
+            conn.zMScore(key, members.toArray(new String[0]));
+            return null;
+        });
+
+        if (!Boolean.TRUE.equals(results.get(0)) || !(results.get(1) instanceof List<?> scores)) {
+            return Optional.empty();
+        }
+        Map<String, Double> result = new HashMap<>();
+        for (int i = 0; i < members.size(); i++) {
+            if (scores.get(i) instanceof Double score) {
+                result.put(members.get(i), score);
             }
-            redisTemplate.opsForZSet().add(key, tuples);
-            redisTemplate.expire(key, Duration.ofSeconds(ttlSeconds));
         }
+        return Optional.of(result);
     }
 
     /**
@@ -181,6 +457,28 @@ public class TrendRedisRepository {
         return size != null && size > 0;
     }
 
+    // ================== 키워드 목록 캐시 ==================
+
+    /**
+     * 줄바꿈으로 이어 붙인 키워드 목록 조회
+     *
+     * @return 캐시가 없으면 empty (빈 목록도 캐시됨)
+     */
+    public Optional<List<String>> getCachedKeywords(String key) {
+        String value = redisTemplate.opsForValue().get(key);
+        if (value == null) {
+            return Optional.empty();
+        }
+        return Optional.of(value.isEmpty() ? List.of() : List.of(value.split("\n")));
+    }
+
+    /**
+     * 키워드 목록을 줄바꿈으로 이어 붙여 TTL과 함께 저장 (빈 목록은 빈 문자열)
+     */
+    public void cacheKeywords(String key, List<String> keywords, long ttlSeconds) {
+        redisTemplate.opsForValue().set(key, String.join("\n", keywords), Duration.ofSeconds(ttlSeconds));
+    }
+
     // ================== 분산 락 ==================
 
     /**
@@ -192,6 +490,52 @@ public class TrendRedisRepository {
         return Boolean.TRUE.equals(acquired);
     }
 
+    /**
+     * 여러 키에 SET NX EX를 한 번의 파이프라인으로 보냅니다.
+     *
+     * @return 키 순서대로, 새로 기록되었으면 true (이미 있었으면 false)
+     */
+    public List<Boolean> setIfAbsentBatch(List<String> keys, long ttlSeconds) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            keys.forEach(key -> conn.set(key, "1", Expiration.seconds(ttlSeconds), SetOption.ifAbsent()));
+            return null;
+        });
+        return results.stream().map(Boolean.TRUE::equals).toList();
+    }
+
+    // ================== 글로벌 트렌드 요약(sketch) ==================
+
+    /**
+     * 인스턴스의 일별 요약 스냅샷 저장 + 날짜별 인덱스 SET에 인스턴스 등록
+     */
+    public void saveSketchSnapshot(LocalDate date, String instanceId, String payload, long ttlSeconds) {
+        String key = RedisKeyUtil.sketchKey(date, instanceId);
+        String indexKey = RedisKeyUtil.sketchIndexKey(date);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            conn.setEx(key, ttlSeconds, payload);
+            conn.sAdd(indexKey, instanceId);
+            conn.expire(indexKey, ttlSeconds);
+            return null;
+        });
+    }
+
+    /**
+     * 해당 날짜에 저장된 모든 인스턴스의 요약 스냅샷
+     */
+    public List<String> getSketchSnapshots(LocalDate date) {
+        Set<String> instances = redisTemplate.opsForSet().members(RedisKeyUtil.sketchIndexKey(date));
+        if (instances == null || instances.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> keys = instances.stream().map(instance -> RedisKeyUtil.sketchKey(date, instance)).toList();
+        List<String> payloads = redisTemplate.opsForValue().multiGet(keys);
+        return payloads == null ? List.of() : payloads.stream().filter(Objects::nonNull).toList();
+    }
+
     /**
      * 분산 락 해제
      */
@@ -202,6 +546,13 @@ public class TrendRedisRepository {
         }
     }
 
+    /**
+     * 락이 아직 잡혀 있는지 (캐시 채우기 대기용)
+     */
+    public boolean isLocked(String lockKey) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(lockKey));
+    }
+
     // ================== 키 삭제 ==================
 
     /**
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
  * 트렌드 집계 스케줄러
  * - Redis → DB 집계
  * - ZSET 캐시 리빌드
+ * - 스코어 보정
  * - 오래된 데이터 정리
  */
 @Slf4j
@@ -47,6 +48,20 @@ public class TrendAggregationScheduler {
         }
     }
 
+    /**
+     * 트렌드 스코어 전체 재계산 (증분 집계 보정)
+     * 매일 새벽 2시 30분 실행
+     */
+    @Scheduled(cron = "${trend.batch.reconcile-cron:0 30 2 * * *}")
+    public void reconcileScores() {
+        try {
+            log.info("Starting scheduled score reconcile...");
+            batchService.reconcileScores();
+        } catch (Exception e) {
+            log.error("Error during scheduled score reconcile", e);
+        }
+    }
+
     /**
      * 오래된 데이터 정리
      * 매일 새벽 2시 실행
@@ -0,0 +1,222 @@
+package com.ssafy.trendservice.service;
+
+import com.ssafy.trendservice.dto.event.EdgeBucketKey;
+import com.ssafy.trendservice.dto.event.EventType;
+import com.ssafy.trendservice.repository.TrendDbRepository;
+import com.ssafy.trendservice.repository.TrendRedisRepository;
+import com.ssafy.trendservice.util.DateUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 글로벌 트렌드 heavy hitter 요약 (Count-Min Sketch + Space-Saving)
+ *
+ * - 적재: TrendCountAccumulator가 Redis에 반영한 카운트를 child 키워드 기준으로 일별 요약에 더함
+ *   (세 컨슈머 스레드의 이벤트는 이미 합산 테이블에서 합쳐진 상태)
+ * - 스냅샷: snapshot-interval마다 바뀐 날짜의 요약을 Redis에 인스턴스별로 저장 (sk:global:{date}:{instance})
+ * - 조회: 윈도우 안 날짜들의 모든 인스턴스 스냅샷을 merge해서 상위 후보를 뽑고,
+ *   후보에 대해서만 DB 글로벌 트렌드와 같은 자식 수 가중치(1 + ln(1 + 자식 수))를 적용
+ *
+ * 메모리 / 스냅샷 크기는 depth x width 카운터 + capacity 후보로 고정입니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GlobalTrendSketch {
+
+    private static final String SKETCH_SINCE_KEY = "meta:sketch-since";
+    private static final int RETAINED_DAYS = 30;
+
+    private final TrendRedisRepository redisRepository;
+    private final TrendDbRepository dbRepository;
+
+    @Value("${trend.sketch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trend.sketch.depth:4}")
+    private int depth;
+
+    @Value("${trend.sketch.width:2048}")
+    private int width;
+
+    @Value("${trend.sketch.capacity:2000}")
+    private int capacity;
+
+    @Value("${trend.sketch.snapshot-interval:30s}")
+    private Duration snapshotInterval;
+
+    // 재시작하면 새 id → 이전 실행의 스냅샷은 TTL까지 그대로 합산됨
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // epochDay(UTC) → 이 인스턴스의 일별 요약 (days 자체로 동기화)
+    private final Map<Long, HeavyHitterSketch> days = new HashMap<>();
+    private final Set<Long> dirtyDays = ConcurrentHashMap.newKeySet();
+
+    private volatile Long sketchSince;
+    private volatile boolean running = false;
+    private Thread snapshotter;
+
+    /**
+     * Redis에 반영된 카운트를 요약에 더합니다. (가중치: add 3, view 1)
+     */
+    public void record(Map<EdgeBucketKey, Long> counts) {
+        if (!enabled || counts.isEmpty()) {
+            return;
+        }
+
+        synchronized (days) {
+            counts.forEach((edge, delta) -> {
+                long weight = edge.type() == EventType.RELATION_ADD ? 3
+                        : edge.type() == EventType.RELATION_VIEW ? 1 : 0;
+                if (weight == 0 || edge.childKeyword() == null || edge.childKeyword().isEmpty()) {
+                    return;
+                }
+                long day = edge.epochMinute() / 1440;
+                days.computeIfAbsent(day, d -> new HeavyHitterSketch(depth, width, capacity))
+                        .add(edge.childKeyword(), weight * delta);
+                dirtyDays.add(day);
+            });
+        }
+    }
+
+    /**
+     * 최근 windowDays일(오늘 포함) 글로벌 TOP
+     *
+     * @return 요약 도입 전 날짜가 윈도우에 포함되면 empty (DB 집계로 대체)
+     */
+    public Optional<Map<String, Double>> globalTop(int windowDays, int limit) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        LocalDate today = DateUtil.today();
+        LocalDate from = today.minusDays(windowDays - 1);
+        if (from.atStartOfDay(DateUtil.ZONE).toInstant().toEpochMilli() < sketchSince()) {
+            return Optional.empty();
+        }
+
+        HeavyHitterSketch merged = new HeavyHitterSketch(depth, width, capacity);
+        for (LocalDate date = from; !date.isAfter(today); date = date.plusDays(1)) {
+            for (String payload : redisRepository.getSketchSnapshots(date)) {
+                try {
+                    merged.merge(HeavyHitterSketch.fromBytes(Base64.getDecoder().decode(payload)));
+                } catch (IllegalArgumentException | UncheckedIOException e) {
+                    // 크기 설정이 다른 인스턴스 / 이전 버전 스냅샷
+                    log.warn("Skipping incompatible sketch snapshot for {}: {}", date, e.getMessage());
+                }
+            }
+        }
+
+        LinkedHashMap<String, Double> base = merged.top(limit);
+        Map<String, Long> childCounts = dbRepository.getChildCounts(base.keySet(), from);
+
+        List<Map.Entry<String, Double>> weighted = new ArrayList<>(base.size());
+        base.forEach((keyword, score) -> weighted.add(
+                Map.entry(keyword, score * (1 + Math.log(1 + childCounts.getOrDefault(keyword, 0L))))));
+        weighted.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        weighted.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return Optional.of(result);
+    }
+
+    /**
+     * 바뀐 날짜의 요약만 Redis에 저장합니다.
+     */
+    public void snapshot() {
+        long today = DateUtil.today().toEpochDay();
+        Map<Long, byte[]> payloads = new HashMap<>();
+
+        synchronized (days) {
+            days.keySet().removeIf(day -> day <= today - RETAINED_DAYS);
+            for (Long day : List.copyOf(dirtyDays)) {
+                dirtyDays.remove(day);
+                HeavyHitterSketch sketch = days.get(day);
+                if (sketch != null && !sketch.isEmpty()) {
+                    payloads.put(day, sketch.toBytes());
+                }
+            }
+        }
+
+        if (payloads.isEmpty()) {
+            return;
+        }
+        sketchSince();
+
+        long ttlSeconds = (RETAINED_DAYS + 1) * 86_400L;
+        payloads.forEach((day, bytes) -> {
+            try {
+                redisRepository.saveSketchSnapshot(LocalDate.ofEpochDay(day), instanceId,
+                        Base64.getEncoder().encodeToString(bytes), ttlSeconds);
+            } catch (Exception e) {
+                log.error("Failed to save sketch snapshot for day {}", LocalDate.ofEpochDay(day), e);
+                dirtyDays.add(day);
+            }
+        });
+        log.debug("Saved sketch snapshots: days={}", payloads.size());
+    }
+
+    private long sketchSince() {
+        Long since = sketchSince;
+        if (since == null) {
+            since = redisRepository.markSince(SKETCH_SINCE_KEY);
+            sketchSince = since;
+        }
+        return since;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        snapshotter = new Thread(this::runLoop, "trend-sketch-snapshot");
+        snapshotter.setDaemon(true);
+        snapshotter.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (snapshotter != null) {
+            snapshotter.interrupt();
+            snapshotter.join(1000);
+        }
+        if (enabled) {
+            snapshot();
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                Thread.sleep(snapshotInterval.toMillis());
+                snapshot();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Sketch snapshot loop error", e);
+            }
+        }
+    }
+}
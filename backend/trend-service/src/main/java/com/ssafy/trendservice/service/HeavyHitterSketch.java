@@ -0,0 +1,270 @@
+package com.ssafy.trendservice.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Count-Min Sketch + Space-Saving 기반 heavy hitter(상위 키워드) 요약
+ *
+ * - Count-Min: depth x width 카운터, 모든 키워드의 빈도를 과대 추정 (메모리 고정)
+ * - Space-Saving: 상위 capacity개 후보와 (count, error) 유지, 가득 차면 최소 후보를 교체
+ *   (후보는 count 기준 최소 힙 → 증가 / 최소 후보 교체가 O(log capacity))
+ * - 추정 점수는 두 값 중 작은 값 (둘 다 과대 추정이므로)
+ * - 같은 크기끼리 merge 가능 (컨슈머 스레드별 / 인스턴스별 요약을 합침)
+ *
+ * 스레드 안전하지 않음: 호출하는 쪽에서 동기화합니다.
+ */
+final class HeavyHitterSketch {
+
+    private static final int SERIAL_VERSION = 1;
+
+    private final int depth;
+    private final int width;
+    private final int capacity;
+    private final long[][] counts;
+
+    // Space-Saving 후보: candidateCounts 기준 최소 힙 (0번이 최소 후보)
+    private final String[] keywords;
+    private final long[] candidateCounts;
+    private final long[] candidateErrors;
+    private final Map<String, Integer> positions; // keyword → 힙 위치
+    private int size;
+
+    HeavyHitterSketch(int depth, int width, int capacity) {
+        this.depth = depth;
+        this.width = width;
+        this.capacity = capacity;
+        this.counts = new long[depth][width];
+        this.keywords = new String[capacity];
+        this.candidateCounts = new long[capacity];
+        this.candidateErrors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    void add(String keyword, long weight) {
+        long hash = fnv1a64(keyword);
+        for (int row = 0; row < depth; row++) {
+            counts[row][bucket(hash, row)] += weight;
+        }
+
+        Integer position = positions.get(keyword);
+        if (position != null) {
+            candidateCounts[position] += weight;
+            siftDown(position);
+            return;
+        }
+        if (size < capacity) {
+            insert(keyword, weight, 0);
+            return;
+        }
+        if (capacity == 0) {
+            return;
+        }
+
+        // Space-Saving: 최소 후보를 새 키워드로 교체 (count = 최소값 + weight, error = 최소값)
+        long min = candidateCounts[0];
+        positions.remove(keywords[0]);
+        set(0, keyword, min + weight, min);
+        siftDown(0);
+    }
+
+    long estimate(String keyword) {
+        long hash = fnv1a64(keyword);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[row][bucket(hash, row)]);
+        }
+        Integer position = positions.get(keyword);
+        return position != null ? Math.min(estimate, candidateCounts[position]) : estimate;
+    }
+
+    /**
+     * other를 이 요약에 합칩니다. (Space-Saving mergeable summary: 한쪽에 없는 후보는 그쪽 최소값으로 보정)
+     */
+    void merge(HeavyHitterSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Sketch dimensions differ");
+        }
+        for (int row = 0; row < depth; row++) {
+            for (int col = 0; col < width; col++) {
+                counts[row][col] += other.counts[row][col];
+            }
+        }
+
+        long thisMin = minCount();
+        long otherMin = other.minCount();
+
+        Set<String> union = new HashSet<>(positions.keySet());
+        union.addAll(other.positions.keySet());
+
+        List<Map.Entry<String, long[]>> merged = new ArrayList<>(union.size());
+        for (String keyword : union) {
+            Integer mine = positions.get(keyword);
+            Integer theirs = other.positions.get(keyword);
+            long count = (mine != null ? candidateCounts[mine] : thisMin)
+                    + (theirs != null ? other.candidateCounts[theirs] : otherMin);
+            long error = (mine != null ? candidateErrors[mine] : thisMin)
+                    + (theirs != null ? other.candidateErrors[theirs] : otherMin);
+            merged.add(Map.entry(keyword, new long[] {count, error}));
+        }
+        merged.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+
+        positions.clear();
+        size = 0;
+        for (Map.Entry<String, long[]> entry : merged.subList(0, Math.min(capacity, merged.size()))) {
+            insert(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+        }
+    }
+
+    /**
+     * 추정 점수 상위 limit개 (내림차순)
+     */
+    LinkedHashMap<String, Double> top(int limit) {
+        List<Map.Entry<String, Long>> scored = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            scored.add(Map.entry(keywords[i], estimate(keywords[i])));
+        }
+        scored.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+
+        LinkedHashMap<String, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : scored.subList(0, Math.min(limit, scored.size()))) {
+            result.put(entry.getKey(), entry.getValue().doubleValue());
+        }
+        return result;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SERIAL_VERSION);
+            out.writeInt(depth);
+            out.writeInt(width);
+            out.writeInt(capacity);
+            for (long[] row : counts) {
+                for (long count : row) {
+                    out.writeLong(count);
+                }
+            }
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeUTF(keywords[i]);
+                out.writeLong(candidateCounts[i]);
+                out.writeLong(candidateErrors[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static HeavyHitterSketch fromBytes(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readInt() != SERIAL_VERSION) {
+                throw new IllegalArgumentException("Unknown sketch version");
+            }
+            HeavyHitterSketch sketch = new HeavyHitterSketch(in.readInt(), in.readInt(), in.readInt());
+            for (long[] row : sketch.counts) {
+                for (int col = 0; col < row.length; col++) {
+                    row[col] = in.readLong();
+                }
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                sketch.insert(in.readUTF(), in.readLong(), in.readLong());
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long minCount() {
+        return size < capacity ? 0 : candidateCounts[0];
+    }
+
+    // ===== 후보 최소 힙 =====
+
+    private void insert(String keyword, long count, long error) {
+        int i = size++;
+        set(i, keyword, count, error);
+        siftUp(i);
+    }
+
+    private void set(int i, String keyword, long count, long error) {
+        keywords[i] = keyword;
+        candidateCounts[i] = count;
+        candidateErrors[i] = error;
+        positions.put(keyword, i);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (candidateCounts[parent] <= candidateCounts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            int right = left + 1;
+            int smallest = i;
+            if (left < size && candidateCounts[left] < candidateCounts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && candidateCounts[right] < candidateCounts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        String keyword = keywords[i];
+        long count = candidateCounts[i];
+        long error = candidateErrors[i];
+        set(i, keywords[j], candidateCounts[j], candidateErrors[j]);
+        set(j, keyword, count, error);
+    }
+
+    private int bucket(long hash, int row) {
+        // 행마다 다른 seed로 섞어서 독립적인 해시처럼 사용
+        long h = hash ^ (0x9E3779B97F4A7C15L * (row + 1));
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) width);
+    }
+
+    private static long fnv1a64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -11,8 +11,14 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 
 /**
@@ -28,6 +34,7 @@ public class TrendBatchService {
 
     private final TrendRedisRepository redisRepository;
     private final TrendDbRepository dbRepository;
+    private final GlobalTrendSketch globalTrendSketch;
 
     @Value("${trend.batch.scan-count}")
     private int scanCount;
@@ -38,14 +45,28 @@ public class TrendBatchService {
     @Value("${trend.redis.ttl.zset-cache}")
     private long zsetCacheTtl;
 
+    @Value("${trend.redis.ttl.realtime-bucket:7200}")
+    private long realtimeBucketTtl;
+
+    // 늦게 flush된 분 버킷을 다시 읽기 위해 커서보다 앞서서 읽는 분 수
+    @Value("${trend.batch.incremental-overlap-minutes:10}")
+    private int overlapMinutes;
+
     private static final String LOCK_AGGREGATION = "aggregate";
     private static final String LOCK_CACHE_REBUILD = "cache-rebuild";
 
+    private static final String CURSOR_DAILY_AGGREGATION = "daily-aggregation";
+    private static final String CURSOR_PARENT_DELTA = "parent-delta";
+    private static final DateTimeFormatter CURSOR_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
     // ================== Redis → DB 집계 ==================
 
     /**
-     * 일별 데이터를 Redis에서 DB로 UPSERT
+     * 일별 데이터를 Redis에서 DB로 UPSERT (증분)
      * 분산 락으로 중복 실행 방지
+     *
+     * 마지막 처리 분(trend_batch_cursor)부터 지금까지의 분 버킷 인덱스로 카운트가 바뀐 (날짜, parent)만 읽고,
+     * DB에서 기존 값과의 차이만 스코어에 반영합니다. 커서가 없거나 실시간 버킷 TTL보다 오래되었으면 8일치 전체를 읽습니다.
      */
     public void aggregateDailyData() {
         String lockKey = RedisKeyUtil.batchLockKey(LOCK_AGGREGATION);
@@ -59,14 +80,22 @@ public class TrendBatchService {
         try {
             log.info("Starting daily data aggregation...");
 
-            // 최근 8일치 데이터 집계 (TTL 범위 내)
-            List<LocalDate> dates = DateUtil.getLastNDays(8);
-
-            for (LocalDate date : dates) {
-                aggregateDateData(date);
+            LocalDate scoreWindowEnd = prepareScoreWindow();
+            LocalDateTime currentBucket = DateUtil.getCurrentMinuteBucket();
+            Map<LocalDate, Set<String>> activeParents = collectActiveParents(currentBucket);
+
+            if (activeParents == null) {
+                // 최근 8일치 데이터 집계 (TTL 범위 내)
+                for (LocalDate date : DateUtil.getLastNDays(8)) {
+                    aggregateDateData(date, scoreWindowEnd);
+                }
+            } else {
+                activeParents.forEach((date, parents) -> aggregateDateData(date, parents, scoreWindowEnd));
             }
 
-            log.info("Daily data aggregation completed");
+            dbRepository.updateBatchCursor(CURSOR_DAILY_AGGREGATION, currentBucket.format(CURSOR_FORMATTER));
+            log.info("Daily data aggregation completed ({})",
+                    activeParents == null ? "full" : "incremental, dates=" + activeParents.size());
 
         } catch (Exception e) {
             log.error("Error during daily aggregation", e);
@@ -76,29 +105,129 @@ public class TrendBatchService {
         }
     }
 
+    /**
+     * 8일치 일별 데이터를 다시 읽고 스코어를 전체 재계산합니다.
+     * 증분 집계에서 놓친 늦은 이벤트(overlap보다 늦게 반영된 분 버킷)와 누적 오차를 보정합니다.
+     */
+    public void reconcileScores() {
+        String lockKey = RedisKeyUtil.batchLockKey(LOCK_AGGREGATION);
+        String lockValue = UUID.randomUUID().toString();
+
+        if (!redisRepository.tryLock(lockKey, lockValue, lockTimeout)) {
+            log.warn("Another aggregation process is running. Skipping reconcile...");
+            return;
+        }
+
+        try {
+            log.info("Starting trend score reconcile...");
+
+            LocalDate scoreWindowEnd = prepareScoreWindow();
+            for (LocalDate date : DateUtil.getLastNDays(8)) {
+                aggregateDateData(date, scoreWindowEnd);
+            }
+            dbRepository.rebuildAggregatedScores();
+
+            log.info("Trend score reconcile completed");
+
+        } catch (Exception e) {
+            log.error("Error during score reconcile", e);
+            throw e;
+        } finally {
+            redisRepository.releaseLock(lockKey, lockValue);
+        }
+    }
+
+    /**
+     * 스코어 윈도우를 오늘로 맞춥니다.
+     * 최초 실행이거나 윈도우 전체가 지나갔으면 전체 재계산, 아니면 지난 날짜만큼 밀기
+     *
+     * @return 현재 스코어 윈도우의 마지막 날
+     */
+    private LocalDate prepareScoreWindow() {
+        LocalDate today = DateUtil.today();
+        LocalDate windowEnd = dbRepository.getScoreWindowEnd();
+
+        if (windowEnd == null || windowEnd.isBefore(today.minusDays(29))) {
+            dbRepository.rebuildAggregatedScores();
+            return today;
+        }
+        if (windowEnd.isBefore(today)) {
+            dbRepository.advanceScoreWindow(windowEnd, today);
+            return today;
+        }
+        return windowEnd;
+    }
+
+    /**
+     * 마지막 처리 분(- overlap)부터 현재 분까지, 카운트가 기록된 (날짜, parent) 목록
+     *
+     * @return 증분으로 처리할 수 없으면 (커서 없음 / 미래 커서, 버킷 만료, 인덱스 도입 전 버킷) null
+     */
+    private Map<LocalDate, Set<String>> collectActiveParents(LocalDateTime currentBucket) {
+        String cursor = dbRepository.getLastProcessedCursor(CURSOR_DAILY_AGGREGATION);
+        if (cursor == null) {
+            return null;
+        }
+
+        // 커서가 현재보다 미래면(다른 타임존 기준으로 기록된 커서) 증분 범위를 믿을 수 없으므로 전체 재집계
+        LocalDateTime from = LocalDateTime.parse(cursor, CURSOR_FORMATTER).minusMinutes(overlapMinutes);
+        if (from.isBefore(currentBucket.minusSeconds(realtimeBucketTtl).plusMinutes(1))
+                || from.isAfter(currentBucket)) {
+            return null;
+        }
+
+        Map<LocalDate, Set<String>> result = new TreeMap<>();
+        for (LocalDateTime bucket = from; !bucket.isAfter(currentBucket); bucket = bucket.plusMinutes(1)) {
+            Optional<Set<String>> parents = redisRepository.getRealtimeActiveParents(bucket);
+            if (parents.isEmpty()) {
+                return null;
+            }
+            if (!parents.get().isEmpty()) {
+                result.computeIfAbsent(bucket.toLocalDate(), d -> new HashSet<>()).addAll(parents.get());
+            }
+        }
+        return result;
+    }
+
     /**
      * 특정 날짜의 데이터 집계
      */
-    private void aggregateDateData(LocalDate date) {
+    private void aggregateDateData(LocalDate date, LocalDate scoreWindowEnd) {
         // Add counts
         Map<String, Map<String, Long>> addCounts =
-                redisRepository.scanDailyAddKeys(date, scanCount);
+                redisRepository.getDailyAddCounts(date, scanCount);
 
         // View counts
         Map<String, Map<String, Long>> viewCounts =
-                redisRepository.scanDailyViewKeys(date, scanCount);
+                redisRepository.getDailyViewCounts(date, scanCount);
 
         if (!addCounts.isEmpty() || !viewCounts.isEmpty()) {
-            dbRepository.upsertDailyEdges(date, addCounts, viewCounts);
+            dbRepository.upsertDailyEdges(date, addCounts, viewCounts, scoreWindowEnd);
             log.info("Aggregated {} add and {} view entries for date: {}",
                     addCounts.size(), viewCounts.size(), date);
         }
     }
 
+    /**
+     * 특정 날짜에서 지정한 parent들만 집계 (add / view 둘 다 읽어야 한쪽이 0으로 덮이지 않음)
+     */
+    private void aggregateDateData(LocalDate date, Set<String> parents, LocalDate scoreWindowEnd) {
+        Map<String, Map<String, Long>> addCounts =
+                redisRepository.getDailyAddCounts(date, parents, scanCount);
+        Map<String, Map<String, Long>> viewCounts =
+                redisRepository.getDailyViewCounts(date, parents, scanCount);
+
+        if (!addCounts.isEmpty() || !viewCounts.isEmpty()) {
+            dbRepository.upsertDailyEdges(date, addCounts, viewCounts, scoreWindowEnd);
+            log.debug("Aggregated {} active parents for date: {}", parents.size(), date);
+        }
+    }
+
     // ================== ZSET 캐시 리빌드 ==================
 
     /**
      * DB 기준 ZSET 캐시 재구성 + 실시간 델타 적용
+     * (trend_edge_score는 aggregateDailyData가 증분으로 유지)
      */
     public void rebuildZsetCache() {
         String lockKey = RedisKeyUtil.batchLockKey(LOCK_CACHE_REBUILD);
@@ -112,14 +241,17 @@ public class TrendBatchService {
         try {
             log.info("Starting ZSET cache rebuild...");
 
-            // 1. DB 기준 스코어 계산
-            dbRepository.rebuildAggregatedScores();
+            // 1. 실시간 델타 합산 (최근 30분 버킷, 메모리에서)
+            LocalDateTime currentBucket = DateUtil.getCurrentMinuteBucket();
+            RealtimeDelta delta = collectRealtimeDelta(currentBucket, parentDeltaFrom(currentBucket));
 
-            // 2. 글로벌 트렌드 ZSET 리빌드
-            rebuildGlobalZsets();
+            // 2. 글로벌 트렌드 ZSET 리빌드 (델타를 더한 상태로 교체)
+            rebuildGlobalZsets(sumByChild(delta.window()));
 
-            // 3. 실시간 델타 적용 (최근 30분 버킷)
-            applyRealtimeDelta();
+            // 3. 부모별 ZSET에 지난 리빌드 이후 델타 적용 (한 번의 파이프라인)
+            applyDeltaToParents(delta.sinceCursor());
+            dbRepository.updateBatchCursor(CURSOR_PARENT_DELTA,
+                    currentBucket.minusMinutes(1).format(CURSOR_FORMATTER));
 
             log.info("ZSET cache rebuild completed");
 
@@ -133,104 +265,118 @@ public class TrendBatchService {
 
     /**
      * 글로벌 트렌드 ZSET 리빌드
+     *
+     * @param globalDelta 최근 30분 실시간 델타 (child → 가중 점수)
      */
-    private void rebuildGlobalZsets() {
+    private void rebuildGlobalZsets(Map<String, Double> globalDelta) {
+        // 요약(sketch)이 윈도우 전체를 가지고 있으면 요약, 아니면 DB 집계
         // 7일 글로벌
-        Map<String, Double> global7d = dbRepository.getGlobalTrend7d(1000);
+        Map<String, Double> global7d = applyDeltaToGlobal(globalTrendSketch.globalTop(7, 1000)
+                .orElseGet(() -> dbRepository.getGlobalTrend7d(1000)), globalDelta);
         String key7d = RedisKeyUtil.zsetGlobalKey("7d");
         redisRepository.zsetRebuild(key7d, global7d, zsetCacheTtl);
         log.info("Rebuilt global 7d ZSET: {} members", global7d.size());
 
         // 30일 글로벌
-        Map<String, Double> global30d = dbRepository.getGlobalTrend30d(1000);
+        Map<String, Double> global30d = applyDeltaToGlobal(globalTrendSketch.globalTop(30, 1000)
+                .orElseGet(() -> dbRepository.getGlobalTrend30d(1000)), globalDelta);
         String key30d = RedisKeyUtil.zsetGlobalKey("30d");
         redisRepository.zsetRebuild(key30d, global30d, zsetCacheTtl);
         log.info("Rebuilt global 30d ZSET: {} members", global30d.size());
     }
 
     /**
-     * 실시간 버킷 데이터를 ZSET에 델타로 적용
-     * 최근 30분의 버킷을 ZINCRBY로 오버레이
+     * 최근 30분 실시간 버킷을 메모리에서 합산
+     * (가중치: add 3, view 1)
+     *
+     * @param parentFrom 부모 ZSET에 더할 첫 버킷 (이전 버킷은 이미 더해졌거나 DB에서 구성됨)
      */
-    private void applyRealtimeDelta() {
-        List<LocalDateTime> recentBuckets = DateUtil.getLastNMinutes(30);
-
-        for (LocalDateTime bucket : recentBuckets) {
-            // Add counts
-            Map<String, Map<String, Long>> addCounts =
-                    redisRepository.scanRealtimeAddKeys(bucket, scanCount);
-
-            // View counts
-            Map<String, Map<String, Long>> viewCounts =
-                    redisRepository.scanRealtimeViewKeys(bucket, scanCount);
+    private RealtimeDelta collectRealtimeDelta(LocalDateTime currentBucket, LocalDateTime parentFrom) {
+        RealtimeDelta delta = new RealtimeDelta(new HashMap<>(), new HashMap<>());
+
+        for (LocalDateTime bucket : DateUtil.getLastNMinutes(30)) {
+            // 진행 중인 분은 다음 리빌드에서 다시 읽으므로 부모 ZSET에는 더하지 않음
+            boolean forParents = !bucket.isBefore(parentFrom) && bucket.isBefore(currentBucket);
+
+            // Add counts (가중치 3)
+            redisRepository.getRealtimeAddCounts(bucket, scanCount).forEach((parent, childCounts) -> {
+                accumulate(delta.window(), parent, childCounts, 3.0);
+                if (forParents) {
+                    accumulate(delta.sinceCursor(), parent, childCounts, 3.0);
+                }
+            });
+
+            // View counts (가중치 1)
+            redisRepository.getRealtimeViewCounts(bucket, scanCount).forEach((parent, childCounts) -> {
+                accumulate(delta.window(), parent, childCounts, 1.0);
+                if (forParents) {
+                    accumulate(delta.sinceCursor(), parent, childCounts, 1.0);
+                }
+            });
+        }
 
-            // 글로벌 ZSET에 델타 적용
-            applyDeltaToGlobal(addCounts, viewCounts);
+        return delta;
+    }
 
-            // 부모별 ZSET에 델타 적용
-            applyDeltaToParents(addCounts, viewCounts);
+    /**
+     * 부모 ZSET에 더할 첫 버킷
+     * - 부모 ZSET은 리빌드마다 재구성하지 않고 조회 시 DB에서 구성되므로, 같은 분을 두 번 더하지 않도록 커서 이후만 더함
+     * - 커서가 없거나 30분보다 오래되었으면 직전 1분만 (나머지는 ZSET TTL 후 DB에서 다시 구성)
+     */
+    private LocalDateTime parentDeltaFrom(LocalDateTime currentBucket) {
+        LocalDateTime fallback = currentBucket.minusMinutes(1);
+        String cursor = dbRepository.getLastProcessedCursor(CURSOR_PARENT_DELTA);
+        if (cursor == null) {
+            return fallback;
         }
-
-        log.info("Applied realtime delta for last 30 minutes");
+        LocalDateTime from = LocalDateTime.parse(cursor, CURSOR_FORMATTER).plusMinutes(1);
+        return from.isBefore(currentBucket.minusMinutes(29)) ? fallback : from;
     }
 
     /**
-     * 글로벌 ZSET에 델타 적용
+     * @param window      최근 30분 전체 (글로벌 리빌드용), parent → child → 가중 델타
+     * @param sinceCursor 부모 ZSET에 아직 더하지 않은 완료된 분만, parent → child → 가중 델타
      */
-    private void applyDeltaToGlobal(Map<String, Map<String, Long>> addCounts,
-                                    Map<String, Map<String, Long>> viewCounts) {
-        String key7d = RedisKeyUtil.zsetGlobalKey("7d");
-        String key30d = RedisKeyUtil.zsetGlobalKey("30d");
+    private record RealtimeDelta(Map<String, Map<String, Double>> window,
+                                 Map<String, Map<String, Double>> sinceCursor) {
+    }
 
-        // Add counts (가중치 3)
-        for (Map<String, Long> childCounts : addCounts.values()) {
-            for (Map.Entry<String, Long> entry : childCounts.entrySet()) {
-                double delta = entry.getValue() * 3.0;
-                redisRepository.zsetIncrBy(key7d, entry.getKey(), delta);
-                redisRepository.zsetIncrBy(key30d, entry.getKey(), delta);
-            }
-        }
+    private void accumulate(Map<String, Map<String, Double>> delta, String parent,
+                            Map<String, Long> childCounts, double weight) {
+        Map<String, Double> children = delta.computeIfAbsent(parent, p -> new HashMap<>());
+        childCounts.forEach((child, count) -> children.merge(child, count * weight, Double::sum));
+    }
 
-        // View counts (가중치 1)
-        for (Map<String, Long> childCounts : viewCounts.values()) {
-            for (Map.Entry<String, Long> entry : childCounts.entrySet()) {
-                double delta = entry.getValue() * 1.0;
-                redisRepository.zsetIncrBy(key7d, entry.getKey(), delta);
-                redisRepository.zsetIncrBy(key30d, entry.getKey(), delta);
-            }
-        }
+    private Map<String, Double> sumByChild(Map<String, Map<String, Double>> parentDelta) {
+        Map<String, Double> global = new HashMap<>();
+        parentDelta.values().forEach(children ->
+                children.forEach((child, score) -> global.merge(child, score, Double::sum)));
+        return global;
     }
 
     /**
-     * 부모별 ZSET에 델타 적용
+     * 글로벌 집계 결과에 델타를 더한 새 맵
      */
-    private void applyDeltaToParents(Map<String, Map<String, Long>> addCounts,
-                                     Map<String, Map<String, Long>> viewCounts) {
-        // Add counts
-        for (Map.Entry<String, Map<String, Long>> parentEntry : addCounts.entrySet()) {
-            String parent = parentEntry.getKey();
-            String key7d = RedisKeyUtil.zsetParentKey(parent, "7d");
-            String key30d = RedisKeyUtil.zsetParentKey(parent, "30d");
-
-            for (Map.Entry<String, Long> childEntry : parentEntry.getValue().entrySet()) {
-                double delta = childEntry.getValue() * 3.0;
-                redisRepository.zsetIncrBy(key7d, childEntry.getKey(), delta);
-                redisRepository.zsetIncrBy(key30d, childEntry.getKey(), delta);
-            }
-        }
+    private Map<String, Double> applyDeltaToGlobal(Map<String, Double> base, Map<String, Double> globalDelta) {
+        Map<String, Double> merged = new HashMap<>(base);
+        globalDelta.forEach((child, delta) -> merged.merge(child, delta, Double::sum));
+        return merged;
+    }
 
-        // View counts
-        for (Map.Entry<String, Map<String, Long>> parentEntry : viewCounts.entrySet()) {
-            String parent = parentEntry.getKey();
-            String key7d = RedisKeyUtil.zsetParentKey(parent, "7d");
-            String key30d = RedisKeyUtil.zsetParentKey(parent, "30d");
-
-            for (Map.Entry<String, Long> childEntry : parentEntry.getValue().entrySet()) {
-                double delta = childEntry.getValue() * 1.0;
-                redisRepository.zsetIncrBy(key7d, childEntry.getKey(), delta);
-                redisRepository.zsetIncrBy(key30d, childEntry.getKey(), delta);
-            }
-        }
+    /**
+     * 부모별 ZSET에 델타 적용
+     * - 7d / 30d 키마다 스크립트 한 번, 전체를 한 번의 파이프라인으로 전송
+     * - 이미 구성된 부모 ZSET에만 더함 (델타만 있는 키를 새로 만들지 않음)
+     */
+    private void applyDeltaToParents(Map<String, Map<String, Double>> parentDelta) {
+        Map<String, Map<String, Double>> deltasByKey = new HashMap<>();
+        parentDelta.forEach((parent, children) -> {
+            deltasByKey.put(RedisKeyUtil.zsetParentKey(parent, "7d"), children);
+            deltasByKey.put(RedisKeyUtil.zsetParentKey(parent, "30d"), children);
+        });
+
+        redisRepository.zsetIncrByBatch(deltasByKey);
+        log.info("Applied realtime delta to parent ZSETs: parents={}", parentDelta.size());
     }
 
     // ================== TTL 관리 ==================
@@ -239,7 +385,7 @@ public class TrendBatchService {
      * 오래된 데이터 정리 (8일 이상 된 일별 키)
      */
     public void cleanupOldData() {
-        LocalDate cutoffDate = LocalDate.now().minusDays(8);
+        LocalDate cutoffDate = DateUtil.today().minusDays(8);
 
         for (int i = 0; i < 30; i++) {
             LocalDate oldDate = cutoffDate.minusDays(i);
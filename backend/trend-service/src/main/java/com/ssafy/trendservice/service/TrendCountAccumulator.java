@@ -0,0 +1,187 @@
+package com.ssafy.trendservice.service;
+
+import com.ssafy.trendservice.dto.event.EdgeBucketKey;
+import com.ssafy.trendservice.dto.event.RelationEvent;
+import com.ssafy.trendservice.repository.TrendRedisRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 트렌드 카운트 인메모리 합산 테이블
+ *
+ * 인기 edge는 같은 증가가 몰리므로, (타입, 분 버킷, parent, child)별로 메모리에서 합산한 뒤
+ * flush-interval-ms 또는 max-entries마다 Redis에 한 번에 반영합니다.
+ * - 컨슈머 스레드들은 ConcurrentHashMap.merge로 키 단위(bin) 원자 합산만 하고 전역 락을 잡지 않음
+ * - flush는 키를 하나씩 remove하면서 가져가므로, flush 도중 들어온 증가는 다음 flush에 반영
+ * - Kafka offset은 해당 poll의 카운트가 Redis에 반영된 뒤에만 커밋 (at-least-once 유지)
+ * - Redis 반영이 실패하면 카운트를 테이블에 되돌리고 ack도 보류
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrendCountAccumulator {
+
+    private final TrendRedisRepository redisRepository;
+    private final GlobalTrendSketch globalTrendSketch;
+
+    @Value("${trend.redis.ttl.daily-hash:691200}")
+    private long dailyHashTtl;
+
+    @Value("${trend.ingest.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${trend.ingest.max-entries:20000}")
+    private int maxEntries;
+
+    @Value("${trend.ingest.dedupe.window-minutes:10}")
+    private int dedupeWindowMinutes;
+
+    private final ConcurrentHashMap<EdgeBucketKey, Long> counts = new ConcurrentHashMap<>();
+
+    // 아직 Redis에 기록되지 않은 idempotency 마커 (기록 성공 후에 제거)
+    private final Set<String> pendingMarkers = ConcurrentHashMap.newKeySet();
+
+    // 아직 Redis에 반영되지 않은 poll들의 ack (도착 순서대로)
+    private final List<Acknowledgment> pendingAcks = new ArrayList<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile boolean running = false;
+    private Thread flusher;
+
+    /**
+     * poll 하나의 이벤트를 합산 테이블에 더합니다.
+     * 테이블이 max-entries를 넘으면 호출한 컨슈머 스레드에서 바로 flush합니다. (Redis 장애 시 자연스러운 backpressure)
+     *
+     * @param events         키워드가 정규화되고 중복이 제거된 이벤트
+     * @param markers        카운트와 함께 Redis에 기록할 idempotency 마커 키
+     * @param acknowledgment 이 poll의 ack (flush 성공 후 호출됨)
+     */
+    public void add(List<RelationEvent> events, List<String> markers, Acknowledgment acknowledgment) {
+        Map<EdgeBucketKey, Long> local = new HashMap<>();
+        for (RelationEvent event : events) {
+            local.merge(EdgeBucketKey.of(event), 1L, Long::sum);
+        }
+        local.forEach((key, delta) -> counts.merge(key, delta, Long::sum));
+        pendingMarkers.addAll(markers);
+
+        // 카운트를 넣은 뒤에 ack를 등록 → flush가 ack를 먼저 가져가고 카운트를 나중에 가져가므로,
+        // 카운트가 반영되지 않은 poll의 ack가 커밋되는 일은 없음
+        synchronized (pendingAcks) {
+            pendingAcks.add(acknowledgment);
+        }
+
+        if (counts.size() >= maxEntries && !flush()) {
+            backoff();
+        }
+    }
+
+    /**
+     * 중복 확인용: 이미 받았지만 아직 Redis에 기록되지 않은 마커인지
+     */
+    public boolean hasPendingMarker(String marker) {
+        return pendingMarkers.contains(marker);
+    }
+
+    /**
+     * 합산 테이블을 Redis에 반영하고, 반영된 poll들의 offset을 커밋합니다.
+     *
+     * @return 성공(또는 반영할 것이 없음)이면 true
+     */
+    public boolean flush() {
+        flushLock.lock();
+        try {
+            List<Acknowledgment> acks;
+            synchronized (pendingAcks) {
+                acks = new ArrayList<>(pendingAcks);
+                pendingAcks.clear();
+            }
+
+            Map<EdgeBucketKey, Long> drained = new HashMap<>();
+            for (EdgeBucketKey key : counts.keySet()) {
+                Long delta = counts.remove(key);
+                if (delta != null) {
+                    drained.put(key, delta);
+                }
+            }
+
+            List<String> markers = new ArrayList<>(pendingMarkers);
+
+            if (drained.isEmpty() && acks.isEmpty() && markers.isEmpty()) {
+                return true;
+            }
+
+            try {
+                redisRepository.incrementBatch(drained, dailyHashTtl, markers, (dedupeWindowMinutes + 5L) * 60);
+            } catch (Exception e) {
+                log.error("Failed to flush trend counts to Redis: edges={}", drained.size(), e);
+                drained.forEach((key, delta) -> counts.merge(key, delta, Long::sum));
+                synchronized (pendingAcks) {
+                    pendingAcks.addAll(0, acks);
+                }
+                return false;
+            }
+
+            markers.forEach(pendingMarkers::remove);
+            globalTrendSketch.record(drained);
+            acks.forEach(Acknowledgment::acknowledge);
+            log.debug("Flushed trend counts: edges={}, polls={}", drained.size(), acks.size());
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        flusher = new Thread(this::runLoop, "trend-count-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher.join(1000);
+        }
+        // 종료 전 남은 카운트 반영 (실패하면 ack되지 않은 offset부터 재처리됨)
+        flush();
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMs);
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Trend count flush loop error", e);
+            }
+        }
+    }
+
+    private void backoff() {
+        try {
+            Thread.sleep(Math.max(flushIntervalMs, 1000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
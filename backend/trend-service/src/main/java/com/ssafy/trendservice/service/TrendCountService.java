@@ -1,16 +1,13 @@
 package com.ssafy.trendservice.service;
 
-import com.ssafy.trendservice.dto.event.EventType;
 import com.ssafy.trendservice.dto.event.RelationEvent;
-import com.ssafy.trendservice.repository.TrendRedisRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 트렌드 카운트 적재 서비스
@@ -21,39 +18,33 @@ import java.time.ZoneOffset;
 @RequiredArgsConstructor
 public class TrendCountService {
 
-    private final TrendRedisRepository redisRepository;
-
-    @Value("${trend.redis.ttl.daily-hash:691200}")
-    private long dailyHashTtl;
+    private final TrendCountAccumulator countAccumulator;
+    private final TrendEventDeduplicator deduplicator;
 
     /**
-     * Kafka 이벤트 처리 및 Redis 카운트 증가
+     * Kafka poll 단위 이벤트 묶음 처리
+     * 키워드를 정규화하고 idempotencyKey로 중복을 제거한 뒤 인메모리 합산 테이블에 넣고, ack는 Redis에 반영된 뒤 TrendCountAccumulator가 호출합니다.
      */
-    public void processEvent(RelationEvent event) {
-        try {
-            String parentKw = sanitizeKeyword(event.getParentKeyword());
-            String childKw  = sanitizeKeyword(event.getChildKeyword());
-
-            // long -> LocalDateTime (UTC 변환)
-            long ts = event.getTimestamp() > 0 ? event.getTimestamp() : System.currentTimeMillis();
-            LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(ts), ZoneOffset.UTC);
-
-            if (event.getType() == EventType.RELATION_ADD) {
-                redisRepository.incrementAddCount(parentKw, childKw, timestamp, dailyHashTtl);
-                log.debug("Incremented ADD count: parent={}, child={}, ts={}", parentKw, childKw, timestamp);
-
-            } else if (event.getType() == EventType.RELATION_VIEW) {
-                redisRepository.incrementViewCount(parentKw, childKw, timestamp, dailyHashTtl);
-                log.debug("Incremented VIEW count: parent={}, child={}, ts={}", parentKw, childKw, timestamp);
-
-            } else {
-                log.debug("Unknown event type received: {}", event.getType());
+    public void processEvents(List<RelationEvent> events, Acknowledgment acknowledgment) {
+        List<RelationEvent> normalized = new ArrayList<>(events.size());
+        for (RelationEvent event : events) {
+            if (event == null || event.getType() == null) {
+                log.debug("Skipping event without type: {}", event);
+                continue;
             }
-
-        } catch (Exception e) {
-            log.error("Error processing event: {}", event, e);
-            throw e;
+            normalized.add(RelationEvent.builder()
+                    .type(event.getType())
+                    .timestamp(event.getTimestamp())
+                    .workspaceId(event.getWorkspaceId())
+                    .parentKeyword(sanitizeKeyword(event.getParentKeyword()))
+                    .childKeyword(sanitizeKeyword(event.getChildKeyword()))
+                    .idempotencyKey(event.getIdempotencyKey())
+                    .build());
         }
+
+        TrendEventDeduplicator.Result deduped = deduplicator.filter(normalized);
+        countAccumulator.add(deduped.accepted(), deduped.markers(), acknowledgment);
+        log.debug("Accumulated counts for {} events (received {})", deduped.accepted().size(), events.size());
     }
 
     /**
@@ -0,0 +1,224 @@
+package com.ssafy.trendservice.service;
+
+import com.ssafy.trendservice.dto.event.RelationEvent;
+import com.ssafy.trendservice.repository.TrendRedisRepository;
+import com.ssafy.trendservice.util.RedisKeyUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * idempotencyKey 기반 중복 이벤트 제거
+ *
+ * mindmap-service는 (workspace, parent, child, type, 분)마다 같은 idempotencyKey를 붙이므로
+ * Kafka 재전송 / producer retry로 같은 키가 다시 오면 카운트하지 않습니다.
+ *
+ * 1. 분 단위 Bloom filter (window-minutes개 회전): 음성이면 확실히 처음 본 키 → 통과
+ * 2. 양성(중복 또는 오탐)이면 Redis SET NX로 정확히 확인 → poll당 최대 한 번의 파이프라인
+ * 3. 통과한 키의 Redis 마커는 카운트 flush 파이프라인에 함께 실려서 추가 왕복이 없음
+ *    (flush 전까지는 TrendCountAccumulator의 미반영 마커로 확인)
+ *
+ * 파티션이 새로 할당되면 다른 인스턴스가 처리했던 이벤트가 재전송될 수 있으므로,
+ * 할당 시점 이전에 발생한 이벤트는 Bloom filter 결과와 관계없이 Redis로 확인합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrendEventDeduplicator {
+
+    private final TrendRedisRepository redisRepository;
+    private final TrendCountAccumulator countAccumulator;
+
+    @Value("${trend.ingest.dedupe.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trend.ingest.dedupe.window-minutes:10}")
+    private int windowMinutes;
+
+    @Value("${trend.ingest.dedupe.expected-keys-per-minute:100000}")
+    private int expectedKeysPerMinute;
+
+    @Value("${trend.ingest.dedupe.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // 프로듀서/컨슈머 시계 차이 여유
+    private static final long CLOCK_SKEW_MILLIS = 60_000L;
+
+    // epochMinute → 해당 분의 키 Bloom filter
+    private final ConcurrentHashMap<Long, BloomFilter> filters = new ConcurrentHashMap<>();
+
+    // 이 시각 이후에 발생한 이벤트만 Bloom filter 음성을 신뢰
+    private volatile long trustedSinceMillis = System.currentTimeMillis();
+
+    /**
+     * @param accepted 카운트할 이벤트
+     * @param markers  flush 시 Redis에 기록할 idempotency 마커 키
+     */
+    public record Result(List<RelationEvent> accepted, List<String> markers) {
+    }
+
+    public Result filter(List<RelationEvent> events) {
+        if (!enabled) {
+            return new Result(events, List.of());
+        }
+
+        long now = System.currentTimeMillis();
+        long currentMinute = now / 60_000L;
+        evictExpired(currentMinute);
+
+        List<RelationEvent> accepted = new ArrayList<>(events.size());
+        List<String> markers = new ArrayList<>();
+        List<RelationEvent> suspects = new ArrayList<>();
+        Set<String> seenInPoll = new HashSet<>();
+        int duplicates = 0;
+
+        for (RelationEvent event : events) {
+            String key = event.getIdempotencyKey();
+            if (key == null || key.isBlank()) {
+                accepted.add(event);
+                continue;
+            }
+            if (!seenInPoll.add(key)) {
+                // 같은 poll 안의 중복
+                duplicates++;
+                continue;
+            }
+
+            long ts = event.getTimestamp() > 0 ? event.getTimestamp() : now;
+            long minute = ts / 60_000L;
+            boolean trusted = ts >= trustedSinceMillis - CLOCK_SKEW_MILLIS
+                    && minute > currentMinute - windowMinutes;
+
+            BloomFilter filter = trusted ? filterFor(minute) : null;
+            if (filter != null && filter.putIfAbsent(key)) {
+                accepted.add(event);
+                markers.add(RedisKeyUtil.idempotencyKey(key));
+            } else {
+                suspects.add(event);
+            }
+        }
+
+        // 아직 flush되지 않은 마커와 겹치면 Redis에 물어볼 필요 없이 중복
+        List<RelationEvent> unresolved = new ArrayList<>(suspects.size());
+        for (RelationEvent event : suspects) {
+            if (countAccumulator.hasPendingMarker(RedisKeyUtil.idempotencyKey(event.getIdempotencyKey()))) {
+                duplicates++;
+            } else {
+                unresolved.add(event);
+            }
+        }
+
+        if (!unresolved.isEmpty()) {
+            List<String> keys = unresolved.stream()
+                    .map(e -> RedisKeyUtil.idempotencyKey(e.getIdempotencyKey()))
+                    .toList();
+            List<Boolean> firstSeen = redisRepository.setIfAbsentBatch(keys, markerTtlSeconds());
+
+            for (int i = 0; i < unresolved.size(); i++) {
+                RelationEvent event = unresolved.get(i);
+                if (Boolean.TRUE.equals(firstSeen.get(i))) {
+                    accepted.add(event);
+                    long minute = event.getTimestamp() / 60_000L;
+                    if (minute > currentMinute - windowMinutes) {
+                        filterFor(minute).putIfAbsent(event.getIdempotencyKey());
+                    }
+                } else {
+                    duplicates++;
+                }
+            }
+        }
+        if (duplicates > 0) {
+            log.debug("Dropped duplicate trend events: {}", duplicates);
+        }
+
+        return new Result(accepted, markers);
+    }
+
+    /**
+     * 파티션이 새로 할당되면 호출 (그 이전 이벤트는 Redis로 확인)
+     */
+    public void onPartitionsAssigned() {
+        trustedSinceMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Redis 마커 TTL: Bloom filter window보다 길게 (TrendCountAccumulator와 같은 값)
+     */
+    private long markerTtlSeconds() {
+        return (windowMinutes + 5L) * 60;
+    }
+
+    private BloomFilter filterFor(long minute) {
+        return filters.computeIfAbsent(minute, m -> new BloomFilter(expectedKeysPerMinute, falsePositiveRate));
+    }
+
+    private void evictExpired(long currentMinute) {
+        filters.keySet().removeIf(minute -> minute <= currentMinute - windowMinutes);
+    }
+
+    /**
+     * 고정 크기 Bloom filter (AtomicLongArray 기반, 락 없음)
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitSize;
+        private final int hashCount;
+
+        BloomFilter(int expectedInsertions, double fpp) {
+            long m = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.bitSize = Math.max(64, m);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((bitSize + 63) / 64));
+        }
+
+        /**
+         * @return 처음 추가되었으면 true (이미 있었을 "수도" 있으면 false)
+         */
+        boolean putIfAbsent(String key) {
+            long hash = fnv1a64(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+
+            boolean added = false;
+            for (int i = 1; i <= hashCount; i++) {
+                int combined = h1 + i * h2;
+                long index = (combined & Integer.MAX_VALUE) % bitSize;
+                if (setBit(index)) {
+                    added = true;
+                }
+            }
+            return added;
+        }
+
+        private boolean setBit(long index) {
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            while (true) {
+                long current = bits.get(word);
+                if ((current & mask) != 0) {
+                    return false;
+                }
+                if (bits.compareAndSet(word, current, current | mask)) {
+                    return true;
+                }
+            }
+        }
+
+        private static long fnv1a64(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.ssafy.trendservice.dto.response.TrendItem;
 import com.ssafy.trendservice.dto.response.TrendResponse;
 import com.ssafy.trendservice.repository.TrendDbRepository;
 import com.ssafy.trendservice.repository.TrendRedisRepository;
+import com.ssafy.trendservice.util.DateUtil;
 import com.ssafy.trendservice.util.RedisKeyUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,15 +12,17 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * 트렌드 조회 서비스
  * - ZSET 캐시 우선 조회
- * - 캐시 미스 시 DB 조회 후 캐시 구성
+ * - 캐시 미스 시 DB 조회 후 캐시 구성 (요청 하나만 DB 조회, single-flight)
  */
 @Slf4j
 @Service
@@ -29,7 +32,13 @@ public class TrendQueryService {
     private final TrendRedisRepository redisRepository;
     private final TrendDbRepository dbRepository;
     private final PublicNodeSearchService publicNodeSearchService;
+    private final TrendWindowEngine windowEngine;
+    private final GlobalTrendSketch globalTrendSketch;
     private static final int MIN_TREND_COUNT = 5;
+    private static final int CACHE_SIZE = 1000;
+    private static final long CACHE_FILL_POLL_MILLIS = 50;
+    // 점수가 없는 부모의 ZSET을 비워두지 않기 위한 member (자식 키워드는 빈 문자열이 될 수 없음)
+    private static final String EMPTY_ZSET_MEMBER = "";
 
     @Value("${trend.query.default-limit}")
     private int defaultLimit;
@@ -40,28 +49,36 @@ public class TrendQueryService {
     @Value("${trend.redis.ttl.zset-cache}")
     private long zsetCacheTtl;
 
+    @Value("${trend.redis.ttl.public-children:300}")
+    private long publicChildrenTtl;
+
+    @Value("${trend.query.cache-fill.lock-timeout:30}")
+    private long cacheFillLockTimeout;
+
+    @Value("${trend.query.cache-fill.wait:2s}")
+    private Duration cacheFillWait;
+
     // ================== 글로벌 트렌드 조회 ==================
 
     /**
      * 글로벌 TOP 트렌드 조회
+     * - 1h / 24h: 인메모리 엔진 (아직 윈도우가 덜 채워졌어도 있는 만큼 반환)
+     * - 7d / 30d: 엔진이 윈도우 전체를 가지고 있으면 엔진, 아니면 ZSET 캐시 → DB
      */
     public TrendResponse getGlobalTop(String period, Integer limit) {
         int actualLimit = validateLimit(limit);
-        String key = RedisKeyUtil.zsetGlobalKey(period);
+        boolean shortWindow = "1h".equals(period) || "24h".equals(period);
 
         List<TrendItem> items;
+        Optional<LinkedHashMap<String, Double>> engineResult =
+                windowEngine.globalTop(period, actualLimit, !shortWindow);
 
-        // 1. 캐시 조회
-        if (redisRepository.zsetExists(key)) {
-            items = queryFromZset(key, actualLimit);
+        if (engineResult.isPresent()) {
+            items = convertMapToItems(engineResult.get());
+        } else if (shortWindow) {
+            items = List.of();
         } else {
-            // 2. 캐시 미스: DB 조회 후 캐시 구성
-            Map<String, Double> dbResults = "7d".equals(period)
-                    ? dbRepository.getGlobalTrend7d(actualLimit)
-                    : dbRepository.getGlobalTrend30d(actualLimit);
-
-            redisRepository.zsetRebuild(key, dbResults, zsetCacheTtl);
-            items = convertMapToItems(dbResults);
+            items = queryGlobalFromCache(period, actualLimit);
         }
 
         // 🔥 최소 5개는 보장 (부족하면 랜덤 키워드 추가)
@@ -70,13 +87,82 @@ public class TrendQueryService {
         return buildResponse(period, null, items);
     }
 
+    private List<TrendItem> queryGlobalFromCache(String period, int actualLimit) {
+        String key = RedisKeyUtil.zsetGlobalKey(period);
+
+        // 1. 캐시 조회
+        if (redisRepository.zsetExists(key)) {
+            return queryFromZset(key, actualLimit);
+        }
+
+        // 2. 캐시 미스: 요약(sketch) 또는 DB 조회 후 캐시 구성 (배치와 같은 크기로 채움)
+        Optional<Map<String, Double>> loaded = fillCache(key, () ->
+                globalTrendSketch.globalTop("7d".equals(period) ? 7 : 30, CACHE_SIZE)
+                        .orElseGet(() -> "7d".equals(period)
+                                ? dbRepository.getGlobalTrend7d(CACHE_SIZE)
+                                : dbRepository.getGlobalTrend30d(CACHE_SIZE)));
+
+        // CACHE_SIZE개 중 상위 actualLimit개 (원본 Map의 순서에 기대지 않고 점수로 다시 정렬)
+        return loaded.map(results -> convertMapToItems(results.entrySet().stream()
+                        .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                        .limit(actualLimit)
+                        .collect(LinkedHashMap::new, (m, e) -> m.put(e.getKey(), e.getValue()), Map::putAll)))
+                .orElseGet(() -> queryFromZset(key, actualLimit));
+    }
+
+    /**
+     * 캐시 미스 시 원본(DB / 요약) 조회를 한 요청으로 모읍니다. (single-flight)
+     * - 락을 잡은 요청만 loader를 호출하고 ZSET을 채움
+     * - 나머지는 최대 cache-fill.wait 동안 캐시가 채워지길 기다렸다가 ZSET에서 읽음
+     * - 기다려도 안 채워지면(결과가 비었거나 채우는 쪽 실패) 직접 읽되 캐시는 건드리지 않음
+     *
+     * @return 이 요청이 직접 읽은 결과, 캐시가 채워졌으면 empty
+     */
+    private Optional<Map<String, Double>> fillCache(String key, Supplier<Map<String, Double>> loader) {
+        String lockKey = RedisKeyUtil.cacheFillLockKey(key);
+        String lockValue = UUID.randomUUID().toString();
+
+        if (redisRepository.tryLock(lockKey, lockValue, cacheFillLockTimeout)) {
+            try {
+                // 락을 기다리는 사이 다른 요청(또는 배치)이 채웠을 수 있음
+                if (redisRepository.zsetExists(key)) {
+                    return Optional.empty();
+                }
+                Map<String, Double> results = loader.get();
+                redisRepository.zsetRebuild(key, results, zsetCacheTtl);
+                return Optional.of(results);
+            } finally {
+                redisRepository.releaseLock(lockKey, lockValue);
+            }
+        }
+
+        long deadline = System.nanoTime() + cacheFillWait.toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(CACHE_FILL_POLL_MILLIS);
+                if (redisRepository.zsetExists(key)) {
+                    return Optional.empty();
+                }
+                if (!redisRepository.isLocked(lockKey)) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.debug("Cache fill for {} not ready, loading directly", key);
+        return Optional.of(loader.get());
+    }
+
 
     // ================== 부모별 트렌드 조회 ==================
 
     /**
      * 부모 키워드의 자식 트렌드 조회
-     * - 1) Mindmap Public /children 으로 "실제 존재하는 자식 키워드 목록" 가져오고
-     * - 2) Trend DB의 점수를 child 기준으로 붙여서
+     * - 1) Mindmap Public 자식 중 TEXT 키워드 목록 (ES 조회 결과를 캐시)
+     * - 2) 부모 ZSET(z:parent:{parent}:{period})에서 그 자식들의 점수만 조회
+     *      (미스면 요청 하나만 DB에서 읽어 ZSET 구성, 이후 배치가 실시간 델타를 더함)
      * - 3) 점수 없으면 0점으로 채우고, 내림차순 정렬해서 반환
      */
     public TrendResponse getParentTrend(String parentKeyword, String period, Integer limit) {
@@ -87,47 +173,24 @@ public class TrendQueryService {
 
         String normalizedParent = sanitizeKeyword(parentKeyword);
 
-        // 🔥 1. ES에서 parentKeyword 기준 자식 키워드들 조회
-        List<PublicNodeSearchService.ChildNode> childNodes =
-                publicNodeSearchService.searchChildrenByParent(parentKeyword, 500);
-
-        // 📌 여기서 먼저 TEXT 타입만 필터링
-        List<PublicNodeSearchService.ChildNode> textChildNodes = childNodes.stream()
-                .filter(c -> "text".equalsIgnoreCase(c.type()))   // <-- 중요
-                .toList();
-
-        if (textChildNodes.isEmpty()) {
-            log.info("No public TEXT children found for parentKeyword='{}'", parentKeyword);
-            return buildResponse(period, normalizedParent, List.of());
-        }
-
-        // 🔥 2. 자식 키워드만 뽑아서 중복 제거
-        List<String> publicChildKeywords = textChildNodes.stream()
-                .map(PublicNodeSearchService.ChildNode::keyword)
-                .filter(Objects::nonNull)
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .distinct()
-                .toList();
+        // 🔥 1. public TEXT 자식 키워드 (중복 제거)
+        List<String> publicChildKeywords = getPublicChildKeywords(parentKeyword);
 
         if (publicChildKeywords.isEmpty()) {
-            log.info("Public TEXT children exist but all childKeyword blank for parent='{}'", parentKeyword);
+            log.info("No public TEXT children found for parentKeyword='{}'", parentKeyword);
             return buildResponse(period, normalizedParent, List.of());
         }
 
-        // 3. DB에서 부모 기준 점수 맵 가져오기 (key = child_kw, value = Double)
-        Map<String, Double> dbScores =
-                "7d".equals(period)
-                        ? dbRepository.getParentTrend7d(normalizedParent, 1000)
-                        : dbRepository.getParentTrend30d(normalizedParent, 1000);
+        // 2. 부모 ZSET에서 public 자식들의 점수 (key = child_kw, value = Double)
+        Map<String, Double> scores = getParentScores(normalizedParent, period, publicChildKeywords);
 
-        // 4. public 자식 기준으로 점수 붙이기 (없으면 0점)
+        // 3. public 자식 기준으로 점수 붙이기 (없으면 0점)
         AtomicInteger rankCounter = new AtomicInteger(1);
 
         List<TrendItem> merged = publicChildKeywords.stream()
                 .map(child -> {
                     String normalizedChild = sanitizeKeyword(child);
-                    double scoreDouble = dbScores.getOrDefault(normalizedChild, 0.0);
+                    double scoreDouble = scores.getOrDefault(normalizedChild, 0.0);
                     long score = (long) scoreDouble;
 
                     return TrendItem.builder()
@@ -146,7 +209,56 @@ public class TrendQueryService {
         return buildResponse(period, normalizedParent, merged);
     }
 
+    /**
+     * 부모 키워드의 public TEXT 자식 키워드 목록
+     * - 캐시 미스 시 ES에서 최대 500개 조회, TEXT 타입만 남기고 중복 제거 후 TTL 동안 캐시 (빈 목록 포함)
+     */
+    private List<String> getPublicChildKeywords(String parentKeyword) {
+        String key = RedisKeyUtil.publicChildrenKey(parentKeyword.trim());
+
+        Optional<List<String>> cached = redisRepository.getCachedKeywords(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        List<String> publicChildKeywords = publicNodeSearchService.searchChildrenByParent(parentKeyword, 500).stream()
+                .filter(c -> "text".equalsIgnoreCase(c.type()))   // <-- 중요
+                .map(PublicNodeSearchService.ChildNode::keyword)
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(s -> !s.isEmpty() && s.indexOf('\n') < 0)
+                .distinct()
+                .toList();
+
+        redisRepository.cacheKeywords(key, publicChildKeywords, publicChildrenTtl);
+        return publicChildKeywords;
+    }
+
+    /**
+     * 부모 ZSET에서 자식들의 점수 조회
+     * - 미스면 fillCache로 요청 하나만 DB 상위 CACHE_SIZE개를 읽어 ZSET 구성
+     * - 점수가 하나도 없는 부모는 빈 member 하나로 구성해서 매번 DB로 가지 않게 함
+     */
+    private Map<String, Double> getParentScores(String normalizedParent, String period, List<String> children) {
+        String key = RedisKeyUtil.zsetParentKey(normalizedParent, period);
+        List<String> members = children.stream()
+                .map(this::sanitizeKeyword)
+                .distinct()
+                .toList();
 
+        Optional<Map<String, Double>> cached = redisRepository.zsetScores(key, members);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        return fillCache(key, () -> {
+            Map<String, Double> dbScores = "7d".equals(period)
+                    ? dbRepository.getParentTrend7d(normalizedParent, CACHE_SIZE)
+                    : dbRepository.getParentTrend30d(normalizedParent, CACHE_SIZE);
+            return dbScores.isEmpty() ? Map.of(EMPTY_ZSET_MEMBER, 0.0) : dbScores;
+        }).or(() -> redisRepository.zsetScores(key, members))
+                .orElseGet(Map::of);
+    }
 
 
     // ================== 키워드 검색 ==================
@@ -186,7 +298,7 @@ public class TrendQueryService {
                 double scoreDouble = entry.getValue() != null ? entry.getValue() : 0.0;
                 long score = (long) scoreDouble;
 
-                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime now = DateUtil.now();
                 long ttl = 86400L * 7;
                 redisRepository.incrementViewCount(
                         "__view__",
@@ -206,7 +318,7 @@ public class TrendQueryService {
         }
 
         if (!merged.isEmpty()) {
-            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime now = DateUtil.now();
             long ttl = 86400L * 7;
 
             for (String k : merged.keySet()) {
@@ -0,0 +1,801 @@
+package com.ssafy.trendservice.service;
+
+import com.ssafy.trendservice.dto.event.EventType;
+import com.ssafy.trendservice.dto.event.RelationEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 인메모리 슬라이딩 윈도우 트렌드 엔진
+ *
+ * edge(parent → child)마다 분(60) / 시간(24) / 일(30) 링 버퍼를 primitive 배열로 유지하고,
+ * 1h / 24h / 7d / 30d 윈도우 합계를 증분으로 갱신해서 글로벌 TOP을 메모리에서 바로 계산합니다.
+ * - 키워드와 edge는 정수 id로 intern (edge 수는 max-edges로 제한)
+ * - 30일 윈도우에서 완전히 빠진 edge와 더 이상 참조되지 않는 키워드는 일 경계에서 회수해 id를 재사용
+ * - 시간이 지나면 빠지는 슬롯만큼 윈도우 합계에서 빼고 슬롯을 비움
+ * - 1h는 분, 24h는 시간, 7d/30d는 일 단위 정밀도
+ * - 인스턴스마다 전용 컨슈머 그룹으로 토픽 전체를 읽으므로 (TrendEngineConsumer) 인스턴스 하나가 전체 트렌드를 가짐
+ * - 주기적으로 디스크에 체크포인트(카운트 + 파티션별 offset)를 남기고, 재시작 시 복원 후 그 offset부터 다시 읽음
+ *   (checkpoint-path는 재시작 후에도 남는 볼륨이어야 함, 없으면 토픽 처음부터 다시 읽고 7d / 30d 커버리지도 처음부터 채움)
+ */
+@Slf4j
+@Component
+public class TrendWindowEngine {
+
+    private static final int MINUTE_SLOTS = 60;
+    private static final int HOUR_SLOTS = 24;
+    private static final int DAY_SLOTS = 30;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int MINUTES_PER_DAY = 1440;
+
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int TOP_CACHE_SIZE = 100;
+
+    @Value("${trend.engine.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trend.engine.max-edges:50000}")
+    private int maxEdges;
+
+    @Value("${trend.engine.checkpoint-path:/var/lib/trend-service/trend-engine.snapshot}")
+    private Path checkpointPath;
+
+    @Value("${trend.engine.checkpoint-interval:1m}")
+    private Duration checkpointInterval;
+
+    @Value("${trend.engine.top-cache-ttl:1s}")
+    private Duration topCacheTtl;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 키워드 사전 (parent / child 공용)
+    private final Map<String, Integer> keywordIds = new HashMap<>();
+    private final List<String> keywords = new ArrayList<>();
+    // 키워드를 참조하는 edge 수 (0이 되면 회수)
+    private int[] keywordRefs = new int[0];
+    private final ArrayDeque<Integer> freeKeywords = new ArrayDeque<>();
+
+    // edge: (parentId << 32 | childId) → edgeId
+    private final Map<Long, Integer> edgeIds = new HashMap<>();
+    private int edgeCount = 0;
+    private int[] edgeParent = new int[0];
+    private int[] edgeChild = new int[0];
+    // 회수된 edge id (edgeParent/edgeChild = -1, 슬롯은 모두 0)
+    private final ArrayDeque<Integer> freeEdges = new ArrayDeque<>();
+
+    // 링 버퍼 [slot][edgeId], 슬롯 = 단위 시각 % 슬롯 수
+    private int[][] minuteSlots = new int[MINUTE_SLOTS][0];
+    private int[][] hourSlots = new int[HOUR_SLOTS][0];
+    private int[][] daySlots = new int[DAY_SLOTS][0];
+
+    // 윈도우별 edge 합계
+    private long[] sum1h = new long[0];
+    private long[] sum24h = new long[0];
+    private long[] sum7d = new long[0];
+    private long[] sum30d = new long[0];
+
+    // 가장 최근 슬롯의 epoch minute (UTC), 쓰기는 write lock 안에서만 (computeTop이 락 없이 먼저 비교)
+    private volatile long currentMinute = -1;
+    // 이 분부터는 빠짐없이 집계됨 (윈도우가 이보다 앞서 시작하면 불완전)
+    private long coverageStartMinute = -1;
+    // 파티션 → 다음에 읽을 offset
+    private final Map<Integer, Long> nextOffsets = new HashMap<>();
+
+    private boolean capacityWarned = false;
+
+    private final Map<String, CachedTop> topCache = new ConcurrentHashMap<>();
+
+    private Clock clock = Clock.systemUTC();
+
+    private volatile boolean running = false;
+    private Thread checkpointer;
+
+    private record CachedTop(long computedAt, boolean covered, LinkedHashMap<String, Double> scores) {
+    }
+
+    // ================== 적재 ==================
+
+    /**
+     * Kafka poll 하나의 이벤트를 반영합니다. (가중치: add 3, view 1)
+     */
+    public void record(List<ConsumerRecord<String, RelationEvent>> records) {
+        if (!enabled || records.isEmpty()) {
+            return;
+        }
+
+        long nowMinute = clock.millis() / 60_000L;
+        lock.writeLock().lock();
+        try {
+            advanceTo(nowMinute);
+
+            for (ConsumerRecord<String, RelationEvent> record : records) {
+                nextOffsets.put(record.partition(), record.offset() + 1);
+
+                RelationEvent event = record.value();
+                if (event == null || event.getType() == null) {
+                    continue;
+                }
+                int weight = event.getType() == EventType.RELATION_ADD ? 3
+                        : event.getType() == EventType.RELATION_VIEW ? 1 : 0;
+                if (weight == 0) {
+                    continue;
+                }
+
+                int edge = edgeId(sanitizeKeyword(event.getParentKeyword()), sanitizeKeyword(event.getChildKeyword()));
+                if (edge < 0) {
+                    continue;
+                }
+
+                long eventMinute = event.getTimestamp() > 0 ? event.getTimestamp() / 60_000L : nowMinute;
+                add(edge, Math.min(eventMinute, currentMinute), weight);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return 체크포인트에서 복원한 파티션의 다음 offset (없으면 null → 컨슈머 기본 위치부터)
+     */
+    public Long nextOffset(int partition) {
+        lock.readLock().lock();
+        try {
+            return nextOffsets.get(partition);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(int edge, long minute, int weight) {
+        if (minute > currentMinute - MINUTE_SLOTS) {
+            minuteSlots[slot(minute, MINUTE_SLOTS)][edge] += weight;
+            sum1h[edge] += weight;
+        }
+
+        long hour = minute / MINUTES_PER_HOUR;
+        if (hour > currentMinute / MINUTES_PER_HOUR - HOUR_SLOTS) {
+            hourSlots[slot(hour, HOUR_SLOTS)][edge] += weight;
+            sum24h[edge] += weight;
+        }
+
+        long day = minute / MINUTES_PER_DAY;
+        long currentDay = currentMinute / MINUTES_PER_DAY;
+        if (day > currentDay - DAY_SLOTS) {
+            daySlots[slot(day, DAY_SLOTS)][edge] += weight;
+            sum30d[edge] += weight;
+            if (day > currentDay - 7) {
+                sum7d[edge] += weight;
+            }
+        }
+    }
+
+    /**
+     * 현재 분을 앞으로 옮기면서 윈도우에서 빠지는 슬롯을 합계에서 빼고 비웁니다. (write lock 필요)
+     */
+    private void advanceTo(long minute) {
+        if (currentMinute < 0) {
+            currentMinute = minute;
+            return;
+        }
+        if (minute <= currentMinute) {
+            return;
+        }
+
+        long fromDay = currentMinute / MINUTES_PER_DAY;
+        long toDay = minute / MINUTES_PER_DAY;
+
+        rotate(minuteSlots, sum1h, currentMinute, minute);
+        rotate(hourSlots, sum24h, currentMinute / MINUTES_PER_HOUR, minute / MINUTES_PER_HOUR);
+        // 7일 윈도우는 일 슬롯을 공유하므로 슬롯을 비우기 전에 먼저 뺌
+        expireWeek(fromDay, toDay);
+        rotate(daySlots, sum30d, fromDay, toDay);
+
+        currentMinute = minute;
+        if (toDay > fromDay) {
+            reclaimIdleEdges();
+        }
+    }
+
+    /**
+     * fromUnit → toUnit으로 이동: 새 단위 u의 슬롯에는 (u - 슬롯 수) 시점 값이 남아 있으므로 합계에서 빼고 비움
+     */
+    private void rotate(int[][] slots, long[] sum, long fromUnit, long toUnit) {
+        if (toUnit - fromUnit >= slots.length) {
+            for (int[] slot : slots) {
+                Arrays.fill(slot, 0);
+            }
+            Arrays.fill(sum, 0);
+            return;
+        }
+        for (long unit = fromUnit + 1; unit <= toUnit; unit++) {
+            int[] slot = slots[slot(unit, slots.length)];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                sum[edge] -= slot[edge];
+                slot[edge] = 0;
+            }
+        }
+    }
+
+    private void expireWeek(long fromDay, long toDay) {
+        if (toDay - fromDay >= 7) {
+            Arrays.fill(sum7d, 0);
+            return;
+        }
+        for (long day = fromDay + 1; day <= toDay; day++) {
+            int[] slot = daySlots[slot(day - 7, DAY_SLOTS)];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                sum7d[edge] -= slot[edge];
+            }
+        }
+    }
+
+    private static int slot(long unit, int slots) {
+        return (int) Math.floorMod(unit, (long) slots);
+    }
+
+    // ================== 조회 ==================
+
+    /**
+     * 글로벌 TOP 키워드 (child 기준 합산)
+     *
+     * DB 글로벌 트렌드와 같은 식: child 점수 합 * (1 + ln(1 + 그 키워드가 parent일 때 자식 수))
+     *
+     * @param period          1h / 24h / 7d / 30d
+     * @param requireCoverage true면 윈도우 전체가 집계된 경우에만 결과 반환
+     * @return 점수 내림차순, 엔진이 꺼져 있거나 윈도우가 덜 채워졌으면 empty
+     */
+    public Optional<LinkedHashMap<String, Double>> globalTop(String period, int limit, boolean requireCoverage) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        long now = clock.millis();
+        CachedTop cached = topCache.get(period);
+        if (cached == null || now - cached.computedAt() > topCacheTtl.toMillis()) {
+            cached = computeTop(period, now);
+            topCache.put(period, cached);
+        }
+
+        if (requireCoverage && !cached.covered()) {
+            return Optional.empty();
+        }
+
+        LinkedHashMap<String, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> entry : cached.scores().entrySet()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return Optional.of(result);
+    }
+
+    private CachedTop computeTop(String period, long now) {
+        long nowMinute = now / 60_000L;
+        if (currentMinute < nowMinute) {
+            // 이벤트가 없던 동안 지난 슬롯을 정리 (advanceTo가 write lock 안에서 다시 비교)
+            lock.writeLock().lock();
+            try {
+                advanceTo(nowMinute);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] sums;
+            long windowStartMinute;
+            switch (period) {
+                case "1h" -> {
+                    sums = sum1h;
+                    windowStartMinute = currentMinute - MINUTE_SLOTS + 1;
+                }
+                case "24h" -> {
+                    sums = sum24h;
+                    windowStartMinute = (currentMinute / MINUTES_PER_HOUR - HOUR_SLOTS + 1) * MINUTES_PER_HOUR;
+                }
+                case "7d" -> {
+                    sums = sum7d;
+                    windowStartMinute = (currentMinute / MINUTES_PER_DAY - 6) * MINUTES_PER_DAY;
+                }
+                case "30d" -> {
+                    sums = sum30d;
+                    windowStartMinute = (currentMinute / MINUTES_PER_DAY - DAY_SLOTS + 1) * MINUTES_PER_DAY;
+                }
+                default -> throw new IllegalArgumentException("Unsupported period: " + period);
+            }
+
+            int keywordCount = keywords.size();
+            double[] childScore = new double[keywordCount];
+            int[] childCount = new int[keywordCount];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                long sum = sums[edge];
+                if (sum > 0) {
+                    childScore[edgeChild[edge]] += sum;
+                    childCount[edgeParent[edge]]++;
+                }
+            }
+
+            // 점수 상위 TOP_CACHE_SIZE개만 최소 힙으로 유지
+            PriorityQueue<double[]> heap = new PriorityQueue<>((a, b) -> Double.compare(a[1], b[1]));
+            for (int kw = 0; kw < keywordCount; kw++) {
+                if (childScore[kw] <= 0) {
+                    continue;
+                }
+                double score = childScore[kw] * (1 + Math.log(1 + childCount[kw]));
+                if (heap.size() < TOP_CACHE_SIZE) {
+                    heap.offer(new double[] {kw, score});
+                } else if (score > heap.peek()[1]) {
+                    heap.poll();
+                    heap.offer(new double[] {kw, score});
+                }
+            }
+
+            List<double[]> ordered = new ArrayList<>(heap);
+            ordered.sort((a, b) -> Double.compare(b[1], a[1]));
+
+            LinkedHashMap<String, Double> scores = new LinkedHashMap<>();
+            for (double[] entry : ordered) {
+                scores.put(keywords.get((int) entry[0]), entry[1]);
+            }
+
+            boolean covered = coverageStartMinute >= 0 && coverageStartMinute <= windowStartMinute;
+            return new CachedTop(now, covered, scores);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================== intern ==================
+
+    /**
+     * @return edge id, max-edges를 넘으면 -1 (write lock 필요)
+     */
+    private int edgeId(String parentKw, String childKw) {
+        if (parentKw.isEmpty() || childKw.isEmpty()) {
+            return -1;
+        }
+        Integer parent = keywordIds.get(parentKw);
+        Integer child = keywordIds.get(childKw);
+        if (parent != null && child != null) {
+            Integer existing = edgeIds.get(edgeKey(parent, child));
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        int edge;
+        if (!freeEdges.isEmpty()) {
+            edge = freeEdges.pop();
+        } else if (edgeCount < maxEdges) {
+            edge = edgeCount++;
+            ensureCapacity(edgeCount);
+        } else {
+            if (!capacityWarned) {
+                log.warn("Trend engine reached max-edges={}, new edges are ignored until idle edges are reclaimed", maxEdges);
+                capacityWarned = true;
+            }
+            return -1;
+        }
+
+        // 버려지는 edge 때문에 키워드가 쌓이지 않도록 edge를 확보한 뒤에 intern
+        int parentId = retainKeyword(parentKw);
+        int childId = retainKeyword(childKw);
+        edgeParent[edge] = parentId;
+        edgeChild[edge] = childId;
+        edgeIds.put(edgeKey(parentId, childId), edge);
+        return edge;
+    }
+
+    private static long edgeKey(int parent, int child) {
+        return ((long) parent << 32) | (child & 0xffffffffL);
+    }
+
+    private int retainKeyword(String keyword) {
+        Integer id = keywordIds.get(keyword);
+        if (id == null) {
+            if (!freeKeywords.isEmpty()) {
+                id = freeKeywords.pop();
+                keywords.set(id, keyword);
+            } else {
+                id = keywords.size();
+                keywords.add(keyword);
+                if (id >= keywordRefs.length) {
+                    keywordRefs = Arrays.copyOf(keywordRefs, Math.max(1024, keywordRefs.length * 2));
+                }
+            }
+            keywordIds.put(keyword, id);
+        }
+        keywordRefs[id]++;
+        return id;
+    }
+
+    private void releaseKeyword(int id) {
+        if (--keywordRefs[id] == 0) {
+            keywordIds.remove(keywords.get(id));
+            keywords.set(id, null);
+            freeKeywords.push(id);
+        }
+    }
+
+    /**
+     * 30일 합계가 0인 edge를 회수합니다. (write lock 필요)
+     *
+     * 분/시간 슬롯은 일 슬롯보다 먼저 만료되므로 30일 합계가 0이면 모든 슬롯이 비어 있음
+     */
+    private void reclaimIdleEdges() {
+        int reclaimed = 0;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (edgeParent[edge] < 0 || sum30d[edge] != 0) {
+                continue;
+            }
+            edgeIds.remove(edgeKey(edgeParent[edge], edgeChild[edge]));
+            releaseKeyword(edgeParent[edge]);
+            releaseKeyword(edgeChild[edge]);
+            edgeParent[edge] = -1;
+            edgeChild[edge] = -1;
+            freeEdges.push(edge);
+            reclaimed++;
+        }
+        if (reclaimed > 0) {
+            capacityWarned = false;
+            log.debug("Trend engine reclaimed {} idle edges (live={})", reclaimed, edgeIds.size());
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= edgeParent.length) {
+            return;
+        }
+        int capacity = Math.min(maxEdges, Math.max(required, Math.max(1024, edgeParent.length * 2)));
+
+        edgeParent = Arrays.copyOf(edgeParent, capacity);
+        edgeChild = Arrays.copyOf(edgeChild, capacity);
+        grow(minuteSlots, capacity);
+        grow(hourSlots, capacity);
+        grow(daySlots, capacity);
+        sum1h = Arrays.copyOf(sum1h, capacity);
+        sum24h = Arrays.copyOf(sum24h, capacity);
+        sum7d = Arrays.copyOf(sum7d, capacity);
+        sum30d = Arrays.copyOf(sum30d, capacity);
+    }
+
+    private static void grow(int[][] slots, int capacity) {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = Arrays.copyOf(slots[i], capacity);
+        }
+    }
+
+    // ================== 체크포인트 ==================
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        long nowMinute = clock.millis() / 60_000L;
+        lock.writeLock().lock();
+        try {
+            if (!restore()) {
+                coverageStartMinute = nowMinute;
+            }
+            advanceTo(nowMinute);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        running = true;
+        checkpointer = new Thread(this::runLoop, "trend-engine-checkpoint");
+        checkpointer.setDaemon(true);
+        checkpointer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        if (checkpointer != null) {
+            checkpointer.interrupt();
+            checkpointer.join(1000);
+        }
+        checkpoint();
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                Thread.sleep(checkpointInterval.toMillis());
+                checkpoint();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Trend engine checkpoint loop error", e);
+            }
+        }
+    }
+
+    /**
+     * 현재 상태를 임시 파일에 쓰고 교체합니다. (쓰는 동안 적재를 막지 않도록 read lock에서 복사만 함)
+     *
+     * 회수된 edge와 키워드는 빼고 id를 앞으로 당겨서(compact) 씀
+     */
+    public void checkpoint() {
+        int edges;
+        long minute;
+        long coverage;
+        Map<Integer, Long> offsets;
+        List<String> keywordSnapshot;
+        int[] parents;
+        int[] children;
+        int[][] minutes;
+        int[][] hours;
+        int[][] days;
+
+        lock.readLock().lock();
+        try {
+            if (currentMinute < 0) {
+                return;
+            }
+            minute = currentMinute;
+            coverage = coverageStartMinute;
+            offsets = new HashMap<>(nextOffsets);
+
+            int[] liveEdges = new int[edgeCount];
+            int[] keywordRemap = new int[keywords.size()];
+            Arrays.fill(keywordRemap, -1);
+            keywordSnapshot = new ArrayList<>();
+            parents = new int[edgeCount];
+            children = new int[edgeCount];
+            edges = 0;
+            for (int edge = 0; edge < edgeCount; edge++) {
+                if (edgeParent[edge] < 0) {
+                    continue;
+                }
+                liveEdges[edges] = edge;
+                parents[edges] = remapKeyword(edgeParent[edge], keywordRemap, keywordSnapshot);
+                children[edges] = remapKeyword(edgeChild[edge], keywordRemap, keywordSnapshot);
+                edges++;
+            }
+            minutes = copySlots(minuteSlots, liveEdges, edges);
+            hours = copySlots(hourSlots, liveEdges, edges);
+            days = copySlots(daySlots, liveEdges, edges);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Path tmp = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        try {
+            if (checkpointPath.getParent() != null) {
+                Files.createDirectories(checkpointPath.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(minute);
+                out.writeLong(coverage);
+
+                out.writeInt(offsets.size());
+                for (Map.Entry<Integer, Long> entry : offsets.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+
+                out.writeInt(keywordSnapshot.size());
+                for (String keyword : keywordSnapshot) {
+                    out.writeUTF(keyword);
+                }
+
+                out.writeInt(edges);
+                for (int edge = 0; edge < edges; edge++) {
+                    out.writeInt(parents[edge]);
+                    out.writeInt(children[edge]);
+                }
+                writeSlots(out, minutes, edges);
+                writeSlots(out, hours, edges);
+                writeSlots(out, days, edges);
+            }
+            Files.move(tmp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Trend engine checkpoint written: edges={}, minute={}", edges, minute);
+        } catch (IOException e) {
+            log.error("Failed to write trend engine checkpoint: {}", checkpointPath, e);
+        }
+    }
+
+    private int remapKeyword(int id, int[] remap, List<String> snapshot) {
+        if (remap[id] < 0) {
+            remap[id] = snapshot.size();
+            snapshot.add(keywords.get(id));
+        }
+        return remap[id];
+    }
+
+    /**
+     * 체크포인트 복원 (write lock 필요)
+     *
+     * @return 복원했으면 true
+     */
+    private boolean restore() {
+        if (!Files.exists(checkpointPath)) {
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(checkpointPath))))) {
+            if (in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring trend engine checkpoint with unknown version: {}", checkpointPath);
+                return false;
+            }
+            long minute = in.readLong();
+            long coverage = in.readLong();
+
+            Map<Integer, Long> offsets = new HashMap<>();
+            int offsetCount = in.readInt();
+            for (int i = 0; i < offsetCount; i++) {
+                offsets.put(in.readInt(), in.readLong());
+            }
+
+            int keywordCount = in.readInt();
+            List<String> restoredKeywords = new ArrayList<>(keywordCount);
+            for (int i = 0; i < keywordCount; i++) {
+                restoredKeywords.add(in.readUTF());
+            }
+
+            int edges = in.readInt();
+            if (edges > maxEdges) {
+                log.warn("Ignoring trend engine checkpoint with {} edges (max-edges={})", edges, maxEdges);
+                return false;
+            }
+            int[] parents = new int[edges];
+            int[] children = new int[edges];
+            for (int edge = 0; edge < edges; edge++) {
+                parents[edge] = in.readInt();
+                children[edge] = in.readInt();
+            }
+
+            // 여기까지 읽은 뒤에 상태 교체 (중간에 실패하면 빈 상태로 시작)
+            for (String keyword : restoredKeywords) {
+                keywordIds.put(keyword, keywords.size());
+                keywords.add(keyword);
+            }
+            keywordRefs = new int[Math.max(1024, keywordCount)];
+            ensureCapacity(edges);
+            for (int edge = 0; edge < edges; edge++) {
+                edgeParent[edge] = parents[edge];
+                edgeChild[edge] = children[edge];
+                edgeIds.put(edgeKey(parents[edge], children[edge]), edge);
+                keywordRefs[parents[edge]]++;
+                keywordRefs[children[edge]]++;
+            }
+            edgeCount = edges;
+            // 이전 버전 체크포인트에는 참조되지 않는 키워드가 남아 있을 수 있음
+            for (int kw = 0; kw < keywordCount; kw++) {
+                if (keywordRefs[kw] == 0) {
+                    keywordIds.remove(keywords.get(kw));
+                    keywords.set(kw, null);
+                    freeKeywords.push(kw);
+                }
+            }
+            readSlots(in, minuteSlots, edges);
+            readSlots(in, hourSlots, edges);
+            readSlots(in, daySlots, edges);
+
+            // 윈도우 합계는 슬롯에서 다시 계산
+            currentMinute = minute;
+            long currentDay = minute / MINUTES_PER_DAY;
+            for (int edge = 0; edge < edges; edge++) {
+                sum1h[edge] = sumSlots(minuteSlots, edge);
+                sum24h[edge] = sumSlots(hourSlots, edge);
+                sum30d[edge] = sumSlots(daySlots, edge);
+                long week = 0;
+                for (int back = 0; back < 7; back++) {
+                    week += daySlots[slot(currentDay - back, DAY_SLOTS)][edge];
+                }
+                sum7d[edge] = week;
+            }
+            coverageStartMinute = coverage;
+            nextOffsets.putAll(offsets);
+            reclaimIdleEdges();
+
+            log.info("Restored trend engine checkpoint: edges={}, minute={}, partitions={}",
+                    edges, minute, offsets.size());
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to restore trend engine checkpoint: {}", checkpointPath, e);
+            clear();
+            return false;
+        }
+    }
+
+    private void clear() {
+        keywordIds.clear();
+        keywords.clear();
+        Arrays.fill(keywordRefs, 0);
+        freeKeywords.clear();
+        edgeIds.clear();
+        freeEdges.clear();
+        edgeCount = 0;
+        for (int[][] slots : List.of(minuteSlots, hourSlots, daySlots)) {
+            for (int[] slot : slots) {
+                Arrays.fill(slot, 0);
+            }
+        }
+        Arrays.fill(sum1h, 0);
+        Arrays.fill(sum24h, 0);
+        Arrays.fill(sum7d, 0);
+        Arrays.fill(sum30d, 0);
+        currentMinute = -1;
+        nextOffsets.clear();
+    }
+
+    private static int[][] copySlots(int[][] slots, int[] liveEdges, int edges) {
+        int[][] copy = new int[slots.length][edges];
+        for (int i = 0; i < slots.length; i++) {
+            for (int edge = 0; edge < edges; edge++) {
+                copy[i][edge] = slots[i][liveEdges[edge]];
+            }
+        }
+        return copy;
+    }
+
+    private static void writeSlots(DataOutputStream out, int[][] slots, int edges) throws IOException {
+        for (int[] slot : slots) {
+            for (int edge = 0; edge < edges; edge++) {
+                out.writeInt(slot[edge]);
+            }
+        }
+    }
+
+    private static void readSlots(DataInputStream in, int[][] slots, int edges) throws IOException {
+        for (int[] slot : slots) {
+            for (int edge = 0; edge < edges; edge++) {
+                slot[edge] = in.readInt();
+            }
+        }
+    }
+
+    private static long sumSlots(int[][] slots, int edge) {
+        long sum = 0;
+        for (int[] slot : slots) {
+            sum += slot[edge];
+        }
+        return sum;
+    }
+
+    private String sanitizeKeyword(String keyword) {
+        if (keyword == null) return "";
+        return keyword.trim().toLowerCase();
+    }
+}
@@ -2,21 +2,41 @@ package com.ssafy.trendservice.util;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * 날짜 유틸리티
+ *
+ * 분 버킷 / 일별 키 / 배치 커서는 이벤트 수집 경로(EdgeBucketKey)와 같은 UTC 기준입니다.
+ * JVM 기본 타임존(컨테이너 TZ=Asia/Seoul 등)을 쓰면 존재하지 않는 버킷을 읽게 되므로 now()는 여기서만 구합니다.
  */
 public class DateUtil {
 
+    public static final ZoneOffset ZONE = ZoneOffset.UTC;
+
+    /**
+     * 오늘 날짜 (UTC)
+     */
+    public static LocalDate today() {
+        return LocalDate.now(ZONE);
+    }
+
+    /**
+     * 현재 시각 (UTC)
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now(ZONE);
+    }
+
     /**
      * 과거 N일간의 날짜 리스트 반환 (오늘 포함)
      */
     public static List<LocalDate> getLastNDays(int days) {
         List<LocalDate> dates = new ArrayList<>();
-        LocalDate today = LocalDate.now();
+        LocalDate today = today();
         for (int i = 0; i < days; i++) {
             dates.add(today.minusDays(i));
         }
@@ -34,7 +54,7 @@ public class DateUtil {
      * 현재 시각의 분 단위 버킷
      */
     public static LocalDateTime getCurrentMinuteBucket() {
-        return truncateToMinute(LocalDateTime.now());
+        return truncateToMinute(now());
     }
 
     /**
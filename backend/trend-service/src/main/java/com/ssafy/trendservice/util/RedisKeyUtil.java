@@ -30,6 +30,23 @@ public class RedisKeyUtil {
         return String.format("h:viewkw:rt:%s:%s", datetime.format(DATETIME_FORMATTER), parentKw);
     }
 
+    // 버킷별 parent 인덱스 SET (배치 조회 시 SCAN 대신 사용)
+    public static String dailyAddIndexKey(LocalDate date) {
+        return String.format("s:addkw:%s", date.format(DATE_FORMATTER));
+    }
+
+    public static String dailyViewIndexKey(LocalDate date) {
+        return String.format("s:viewkw:%s", date.format(DATE_FORMATTER));
+    }
+
+    public static String realtimeAddIndexKey(LocalDateTime datetime) {
+        return String.format("s:addkw:rt:%s", datetime.format(DATETIME_FORMATTER));
+    }
+
+    public static String realtimeViewIndexKey(LocalDateTime datetime) {
+        return String.format("s:viewkw:rt:%s", datetime.format(DATETIME_FORMATTER));
+    }
+
     // ZSET 캐시 키
     public static String zsetParentKey(String parentKw, String period) {
         return String.format("z:parent:%s:%s", parentKw, period);
@@ -39,12 +56,36 @@ public class RedisKeyUtil {
         return String.format("z:global:%s", period);
     }
 
+    // 부모 키워드의 public TEXT 자식 키워드 목록 캐시 (ES 조회 결과)
+    public static String publicChildrenKey(String parentKw) {
+        return String.format("c:pubchild:%s", parentKw);
+    }
+
+    // 글로벌 트렌드 요약(Count-Min + Space-Saving) 일별 스냅샷, 인스턴스별
+    public static String sketchKey(LocalDate date, String instanceId) {
+        return String.format("sk:global:%s:%s", date.format(DATE_FORMATTER), instanceId);
+    }
+
+    public static String sketchIndexKey(LocalDate date) {
+        return String.format("s:sketch:%s", date.format(DATE_FORMATTER));
+    }
+
     // 분산 락 키
     public static String batchLockKey(String batchType) {
         return String.format("lock:batch:%s", batchType);
     }
 
-    // 일별 키 패턴 (SCAN용)
+    // 캐시 미스 시 원본 조회를 한 요청으로 모으는 락 키
+    public static String cacheFillLockKey(String cacheKey) {
+        return String.format("lock:fill:%s", cacheKey);
+    }
+
+    // 이벤트 idempotencyKey 중복 확인 마커
+    public static String idempotencyKey(String idempotencyKey) {
+        return String.format("idem:%s", idempotencyKey);
+    }
+
+    // 일별 키 패턴 (SCAN용, 인덱스 도입 전 버킷과 정리 작업에서만 사용)
     public static String dailyAddPattern(LocalDate date) {
         return String.format("h:addkw:%s:*", date.format(DATE_FORMATTER));
     }
@@ -0,0 +1,174 @@
+package com.ssafy.trendservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Count-Min + Space-Saving 요약의 top-k 정확도, merge, 직렬화 왕복 검증
+ */
+class HeavyHitterSketchTest {
+
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 2048;
+    private static final int CAPACITY = 200;
+
+    // heavy 키워드 20개 (2000, 1900, ... 100) + 롱테일 5000개 (1~3)
+    private static final int HEAVY = 20;
+    private static final int TAIL = 5000;
+
+    @Test
+    void topKMatchesExactCountsOnSkewedStream() {
+        Map<String, Long> exact = new HashMap<>();
+        List<String> stream = skewedStream(exact, new Random(42));
+
+        HeavyHitterSketch sketch = new HeavyHitterSketch(DEPTH, WIDTH, CAPACITY);
+        stream.forEach(keyword -> sketch.add(keyword, 1));
+
+        LinkedHashMap<String, Double> top = sketch.top(10);
+        assertEquals(exactTop(exact, 10), List.copyOf(top.keySet()));
+
+        // 과소 추정 없음, 과대 추정은 Count-Min 오차(총량 * e / width) 이내
+        long bound = (long) Math.ceil(stream.size() * Math.E / WIDTH);
+        for (Map.Entry<String, Double> entry : top.entrySet()) {
+            long actual = exact.get(entry.getKey());
+            long estimated = entry.getValue().longValue();
+            assertTrue(estimated >= actual, entry.getKey() + " underestimated");
+            assertTrue(estimated - actual <= bound, entry.getKey() + " error " + (estimated - actual));
+        }
+    }
+
+    @Test
+    void estimateUsesWeightAndNeverUnderestimates() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(DEPTH, WIDTH, 2);
+        sketch.add("a", 3);
+        sketch.add("b", 1);
+        sketch.add("a", 3);
+        // 후보가 가득 찬 상태에서 새 키워드 → 최소 후보(b) 교체
+        sketch.add("c", 1);
+
+        assertEquals(6, sketch.estimate("a"));
+        assertTrue(sketch.estimate("b") >= 1);
+        assertTrue(sketch.estimate("c") >= 1);
+        assertEquals(List.of("a", "c"), List.copyOf(sketch.top(10).keySet()));
+    }
+
+    @Test
+    void smallTableKeepsEveryKeywordAboveTotalOverCapacity() {
+        Map<String, Long> exact = new HashMap<>();
+        List<String> stream = skewedStream(exact, new Random(3));
+
+        // 후보 50개로 롱테일 5000개를 계속 교체 (최소 후보 힙 경로)
+        int capacity = 50;
+        HeavyHitterSketch sketch = new HeavyHitterSketch(DEPTH, WIDTH, capacity);
+        stream.forEach(keyword -> sketch.add(keyword, 1));
+
+        // Space-Saving 보장: 빈도가 전체 / capacity 보다 큰 키워드는 반드시 후보에 남음
+        Set<String> kept = sketch.top(capacity).keySet();
+        long threshold = stream.size() / capacity;
+        exact.forEach((keyword, count) -> {
+            if (count > threshold) {
+                assertTrue(kept.contains(keyword), keyword + " count=" + count + " threshold=" + threshold);
+            }
+        });
+        assertEquals(capacity, kept.size());
+    }
+
+    @Test
+    void mergedSketchesMatchSingleSketchOverWholeStream() {
+        Map<String, Long> exact = new HashMap<>();
+        List<String> stream = skewedStream(exact, new Random(7));
+
+        HeavyHitterSketch whole = new HeavyHitterSketch(DEPTH, WIDTH, CAPACITY);
+        HeavyHitterSketch left = new HeavyHitterSketch(DEPTH, WIDTH, CAPACITY);
+        HeavyHitterSketch right = new HeavyHitterSketch(DEPTH, WIDTH, CAPACITY);
+        for (int i = 0; i < stream.size(); i++) {
+            whole.add(stream.get(i), 1);
+            (i % 2 == 0 ? left : right).add(stream.get(i), 1);
+        }
+
+        left.merge(right);
+
+        assertEquals(exactTop(exact, 10), List.copyOf(left.top(10).keySet()));
+        // Count-Min 카운터는 더하기라 합친 결과와 전체 스트림 결과의 추정치가 같거나 더 정확함
+        for (String keyword : exactTop(exact, HEAVY)) {
+            long estimated = left.estimate(keyword);
+            assertTrue(estimated >= exact.get(keyword));
+            assertTrue(estimated <= whole.estimate(keyword) + exact.get(keyword) / 10,
+                    keyword + " merged=" + estimated + " whole=" + whole.estimate(keyword));
+        }
+    }
+
+    @Test
+    void mergeRejectsDifferentDimensions() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(DEPTH, WIDTH, CAPACITY);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> sketch.merge(new HeavyHitterSketch(DEPTH, WIDTH / 2, CAPACITY)));
+    }
+
+    @Test
+    void bytesRoundTripPreservesCountersAndCandidates() {
+        Map<String, Long> exact = new HashMap<>();
+        HeavyHitterSketch sketch = new HeavyHitterSketch(DEPTH, WIDTH, CAPACITY);
+        skewedStream(exact, new Random(1)).forEach(keyword -> sketch.add(keyword, 1));
+
+        HeavyHitterSketch restored = HeavyHitterSketch.fromBytes(sketch.toBytes());
+
+        assertEquals(sketch.top(CAPACITY), restored.top(CAPACITY));
+        for (String keyword : exact.keySet()) {
+            assertEquals(sketch.estimate(keyword), restored.estimate(keyword));
+        }
+
+        // 복원본도 계속 누적 / merge 가능
+        restored.add("tail-0", 5);
+        restored.merge(sketch);
+        assertTrue(restored.estimate("heavy-0") >= 2 * exact.get("heavy-0"));
+    }
+
+    @Test
+    void fromBytesRejectsUnknownVersion() {
+        byte[] bytes = new HeavyHitterSketch(1, 1, 1).toBytes();
+        bytes[3] = 99;
+
+        assertThrows(IllegalArgumentException.class, () -> HeavyHitterSketch.fromBytes(bytes));
+    }
+
+    private static List<String> skewedStream(Map<String, Long> exact, Random random) {
+        List<String> stream = new ArrayList<>();
+        for (int i = 0; i < HEAVY; i++) {
+            append(stream, exact, "heavy-" + i, 2000 - i * 100L);
+        }
+        for (int i = 0; i < TAIL; i++) {
+            append(stream, exact, "tail-" + i, 1 + random.nextInt(3));
+        }
+        Collections.shuffle(stream, random);
+        return stream;
+    }
+
+    private static void append(List<String> stream, Map<String, Long> exact, String keyword, long count) {
+        for (long i = 0; i < count; i++) {
+            stream.add(keyword);
+        }
+        exact.put(keyword, count);
+    }
+
+    private static List<String> exactTop(Map<String, Long> exact, int limit) {
+        return exact.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
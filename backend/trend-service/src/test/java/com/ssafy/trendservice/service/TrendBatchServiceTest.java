@@ -0,0 +1,118 @@
+package com.ssafy.trendservice.service;
+
+import com.ssafy.trendservice.repository.TrendDbRepository;
+import com.ssafy.trendservice.repository.TrendRedisRepository;
+import com.ssafy.trendservice.util.DateUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 증분 집계 커서 / 분 버킷이 JVM 기본 타임존과 무관하게 UTC 기준인지 확인
+ * (Dockerfile이 TZ=Asia/Seoul로 실행하므로 기본 타임존을 고정해서 테스트)
+ */
+class TrendBatchServiceTest {
+
+    private static final DateTimeFormatter CURSOR_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    private TimeZone originalZone;
+
+    private final TrendRedisRepository redisRepository = mock(TrendRedisRepository.class);
+    private final TrendDbRepository dbRepository = mock(TrendDbRepository.class);
+    private final TrendBatchService batchService =
+            new TrendBatchService(redisRepository, dbRepository, mock(GlobalTrendSketch.class));
+
+    @BeforeEach
+    void setUp() {
+        originalZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone(ZoneId.of("Asia/Seoul")));
+
+        ReflectionTestUtils.setField(batchService, "scanCount", 100);
+        ReflectionTestUtils.setField(batchService, "lockTimeout", 60L);
+        ReflectionTestUtils.setField(batchService, "realtimeBucketTtl", 7200L);
+        ReflectionTestUtils.setField(batchService, "overlapMinutes", 10);
+
+        when(redisRepository.tryLock(anyString(), anyString(), anyLong())).thenReturn(true);
+        when(redisRepository.getRealtimeActiveParents(any())).thenReturn(Optional.of(Set.of()));
+        when(dbRepository.getScoreWindowEnd()).thenReturn(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TimeZone.setDefault(originalZone);
+    }
+
+    @Test
+    void dateUtilUsesUtcRegardlessOfDefaultZone() {
+        LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime bucket = DateUtil.getCurrentMinuteBucket();
+        LocalDateTime after = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MINUTES);
+
+        assertFalse(bucket.isBefore(before));
+        assertFalse(bucket.isAfter(after));
+        assertEquals(LocalDate.now(ZoneOffset.UTC), DateUtil.getLastNDays(1).getFirst());
+    }
+
+    @Test
+    void incrementalAggregationWalksUtcBucketsAndStoresUtcCursor() {
+        LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MINUTES);
+        when(dbRepository.getLastProcessedCursor("daily-aggregation"))
+                .thenReturn(utcNow.minusMinutes(5).format(CURSOR_FORMATTER));
+
+        batchService.aggregateDailyData();
+
+        ArgumentCaptor<LocalDateTime> buckets = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(redisRepository, atLeastOnce()).getRealtimeActiveParents(buckets.capture());
+        List<LocalDateTime> walked = buckets.getAllValues();
+
+        // 커서(-5분) - overlap(10분)부터 현재 UTC 분까지, 미래 버킷은 읽지 않음
+        assertEquals(utcNow.minusMinutes(15), walked.getFirst());
+        assertTrue(walked.stream().noneMatch(b -> b.isAfter(utcNow.plusMinutes(1))), "walked=" + walked);
+
+        ArgumentCaptor<String> cursor = ArgumentCaptor.forClass(String.class);
+        verify(dbRepository).updateBatchCursor(eq("daily-aggregation"), cursor.capture());
+        LocalDateTime stored = LocalDateTime.parse(cursor.getValue(), CURSOR_FORMATTER);
+        assertTrue(!stored.isBefore(utcNow) && !stored.isAfter(utcNow.plusMinutes(1)), "cursor=" + stored);
+
+        verify(redisRepository, never()).getDailyAddCounts(any(LocalDate.class), anyInt());
+    }
+
+    @Test
+    void cursorInTheFutureFallsBackToFullAggregation() {
+        // 이전 버전이 JVM 기본 타임존(KST)으로 기록한 커서
+        String kstCursor = LocalDateTime.now(ZoneId.of("Asia/Seoul")).format(CURSOR_FORMATTER);
+        when(dbRepository.getLastProcessedCursor("daily-aggregation")).thenReturn(kstCursor);
+
+        batchService.aggregateDailyData();
+
+        verify(redisRepository, never()).getRealtimeActiveParents(any());
+        verify(redisRepository, atLeastOnce()).getDailyAddCounts(any(LocalDate.class), anyInt());
+    }
+}
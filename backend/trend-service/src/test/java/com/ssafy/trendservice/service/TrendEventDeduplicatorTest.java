@@ -0,0 +1,180 @@
+package com.ssafy.trendservice.service;
+
+import com.ssafy.trendservice.dto.event.EventType;
+import com.ssafy.trendservice.dto.event.RelationEvent;
+import com.ssafy.trendservice.repository.TrendRedisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bloom filter 크기 / 오탐 경로, 미반영 마커 확인, 파티션 재할당 후 Redis 확인 규칙 검증
+ */
+class TrendEventDeduplicatorTest {
+
+    private final TrendRedisRepository redisRepository = mock(TrendRedisRepository.class);
+    private final TrendCountAccumulator countAccumulator = mock(TrendCountAccumulator.class);
+    private final TrendEventDeduplicator deduplicator = new TrendEventDeduplicator(redisRepository, countAccumulator);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(deduplicator, "enabled", true);
+        ReflectionTestUtils.setField(deduplicator, "windowMinutes", 10);
+        ReflectionTestUtils.setField(deduplicator, "expectedKeysPerMinute", 1000);
+        ReflectionTestUtils.setField(deduplicator, "falsePositiveRate", 0.01);
+        // 기본값: 재할당 이전 이벤트 없음
+        ReflectionTestUtils.setField(deduplicator, "trustedSinceMillis", 0L);
+    }
+
+    @Test
+    void bloomFilterIsSizedForExpectedInsertionsAndFalsePositiveRate() {
+        TrendEventDeduplicator.BloomFilter filter = new TrendEventDeduplicator.BloomFilter(1000, 0.01);
+
+        // m = -n ln p / (ln 2)^2 ≈ 9586, k = m / n * ln 2 ≈ 7
+        assertEquals(9586L, (long) ReflectionTestUtils.getField(filter, "bitSize"));
+        assertEquals(7, (int) ReflectionTestUtils.getField(filter, "hashCount"));
+
+        // 채우는 동안의 오탐 (처음 넣는 키인데 "이미 있을 수 있음"): 평균 부하가 절반이라 1%보다 낮아야 함
+        int fillFalsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (!filter.putIfAbsent("key-" + i)) {
+                fillFalsePositives++;
+            }
+        }
+        assertTrue(fillFalsePositives <= 10, "false positives while filling: " + fillFalsePositives);
+
+        // 넣은 키는 항상 양성 (거짓 음성 없음)
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(filter.putIfAbsent("key-" + i));
+        }
+
+        // 가득 찬 뒤의 오탐: 조회가 추가를 겸하므로 부하가 크게 늘지 않도록 적은 수만 확인
+        int falsePositives = 0;
+        for (int i = 0; i < 200; i++) {
+            if (!filter.putIfAbsent("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives <= 10, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void bloomFilterUsesMinimumSizeForTinyExpectations() {
+        TrendEventDeduplicator.BloomFilter filter = new TrendEventDeduplicator.BloomFilter(1, 0.5);
+
+        assertEquals(64L, (long) ReflectionTestUtils.getField(filter, "bitSize"));
+    }
+
+    @Test
+    void firstSeenKeysAreAcceptedWithoutRedisRoundTrip() {
+        TrendEventDeduplicator.Result result = deduplicator.filter(List.of(event("a"), event("b"), event("a")));
+
+        assertEquals(2, result.accepted().size());
+        assertEquals(List.of("idem:a", "idem:b"), result.markers());
+        verify(redisRepository, never()).setIfAbsentBatch(anyList(), anyLong());
+    }
+
+    @Test
+    void bloomFalsePositiveIsResolvedByRedis() {
+        // 거의 꽉 찬 필터: 처음 보는 키도 "있을 수 있음"으로 판정됨
+        ReflectionTestUtils.setField(deduplicator, "expectedKeysPerMinute", 1);
+        when(redisRepository.setIfAbsentBatch(anyList(), anyLong()))
+                .thenAnswer(invocation -> new ArrayList<>(
+                        Collections.nCopies(invocation.<List<String>>getArgument(0).size(), Boolean.TRUE)));
+        List<RelationEvent> warmup = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            warmup.add(event("warmup-" + i));
+        }
+        deduplicator.filter(warmup);
+
+        TrendEventDeduplicator.Result result = deduplicator.filter(List.of(event("fresh")));
+
+        // Redis가 처음 본 키라고 답하면 카운트, 마커는 SET NX가 이미 기록했으므로 flush 대상 아님
+        assertEquals(1, result.accepted().size());
+        assertTrue(result.markers().isEmpty());
+        verify(redisRepository).setIfAbsentBatch(eq(List.of("idem:fresh")), eq(15L * 60));
+    }
+
+    @Test
+    void redeliveredKeyIsDroppedWhenRedisAlreadyHasMarker() {
+        deduplicator.filter(List.of(event("a")));
+        when(redisRepository.setIfAbsentBatch(anyList(), anyLong())).thenReturn(List.of(Boolean.FALSE));
+
+        TrendEventDeduplicator.Result result = deduplicator.filter(List.of(event("a")));
+
+        assertTrue(result.accepted().isEmpty());
+        verify(redisRepository).setIfAbsentBatch(eq(List.of("idem:a")), anyLong());
+    }
+
+    @Test
+    void pendingMarkerShortCircuitsRedisLookup() {
+        deduplicator.filter(List.of(event("a")));
+        when(countAccumulator.hasPendingMarker("idem:a")).thenReturn(true);
+
+        TrendEventDeduplicator.Result result = deduplicator.filter(List.of(event("a")));
+
+        assertTrue(result.accepted().isEmpty());
+        verify(redisRepository, never()).setIfAbsentBatch(anyList(), anyLong());
+    }
+
+    @Test
+    void eventsBeforePartitionAssignmentAreCheckedInRedis() {
+        deduplicator.onPartitionsAssigned();
+        long assignedAt = (long) ReflectionTestUtils.getField(deduplicator, "trustedSinceMillis");
+        when(redisRepository.setIfAbsentBatch(anyList(), anyLong())).thenReturn(List.of(Boolean.FALSE));
+
+        // 재할당 전(시계 차이 여유 60초보다 앞) 이벤트: Bloom filter가 비어 있어도 Redis로 확인
+        RelationEvent beforeAssignment = event("old", assignedAt - 120_000L);
+        // 재할당 이후 이벤트: Bloom filter 음성을 그대로 신뢰
+        RelationEvent afterAssignment = event("new", assignedAt);
+
+        TrendEventDeduplicator.Result result = deduplicator.filter(List.of(beforeAssignment, afterAssignment));
+
+        assertEquals(List.of(afterAssignment), result.accepted());
+        assertEquals(List.of("idem:new"), result.markers());
+        verify(redisRepository).setIfAbsentBatch(eq(List.of("idem:old")), anyLong());
+    }
+
+    @Test
+    void eventsWithinClockSkewOfAssignmentStayOnBloomPath() {
+        deduplicator.onPartitionsAssigned();
+        long assignedAt = (long) ReflectionTestUtils.getField(deduplicator, "trustedSinceMillis");
+
+        TrendEventDeduplicator.Result result = deduplicator.filter(List.of(event("skewed", assignedAt - 30_000L)));
+
+        assertEquals(1, result.accepted().size());
+        verify(redisRepository, never()).setIfAbsentBatch(anyList(), anyLong());
+        verify(countAccumulator, never()).hasPendingMarker(anyString());
+    }
+
+    private RelationEvent event(String idempotencyKey) {
+        return event(idempotencyKey, System.currentTimeMillis());
+    }
+
+    private RelationEvent event(String idempotencyKey, long timestamp) {
+        return RelationEvent.builder()
+                .type(EventType.RELATION_ADD)
+                .timestamp(timestamp)
+                .workspaceId(1L)
+                .parentKeyword("parent")
+                .childKeyword("child")
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+}
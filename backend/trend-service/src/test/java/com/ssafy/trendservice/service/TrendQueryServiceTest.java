@@ -0,0 +1,96 @@
+package com.ssafy.trendservice.service;
+
+import com.ssafy.trendservice.dto.response.TrendItem;
+import com.ssafy.trendservice.dto.response.TrendResponse;
+import com.ssafy.trendservice.repository.TrendDbRepository;
+import com.ssafy.trendservice.repository.TrendRedisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 글로벌 7d / 30d 캐시 미스 경로: 원본 Map 순서와 관계없이 점수 상위 limit개를 순위대로 반환하는지 검증
+ */
+class TrendQueryServiceTest {
+
+    private final TrendRedisRepository redisRepository = mock(TrendRedisRepository.class);
+    private final TrendDbRepository dbRepository = mock(TrendDbRepository.class);
+    private final TrendWindowEngine windowEngine = mock(TrendWindowEngine.class);
+    private final GlobalTrendSketch globalTrendSketch = mock(GlobalTrendSketch.class);
+    private final TrendQueryService queryService = new TrendQueryService(
+            redisRepository, dbRepository, mock(PublicNodeSearchService.class), windowEngine, globalTrendSketch);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(queryService, "defaultLimit", 10);
+        ReflectionTestUtils.setField(queryService, "maxLimit", 100);
+        ReflectionTestUtils.setField(queryService, "zsetCacheTtl", 3600L);
+        ReflectionTestUtils.setField(queryService, "cacheFillLockTimeout", 30L);
+        ReflectionTestUtils.setField(queryService, "cacheFillWait", Duration.ofMillis(100));
+
+        // 엔진 / 요약이 윈도우를 아직 다 채우지 못함 → DB 조회
+        when(windowEngine.globalTop(anyString(), anyInt(), anyBoolean())).thenReturn(Optional.empty());
+        when(globalTrendSketch.globalTop(anyInt(), anyInt())).thenReturn(Optional.empty());
+        when(redisRepository.zsetExists(anyString())).thenReturn(false);
+        when(dbRepository.getGlobalTrend7d(anyInt())).thenReturn(unorderedScores());
+    }
+
+    @Test
+    void cacheFillerReturnsTopScoresInRankOrder() {
+        when(redisRepository.tryLock(anyString(), anyString(), anyLong())).thenReturn(true);
+
+        TrendResponse response = queryService.getGlobalTop("7d", 5);
+
+        assertTopFive(response.getItems());
+        verify(redisRepository).zsetRebuild(eq("z:global:7d"), eq(unorderedScores()), eq(3600L));
+    }
+
+    @Test
+    void directLoadAfterFailedCacheFillReturnsTopScoresInRankOrder() {
+        // 다른 요청이 락을 잡았다가 캐시를 못 채우고 놓음 → 직접 읽되 캐시는 건드리지 않음
+        when(redisRepository.tryLock(anyString(), anyString(), anyLong())).thenReturn(false);
+        when(redisRepository.isLocked(anyString())).thenReturn(false);
+
+        TrendResponse response = queryService.getGlobalTop("7d", 5);
+
+        assertTopFive(response.getItems());
+        verify(redisRepository, never()).zsetRebuild(anyString(), eq(unorderedScores()), anyLong());
+    }
+
+    private static void assertTopFive(List<TrendItem> items) {
+        assertEquals(List.of("kw-99", "kw-98", "kw-97", "kw-96", "kw-95"),
+                items.stream().map(TrendItem::getKeyword).toList());
+        assertEquals(List.of(99L, 98L, 97L, 96L, 95L),
+                items.stream().map(TrendItem::getScore).toList());
+        assertEquals(List.of(1, 2, 3, 4, 5),
+                items.stream().map(TrendItem::getRank).toList());
+    }
+
+    /**
+     * HashMap이라 순회 순서가 점수 순서와 다름 (CACHE_SIZE만큼 읽은 결과 흉내)
+     */
+    private static Map<String, Double> unorderedScores() {
+        Map<String, Double> scores = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            scores.put("kw-" + i, (double) i);
+        }
+        return scores;
+    }
+}
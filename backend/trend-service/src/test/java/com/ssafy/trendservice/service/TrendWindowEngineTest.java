@@ -0,0 +1,233 @@
+package com.ssafy.trendservice.service;
+
+import com.ssafy.trendservice.dto.event.EventType;
+import com.ssafy.trendservice.dto.event.RelationEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 시계를 분 / 시간 / 일 경계 너머로 옮기면서 윈도우 회전, 7일 만료, edge 회수, 체크포인트 복원을 확인
+ */
+class TrendWindowEngineTest {
+
+    // 2026-10-19 10:59:30 UTC (다음 분이 시간 경계)
+    private static final Instant T0 = Instant.parse("2026-10-19T10:59:30Z");
+
+    @TempDir
+    Path tempDir;
+
+    private final MutableClock clock = new MutableClock(T0);
+    private final List<TrendWindowEngine> started = new ArrayList<>();
+    private long offset = 0;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (TrendWindowEngine engine : started) {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void oneHourWindowRotatesAcrossMinuteAndHourBoundaries() {
+        TrendWindowEngine engine = newEngine(10, tempDir.resolve("engine.snapshot"));
+        engine.record(List.of(add("a", "b")));
+
+        assertEquals(Map.of("b", 3.0), top(engine, "1h"));
+
+        // 같은 분이 윈도우 맨 앞에 남아 있는 마지막 시점
+        clock.advance(Duration.ofMinutes(59));
+        assertEquals(Map.of("b", 3.0), top(engine, "1h"));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertTrue(top(engine, "1h").isEmpty());
+        assertEquals(Map.of("b", 3.0), top(engine, "24h"));
+    }
+
+    @Test
+    void dayWindowRotatesAcrossHourBoundary() {
+        TrendWindowEngine engine = newEngine(10, tempDir.resolve("engine.snapshot"));
+        engine.record(List.of(add("a", "b"), view("a", "b")));
+
+        // 10시 버킷은 다음 날 09시까지 24h 윈도우에 포함
+        clock.set(Instant.parse("2026-10-20T09:59:59Z"));
+        assertEquals(Map.of("b", 4.0), top(engine, "24h"));
+
+        clock.set(Instant.parse("2026-10-20T10:00:00Z"));
+        assertTrue(top(engine, "24h").isEmpty());
+        assertEquals(Map.of("b", 4.0), top(engine, "7d"));
+    }
+
+    @Test
+    void weekWindowExpiresAtSeventhDayBoundary() {
+        TrendWindowEngine engine = newEngine(10, tempDir.resolve("engine.snapshot"));
+        engine.record(List.of(add("a", "b")));
+
+        // 하루씩 넘기면서 expireWeek가 슬롯 하나씩 빼는 경로
+        for (int day = 20; day <= 25; day++) {
+            clock.set(Instant.parse("2026-10-" + day + "T00:00:00Z"));
+            assertEquals(Map.of("b", 3.0), top(engine, "7d"));
+        }
+        clock.set(Instant.parse("2026-10-25T23:59:00Z"));
+        assertEquals(Map.of("b", 3.0), top(engine, "7d"));
+
+        clock.set(Instant.parse("2026-10-26T00:00:00Z"));
+        assertTrue(top(engine, "7d").isEmpty());
+        assertEquals(Map.of("b", 3.0), top(engine, "30d"));
+    }
+
+    @Test
+    void weekWindowClearedWhenClockJumpsMoreThanSevenDays() {
+        TrendWindowEngine engine = newEngine(10, tempDir.resolve("engine.snapshot"));
+        engine.record(List.of(add("a", "b")));
+        clock.advance(Duration.ofHours(1));
+        engine.record(List.of(add("a", "c")));
+
+        clock.advance(Duration.ofDays(10));
+        assertTrue(top(engine, "7d").isEmpty());
+        assertEquals(Map.of("b", 3.0, "c", 3.0), top(engine, "30d"));
+
+        // 새 이벤트는 비워진 합계 위에 다시 쌓임
+        engine.record(List.of(add("a", "c")));
+        assertEquals(Map.of("c", 3.0), top(engine, "7d"));
+        assertEquals(6.0, top(engine, "30d").get("c"));
+    }
+
+    @Test
+    void idleEdgesAreReclaimedOnceTheyLeaveThirtyDayWindow() {
+        TrendWindowEngine engine = newEngine(2, tempDir.resolve("engine.snapshot"));
+        engine.record(List.of(add("a", "b"), add("a", "c"), add("a", "d")));
+
+        // max-edges를 넘은 edge는 무시
+        assertEquals(Map.of("b", 3.0, "c", 3.0), top(engine, "30d"));
+
+        // a → b만 계속 들어옴
+        clock.set(Instant.parse("2026-11-17T12:00:00Z"));
+        engine.record(List.of(add("a", "b")));
+
+        // 10/19 슬롯이 30일 윈도우에서 빠지는 날: a → c는 회수, a → b는 유지
+        clock.set(Instant.parse("2026-11-18T00:00:00Z"));
+        engine.record(List.of(add("a", "d")));
+
+        assertEquals(Map.of("b", 3.0, "d", 3.0), top(engine, "30d"));
+        assertEquals(2, (int) ReflectionTestUtils.getField(engine, "edgeCount"));
+        // c의 키워드 id를 d가 재사용
+        assertEquals(3, ((List<?>) ReflectionTestUtils.getField(engine, "keywords")).size());
+    }
+
+    @Test
+    void checkpointRestoresWindowsAndDropsReclaimedEdges() {
+        Path snapshot = tempDir.resolve("engine.snapshot");
+        TrendWindowEngine engine = newEngine(10, snapshot);
+        engine.record(List.of(add("x", "y")));
+
+        clock.set(Instant.parse("2026-11-18T08:30:00Z"));
+        engine.record(List.of(add("a", "b")));
+        clock.advance(Duration.ofMinutes(20));
+        engine.record(List.of(add("a", "c"), view("a", "c")));
+        engine.checkpoint();
+
+        LinkedHashMap<String, Double> expected1h = top(engine, "1h");
+        LinkedHashMap<String, Double> expected30d = top(engine, "30d");
+
+        TrendWindowEngine restored = newEngine(10, snapshot);
+        restored.start();
+        started.add(restored);
+
+        assertEquals(expected1h, top(restored, "1h"));
+        assertEquals(expected30d, top(restored, "30d"));
+        assertEquals(engine.nextOffset(0), restored.nextOffset(0));
+        // 회수된 x → y는 체크포인트에 남지 않음
+        assertEquals(2, (int) ReflectionTestUtils.getField(restored, "edgeCount"));
+        assertFalse(((List<?>) ReflectionTestUtils.getField(restored, "keywords")).contains("x"));
+
+        // 복원 후에도 시간이 흐르면 같은 규칙으로 회전
+        clock.advance(Duration.ofMinutes(45));
+        assertEquals(Map.of("c", 4.0), top(restored, "1h"));
+        assertEquals(Map.of("b", 3.0, "c", 4.0), top(restored, "24h"));
+    }
+
+    private TrendWindowEngine newEngine(int maxEdges, Path checkpointPath) {
+        TrendWindowEngine engine = new TrendWindowEngine();
+        ReflectionTestUtils.setField(engine, "enabled", true);
+        ReflectionTestUtils.setField(engine, "maxEdges", maxEdges);
+        ReflectionTestUtils.setField(engine, "checkpointPath", checkpointPath);
+        ReflectionTestUtils.setField(engine, "checkpointInterval", Duration.ofHours(1));
+        // 같은 시각에 여러 번 조회해도 매번 다시 계산
+        ReflectionTestUtils.setField(engine, "topCacheTtl", Duration.ofMillis(-1));
+        ReflectionTestUtils.setField(engine, "clock", clock);
+        return engine;
+    }
+
+    private LinkedHashMap<String, Double> top(TrendWindowEngine engine, String period) {
+        return engine.globalTop(period, 10, false).orElseThrow();
+    }
+
+    private ConsumerRecord<String, RelationEvent> add(String parent, String child) {
+        return record(EventType.RELATION_ADD, parent, child);
+    }
+
+    private ConsumerRecord<String, RelationEvent> view(String parent, String child) {
+        return record(EventType.RELATION_VIEW, parent, child);
+    }
+
+    private ConsumerRecord<String, RelationEvent> record(EventType type, String parent, String child) {
+        RelationEvent event = RelationEvent.builder()
+                .type(type)
+                .timestamp(clock.millis())
+                .workspaceId(1L)
+                .parentKeyword(parent)
+                .childKeyword(child)
+                .build();
+        return new ConsumerRecord<>("relation-events", 0, offset++, parent, event);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant instant) {
+            this.now = instant;
+        }
+
+        void advance(Duration duration) {
+            this.now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
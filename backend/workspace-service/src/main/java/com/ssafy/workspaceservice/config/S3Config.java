@@ -4,10 +4,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+import java.time.Duration;
+
 @Configuration
 @RequiredArgsConstructor
 public class S3Config {
@@ -15,10 +20,41 @@ public class S3Config {
     @Value("${cloud.aws.s3.region}")
     private String region;
 
+    // 비동기 클라이언트 커넥션 풀 설정
+    @Value("${cloud.aws.s3.async.max-concurrency:64}")
+    private int maxConcurrency;
+
+    @Value("${cloud.aws.s3.async.connection-acquire-timeout:5s}")
+    private Duration connectionAcquireTimeout;
+
+    @Value("${cloud.aws.s3.async.connection-max-idle-time:60s}")
+    private Duration connectionMaxIdleTime;
+
+    // 이 크기 이상이면 multipart upload (part 최소 크기는 S3 제약상 5MB)
+    @Value("${cloud.aws.s3.multipart-threshold:8MB}")
+    private DataSize multipartThreshold;
+
+    @Value("${cloud.aws.s3.multipart-part-size:5MB}")
+    private DataSize multipartPartSize;
+
+    /**
+     * 업로드/삭제용 비동기 클라이언트 (Netty 기반, 요청 스레드를 막지 않음)
+     * multipart-threshold 이상인 업로드는 SDK가 자동으로 multipart upload로 나눠서 전송합니다.
+     */
     @Bean
-    public S3Client s3Client() {
-        return S3Client.builder()
+    public S3AsyncClient s3AsyncClient() {
+        return S3AsyncClient.builder()
                 .region(Region.of(region))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConcurrency)
+                        .connectionAcquisitionTimeout(connectionAcquireTimeout)
+                        .connectionMaxIdleTime(connectionMaxIdleTime)
+                        .tcpKeepAlive(true))
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(multipartThreshold.toBytes())
+                        .minimumPartSizeInBytes(multipartPartSize.toBytes())
+                        .build())
                 .build();
     }
 
@@ -0,0 +1,179 @@
+package com.ssafy.workspaceservice.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssafy.workspaceservice.entity.WorkspaceEventOutbox;
+import com.ssafy.workspaceservice.repository.WorkspaceEventOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 워크스페이스 생명주기 이벤트를 Kafka로 발행합니다.
+ *
+ * workspace.deleted를 받은 mindmap-service가 노드 / 시퀀스 / 검색 인덱스를 비동기로 정리합니다.
+ * 삭제 요청은 정리 작업을 기다리지 않습니다.
+ * - 이벤트는 삭제와 같은 트랜잭션에서 outbox 테이블에 저장 (롤백되면 같이 사라짐)
+ * - 커밋 후 백그라운드 relay가 발행하고, 브로커 확인(ack)을 받은 뒤에만 outbox에서 삭제
+ * - 발행 실패 시 지수 backoff로 계속 재시도 (인스턴스가 재시작돼도 outbox에 남아 있음)
+ * - 여러 인스턴스가 같은 이벤트를 중복 발행할 수 있으므로 소비자는 멱등하게 처리해야 함
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkspaceEventProducer {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final WorkspaceEventOutboxRepository outboxRepository;
+
+    @Value("${kafka.topics.workspace-deleted}")
+    private String workspaceDeletedTopic;
+
+    @Value("${kafka.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${kafka.outbox.poll-interval:10s}")
+    private Duration pollInterval;
+
+    @Value("${kafka.outbox.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    @Value("${kafka.outbox.initial-backoff:5s}")
+    private Duration initialBackoff;
+
+    @Value("${kafka.outbox.max-backoff:10m}")
+    private Duration maxBackoff;
+
+    // 커밋 직후 poll-interval을 기다리지 않고 바로 발행
+    private final BlockingQueue<Boolean> wakeups = new LinkedBlockingQueue<>(1);
+    private volatile boolean running = false;
+    private Thread relay;
+
+    /**
+     * workspace.deleted 이벤트를 outbox에 저장하고, 트랜잭션이 커밋된 후 발행합니다.
+     * 롤백된 삭제에 대해서는 이벤트를 보내지 않습니다.
+     */
+    public void publishDeletedAfterCommit(Long workspaceId) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("workspaceId", workspaceId);
+        message.put("deletedAt", Instant.now().toEpochMilli());
+
+        outboxRepository.save(WorkspaceEventOutbox.builder()
+                .topic(workspaceDeletedTopic)
+                // key = workspaceId → 같은 워크스페이스 이벤트는 같은 파티션에서 순서대로 처리
+                .messageKey(workspaceId.toString())
+                .payload(toJson(message))
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wakeups.offer(Boolean.TRUE);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeups.offer(Boolean.TRUE);
+            }
+        });
+    }
+
+    private String toJson(Map<String, Object> message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize workspace event", e);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        relay = new Thread(this::runLoop, "workspace-event-outbox");
+        relay.setDaemon(true);
+        relay.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (relay != null) {
+            relay.interrupt();
+            relay.join(1000);
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                if (relayBatch() < batchSize) {
+                    wakeups.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Workspace event outbox loop error", e);
+                try {
+                    // DB 장애 시 busy loop 방지
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 발행 시각이 된 outbox 이벤트를 순서대로 발행합니다.
+     *
+     * @return 이번에 가져온 이벤트 수 (batch-size만큼 찼으면 바로 다음 배치 처리)
+     */
+    private int relayBatch() throws InterruptedException {
+        List<WorkspaceEventOutbox> pending = outboxRepository.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+                LocalDateTime.now(), PageRequest.of(0, batchSize));
+
+        for (WorkspaceEventOutbox event : pending) {
+            try {
+                kafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload())
+                        .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                outboxRepository.delete(event);
+                log.info("Sent workspace event: topic={}, key={}", event.getTopic(), event.getMessageKey());
+
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                Duration backoff = backoff(event.getAttempts());
+                event.scheduleRetry(LocalDateTime.now().plus(backoff));
+                outboxRepository.save(event);
+                log.warn("Failed to send workspace event, retry in {}: topic={}, key={}, attempts={}",
+                        backoff, event.getTopic(), event.getMessageKey(), event.getAttempts(), e);
+            }
+        }
+        return pending.size();
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ssafy.workspaceservice.repository;
+
+import com.ssafy.workspaceservice.entity.WorkspaceEventOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WorkspaceEventOutboxRepository extends JpaRepository<WorkspaceEventOutbox, Long> {
+    List<WorkspaceEventOutbox> findByNextAttemptAtLessThanEqualOrderByIdAsc(LocalDateTime now, Pageable pageable);
+}
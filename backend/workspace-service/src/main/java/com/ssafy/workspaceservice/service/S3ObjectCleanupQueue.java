@@ -0,0 +1,188 @@
+package com.ssafy.workspaceservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 더 이상 사용하지 않는 S3 객체(이전 썸네일 등)를 백그라운드에서 삭제합니다.
+ *
+ * - 업로드 요청은 삭제를 기다리지 않음 (큐에 넣기만 함)
+ * - 트랜잭션 안에서 호출하면 커밋 후(또는 롤백 후)에만 큐에 넣음
+ * - DeleteObjects로 여러 key를 한 번에 삭제, 실패한 key는 max-attempts까지 재시도
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3ObjectCleanupQueue {
+
+    private final S3AsyncClient s3AsyncClient;
+
+    @Value("${cloud.aws.s3.thumbnail-bucket}")
+    private String bucket;
+
+    @Value("${cloud.aws.s3.cleanup.batch-size:100}")
+    private int batchSize;
+
+    @Value("${cloud.aws.s3.cleanup.max-attempts:3}")
+    private int maxAttempts;
+
+    private final BlockingQueue<PendingDelete> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running = false;
+    private Thread worker;
+
+    private record PendingDelete(String key, int attempt) {
+    }
+
+    /**
+     * 트랜잭션이 커밋된 후 삭제합니다. (트랜잭션 밖이면 바로 큐에 넣음)
+     */
+    public void deleteAfterCommit(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(key);
+            }
+        });
+    }
+
+    /**
+     * 트랜잭션이 롤백되면 삭제합니다. (DB에 반영되지 못한 새 업로드 파일 정리용)
+     */
+    public void deleteOnRollback(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    enqueue(key);
+                }
+            }
+        });
+    }
+
+    public void enqueue(String key) {
+        if (key == null || key.isBlank()) {
+            return;
+        }
+        queue.offer(new PendingDelete(key, 1));
+        log.debug("S3 object queued for deletion: {}", key);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "s3-object-cleanup");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(1000);
+        }
+        // 남은 항목은 종료 전에 한 번 더 시도
+        List<PendingDelete> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            deleteBatch(remaining);
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                PendingDelete first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                List<PendingDelete> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                if (!deleteBatch(batch)) {
+                    // 실패 시 잠시 쉬었다가 재시도 (S3 장애 시 busy loop 방지)
+                    Thread.sleep(1000);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("S3 cleanup loop error", e);
+            }
+        }
+    }
+
+    /**
+     * @return 모든 key가 삭제되었으면 true
+     */
+    private boolean deleteBatch(List<PendingDelete> batch) {
+        Map<String, PendingDelete> byKey = new HashMap<>();
+        List<ObjectIdentifier> objects = new ArrayList<>(batch.size());
+        for (PendingDelete item : batch) {
+            if (byKey.putIfAbsent(item.key(), item) == null) {
+                objects.add(ObjectIdentifier.builder().key(item.key()).build());
+            }
+        }
+
+        try {
+            DeleteObjectsResponse response = s3AsyncClient.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(bucket)
+                    .delete(Delete.builder().objects(objects).quiet(true).build())
+                    .build()).join();
+
+            for (S3Error error : response.errors()) {
+                log.warn("Failed to delete S3 object: key={}, code={}", error.key(), error.code());
+                retry(byKey.get(error.key()));
+            }
+
+            log.debug("Deleted S3 objects: requested={}, failed={}", objects.size(), response.errors().size());
+            return response.errors().isEmpty();
+
+        } catch (Exception e) {
+            log.error("Failed to delete S3 objects: count={}", objects.size(), e);
+            byKey.values().forEach(this::retry);
+            return false;
+        }
+    }
+
+    private void retry(PendingDelete item) {
+        if (item == null) {
+            return;
+        }
+        if (item.attempt() >= maxAttempts) {
+            log.error("Give up deleting S3 object after {} attempts: {}", item.attempt(), item.key());
+            return;
+        }
+        queue.offer(new PendingDelete(item.key(), item.attempt() + 1));
+    }
+}
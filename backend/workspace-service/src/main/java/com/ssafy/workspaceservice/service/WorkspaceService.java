@@ -8,6 +8,7 @@ import com.ssafy.workspaceservice.entity.Workspace;
 import com.ssafy.workspaceservice.entity.WorkspaceMember;
 import com.ssafy.workspaceservice.enums.*;
 import com.ssafy.workspaceservice.exception.*;
+import com.ssafy.workspaceservice.kafka.WorkspaceEventProducer;
 import com.ssafy.workspaceservice.repository.WorkspaceMemberRepository;
 import com.ssafy.workspaceservice.repository.WorkspaceRepository;
 import com.ssafy.workspaceservice.repository.WorkspaceVisibilityView;
@@ -34,6 +35,7 @@ public class WorkspaceService {
     private final MindmapClient mindmapClient;
     private final UserServiceClient userServiceClient;
     private final WorkspaceThumbnailService workspaceThumbnailService;
+    private final WorkspaceEventProducer workspaceEventProducer;
 
     private static final int MAX_MEMBERS = 6;
     private static final int DEFAULT_PAGE_SIZE = 20;
@@ -263,8 +265,8 @@ public class WorkspaceService {
             // (1) 멤버 전체 삭제
             workspaceMemberRepository.deleteByWorkspaceId(workspaceId);
 
-            // (2) TODO: Mindmap-Service에 workspaceId의 모든 마인드맵 노드 삭제 요청
-            // mindmapClient.deleteAllNodesByWorkspaceId(workspaceId);
+            // (2) 커밋 후 workspace.deleted 발행 → Mindmap-Service가 노드/시퀀스/검색 인덱스를 비동기 정리
+            workspaceEventProducer.publishDeletedAfterCommit(workspaceId);
 
             // (3) 워크스페이스 삭제
             workspaceRepository.delete(workspace);
@@ -278,8 +280,8 @@ public class WorkspaceService {
 
             if (remaining == 0) {
                 // 아무도 안 남았으면 워크스페이스 삭제 + 마인드맵 정리
-                // mindmapClient.deleteAllNodesByWorkspaceId(workspaceId);
                 workspaceRepository.delete(workspace);
+                workspaceEventProducer.publishDeletedAfterCommit(workspaceId);
             } else if (remaining == 1) {
                 // 한 명만 남았으면 PERSONAL로 변경 (TEAM일 때만 바꿔도 됨)
                 if (workspace.getType() != WorkspaceType.PERSONAL) {
@@ -2,15 +2,15 @@ package com.ssafy.workspaceservice.service;
 
 import com.ssafy.workspaceservice.entity.Workspace;
 import com.ssafy.workspaceservice.repository.WorkspaceRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
@@ -18,17 +18,23 @@ import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignReques
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class WorkspaceThumbnailService {
 
-    private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
     private final S3Presigner s3Presigner;
     private final WorkspaceRepository workspaceRepository;
+    private final S3ObjectCleanupQueue s3ObjectCleanupQueue;
 
     @Value("${cloud.aws.s3.thumbnail-bucket}")
     private String bucket;
@@ -36,38 +42,52 @@ public class WorkspaceThumbnailService {
     @Value("${cloud.aws.s3.thumbnail-prefix}")
     private String prefix;
 
+    // 업로드 파일 스트림 읽기용 (블로킹 I/O를 Netty 이벤트 루프 밖에서 수행)
+    private final ExecutorService uploadStreamExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
     /**
      * 클라이언트가 보낸 썸네일 파일을 S3에 업로드하고,
      * Workspace.thumbnail 에 S3 key 저장
+     *
+     * - S3 업로드(비동기)와 워크스페이스 조회를 동시에 진행
+     * - 어떤 경로로 메서드를 나가든 업로드가 끝난 뒤에 나감 (삭제가 진행 중인 업로드보다 먼저 실행되지 않도록)
+     * - 기존 썸네일은 커밋 후 백그라운드 큐에서 삭제 (요청 지연 = 업로드 시간)
+     * - 업로드 후 조회가 실패하거나 트랜잭션이 롤백되면 새로 올린 파일을 삭제 큐에 넣음
      */
     @Transactional
     public void uploadThumbnail(Long workspaceId, MultipartFile file) {
-        Workspace workspace = workspaceRepository.findById(workspaceId)
-                .orElseThrow(() -> new IllegalArgumentException("Workspace not found: " + workspaceId));
+        // 1) 새 파일 업로드 시작
+        String key = buildKey(workspaceId, file.getOriginalFilename());
+        CompletableFuture<Void> upload = putObjectToS3(key, file);
+
+        Workspace workspace;
+        try {
+            workspace = workspaceRepository.findById(workspaceId)
+                    .orElseThrow(() -> new IllegalArgumentException("Workspace not found: " + workspaceId));
+        } catch (RuntimeException e) {
+            // 업로드가 끝난 뒤에 삭제 (업로드가 실패했으면 없는 key 삭제라 무해)
+            upload.handle((response, uploadError) -> null).join();
+            s3ObjectCleanupQueue.enqueue(key);
+            throw e;
+        }
 
         // ⭐ 기존 썸네일 key 백업
         String oldKey = workspace.getThumbnail();
 
-        // 새 key 생성
-        String key = buildKey(workspaceId, file.getOriginalFilename());
-
-        // 1) 새 파일 업로드
-        putObjectToS3(key, file);
+        try {
+            upload.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to upload workspace thumbnail to S3", e.getCause());
+        }
+        // 객체가 실제로 생긴 뒤에 등록해야 롤백 시 삭제가 업로드보다 늦게 실행됨
+        s3ObjectCleanupQueue.deleteOnRollback(key);
 
         // 2) DB에 새 key 반영
         workspace.changeThumbnail(key);
 
-        // 3) 기존 썸네일 삭제 (여기가 정확한 위치)
+        // 3) 기존 썸네일 삭제 (커밋 후 백그라운드에서, 실패해도 업로드는 정상 처리됨)
         if (oldKey != null && !oldKey.isBlank()) {
-            try {
-                s3Client.deleteObject(DeleteObjectRequest.builder()
-                        .bucket(bucket)
-                        .key(oldKey)
-                        .build());
-            } catch (Exception e) {
-                log.error("Failed to delete old thumbnail from S3: {}", oldKey, e);
-                // 실패해도 업로드는 정상 처리됨 → 여기서 롤백하면 안 됨
-            }
+            s3ObjectCleanupQueue.deleteAfterCommit(oldKey);
         }
     }
 
@@ -81,21 +101,38 @@ public class WorkspaceThumbnailService {
         return String.format("%s/%d/%s.%s", prefix, workspaceId, uuid, ext);
     }
 
-    private void putObjectToS3(String key, MultipartFile file) {
+    private CompletableFuture<Void> putObjectToS3(String key, MultipartFile file) {
+        InputStream in;
         try {
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(key)
-                    .contentType(file.getContentType())
-                    .build();
-
-            s3Client.putObject(
-                    putObjectRequest,
-                    RequestBody.fromInputStream(file.getInputStream(), file.getSize())
-            );
+            in = file.getInputStream();
         } catch (IOException e) {
             throw new RuntimeException("Failed to upload workspace thumbnail to S3", e);
         }
+
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(file.getContentType())
+                .contentLength(file.getSize())
+                .build();
+
+        // 스트리밍 업로드 (파일 전체를 byte[]로 올리지 않음)
+        return s3AsyncClient.putObject(
+                        putObjectRequest,
+                        AsyncRequestBody.fromInputStream(in, file.getSize(), uploadStreamExecutor))
+                .whenComplete((response, e) -> {
+                    try {
+                        in.close();
+                    } catch (IOException ignored) {
+                        // 업로드 결과와 무관
+                    }
+                })
+                .thenApply(response -> null);
+    }
+
+    @PreDestroy
+    void shutdownUploadStreamExecutor() {
+        uploadStreamExecutor.shutdown();
     }
 
     /**